@@ -0,0 +1,135 @@
+package com.example.automl_prototype_1.algorithm;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Helpers for reading values from the {@code configuration} map passed to
+ * {@link OptimizationAlgorithm#execute}. The map may be null (the desktop app passes
+ * null) and values may arrive as numbers or as strings typed into the UI, so every
+ * getter falls back to the given default when a key is absent or unparsable. Also holds
+ * the small helpers the searches share for running evaluation tasks and reporting.
+ */
+final class AlgorithmConfig {
+
+    /** Config key: number of worker threads used to evaluate candidates (default: all cores). */
+    static final String PARALLELISM = "parallelism";
+    /** Config key: executor type for candidate evaluation: "forkjoin" (default), "virtual" or "sequential". */
+    static final String EXECUTOR = "executor";
+
+    private AlgorithmConfig() { }
+
+    static int getInt(Map<String, Object> config, String key, int defaultValue) {
+        Object value = (config != null) ? config.get(key) : null;
+        if (value instanceof Number) return ((Number) value).intValue();
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                System.err.println("AlgorithmConfig: Invalid integer for '" + key + "': " + value + ". Using " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    static double getDouble(Map<String, Object> config, String key, double defaultValue) {
+        Object value = (config != null) ? config.get(key) : null;
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException e) {
+                System.err.println("AlgorithmConfig: Invalid number for '" + key + "': " + value + ". Using " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    static boolean getBoolean(Map<String, Object> config, String key, boolean defaultValue) {
+        Object value = (config != null) ? config.get(key) : null;
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value instanceof String) return Boolean.parseBoolean(((String) value).trim());
+        return defaultValue;
+    }
+
+    static String getString(Map<String, Object> config, String key, String defaultValue) {
+        Object value = (config != null) ? config.get(key) : null;
+        return (value != null) ? value.toString().trim() : defaultValue;
+    }
+
+    /**
+     * Reads the {@code validation} key: "holdout", "kfold" or "stratified" (see
+     * {@link CrossValidationEvaluator#splitsFor}). An unknown value is reported and the
+     * default used instead.
+     * @param owner Prefix of the warning, e.g. "WWO".
+     */
+    static String getValidation(Map<String, Object> config, String defaultValue, String owner) {
+        String validation = getString(config, "validation", defaultValue).toLowerCase();
+        if (!"holdout".equals(validation) && !"kfold".equals(validation) && !"stratified".equals(validation)) {
+            System.err.println(owner + ": Unknown validation '" + validation + "', using "
+                    + ("holdout".equals(defaultValue) ? "holdout" : "stratified k-fold") + ".");
+            return defaultValue;
+        }
+        return validation;
+    }
+
+    /**
+     * Creates the executor used to evaluate candidates in parallel, as selected by the
+     * {@link #EXECUTOR} and {@link #PARALLELISM} keys. Returns null for sequential evaluation.
+     * Virtual threads need Java 21; on older runtimes a ForkJoinPool is used instead.
+     * The caller owns the executor and must shut it down.
+     */
+    static ExecutorService createEvaluationExecutor(Map<String, Object> config) {
+        int parallelism = Math.max(1, getInt(config, PARALLELISM, Runtime.getRuntime().availableProcessors()));
+        String type = getString(config, EXECUTOR, "forkjoin").toLowerCase();
+        if ("sequential".equals(type) || parallelism == 1) {
+            return null;
+        }
+        if ("virtual".equals(type)) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("AlgorithmConfig: Virtual threads not available on this runtime, using ForkJoinPool.");
+            }
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Runs the tasks on the executor (or in order on this thread when it is null) and
+     * waits for all of them. A task's failure is rethrown unchecked.
+     * @param what What the tasks do, for error messages, e.g. "WWO wave evaluation".
+     */
+    static void runTasks(List<Callable<Void>> tasks, ExecutorService executor, String what) {
+        try {
+            if (executor == null) {
+                for (Callable<Void> task : tasks) task.call();
+                return;
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(what + " interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(what + " failed: " + e.getCause(), e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(what + " failed: " + e, e);
+        }
+    }
+
+    /** @return {@code value} rounded to {@code places} decimals, for result metrics. */
+    static double round(double value, int places) {
+        double factor = Math.pow(10, places);
+        return Math.round(value * factor) / factor;
+    }
+}
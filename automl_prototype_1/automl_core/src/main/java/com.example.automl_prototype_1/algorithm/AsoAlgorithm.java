@@ -0,0 +1,363 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DenseMatrix;
+import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Atom Search Optimization (ASO, Zhao 2019) of KNN hyperparameters over the same search
+ * space as {@link IgpsoAlgorithm} and {@link WwoAlgorithm} (see {@link KnnHyperparameterSpace}).
+ * <p>
+ * Atoms are positions with a velocity and a mass that grows with fitness. Each atom is
+ * accelerated by a Lennard-Jones interaction force from the K best atoms (repulsive when
+ * close, attractive further away) plus a constraint force towards the best atom seen; both
+ * decay over the run, shifting the swarm from exploration to exploitation. K shrinks from
+ * the whole population to 2 as in the paper, but is capped at {@code kBestLimit} (by
+ * default {@code ceil(log2 atoms) + 1}), so an iteration costs O(n log n) force terms
+ * rather than the paper's O(n^2). The K best are collected each iteration into sorted
+ * primitive arrays by binary insertion. Setting {@code kBestLimit} to the population size
+ * restores the full schedule.
+ * <p>
+ * Positions move in the unit cube (so k and the weight exponent interact on the same
+ * scale) and are mapped into the search box for scoring. The atoms of an iteration are
+ * scored as one parallel batch through tasks built once per run; the moves are drawn on
+ * one thread, so a seeded run is reproducible. Per-iteration time, split into force
+ * computation and evaluation, is reported to help size populations.
+ * <p>
+ * Stops after {@code maxIterations} or by the {@link ConvergenceCriteria} rules, including
+ * the {@code timeBudgetMs} and {@code maxEvaluations} budgets shared with the GA.
+ */
+public class AsoAlgorithm implements ScreenableSearch {
+
+    private static final String ALGORITHM_NAME = "ASO (KNN HyperOpt)";
+    private static final double EPSILON = 1e-12;
+    private static final double H_MIN = 1.1;  // g0: lower bound of the scaled distance
+    private static final double H_MAX = 1.24; // Upper bound of the scaled distance
+
+    // --- Configuration ---
+    private int atoms = 20;
+    private int maxIterations = 50;
+    private double depth = 50.0;          // alpha: depth weight of the interaction force
+    private double multiplier = 0.2;      // beta: weight of the constraint force
+    private int kBestLimit = 0;           // 0 = ceil(log2 atoms) + 1
+    private boolean weighting = true;
+    private double maxWeightPower = 4.0;
+    private double weightResolution = 0.05;
+    private String neighborSearchType = "auto";
+    private String validation = "stratified";
+    private int folds = 5;
+    private int minK = 1;
+    private int maxK = 20;
+    private Random random = new Random();
+    private ConvergenceCriteria convergence;
+    private PerformancePredictor predictor; // Screens new candidates when wrapped by NNP
+
+    // --- Per-run state ---
+    private KnnHyperparameterSpace space;
+    private int dims;
+    private double[] trial;   // Candidates of the current batch in search-box coordinates
+    private double[] mapped;  // Search-box scratch for one position
+
+    @Override
+    public String getAlgorithmName() { return ALGORITHM_NAME; }
+
+    @Override
+    public void setPerformancePredictor(PerformancePredictor predictor) { this.predictor = predictor; }
+
+    @Override
+    public ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration) {
+        System.out.println("--- Executing " + ALGORITHM_NAME + " ---");
+        long startTime = System.currentTimeMillis();
+        applyConfiguration(configuration);
+        ExecutorService executor = AlgorithmConfig.createEvaluationExecutor(configuration);
+        try {
+            return run(features, executor, startTime);
+        } finally {
+            if (executor != null) executor.shutdown();
+            space = null;
+            trial = null;
+            mapped = null;
+        }
+    }
+
+    private void applyConfiguration(Map<String, Object> config) {
+        atoms = Math.max(2, AlgorithmConfig.getInt(config, "atoms", atoms));
+        maxIterations = Math.max(1, AlgorithmConfig.getInt(config, "maxIterations", maxIterations));
+        depth = Math.max(0.0, AlgorithmConfig.getDouble(config, "depth", depth));
+        multiplier = Math.max(0.0, AlgorithmConfig.getDouble(config, "multiplier", multiplier));
+        kBestLimit = AlgorithmConfig.getInt(config, "kBestLimit", 0); // Derived per run from the population
+        if (kBestLimit <= 0) {
+            kBestLimit = 32 - Integer.numberOfLeadingZeros(atoms - 1) + 1; // ceil(log2 atoms) + 1
+        }
+        kBestLimit = Math.max(2, Math.min(atoms, kBestLimit));
+        weighting = AlgorithmConfig.getBoolean(config, "weighting", weighting);
+        maxWeightPower = Math.max(0.0, AlgorithmConfig.getDouble(config, "maxWeightPower", maxWeightPower));
+        weightResolution = Math.max(1e-6, AlgorithmConfig.getDouble(config, "weightResolution", weightResolution));
+        neighborSearchType = AlgorithmConfig.getString(config, "neighborSearch", neighborSearchType);
+        validation = AlgorithmConfig.getValidation(config, validation, "ASO");
+        folds = Math.max(2, AlgorithmConfig.getInt(config, "folds", folds));
+        minK = Math.max(1, AlgorithmConfig.getInt(config, "minK", minK));
+        maxK = Math.max(minK, AlgorithmConfig.getInt(config, "maxK", maxK));
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+        convergence = ConvergenceCriteria.fromConfig(config);
+    }
+
+    private ExecutionResult run(FeatureMatrix features, ExecutorService executor, long startTime) {
+        DenseMatrix x = features.getMatrix();
+        int[] y = features.getY();
+        int[][][] splits = CrossValidationEvaluator.splitsFor(validation, y, folds, random);
+        CrossValidationEvaluator evaluator = new CrossValidationEvaluator(x, y, splits[0], splits[1], true,
+                neighborSearchType, maxK, executor);
+        space = new KnnHyperparameterSpace(evaluator, minK, maxK, weighting, maxWeightPower, weightResolution);
+        space.setPerformancePredictor(predictor);
+        dims = space.dims();
+        System.out.println("ASO: " + atoms + " atoms (K-best capped at " + kBestLimit + ") over " + space.describe()
+                + " with " + CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()) + ".");
+
+        // Atom state, in unit-cube coordinates
+        double[] position = new double[atoms * dims];
+        double[] velocity = new double[atoms * dims];
+        double[] fitness = new double[atoms];
+        double[] mass = new double[atoms];
+        double[] force = new double[dims];
+        double[] centre = new double[dims];  // Mean position of the K best
+        double[] best = new double[dims];
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        int[] kBest = new int[kBestLimit];   // Atom indices, best first
+        double[] kBestFitness = new double[kBestLimit];
+        trial = new double[atoms * dims];
+        mapped = new double[dims];
+        double[] trialFitness = new double[atoms];
+        int[] cells = new int[atoms];        // Diversity scratch
+        List<Callable<Void>> tasks = createEvaluationTasks(trialFitness, atoms);
+
+        for (int i = 0; i < position.length; i++) position[i] = random.nextDouble();
+        long evaluationNanos = evaluate(tasks, position, atoms, executor);
+        System.arraycopy(trialFitness, 0, fitness, 0, atoms);
+        for (int a = 0; a < atoms; a++) {
+            if (fitness[a] > bestFitness) {
+                bestFitness = fitness[a];
+                System.arraycopy(position, a * dims, best, 0, dims);
+            }
+        }
+        long candidateEvaluations = atoms;
+
+        ConvergenceCriteria.StopReason stopReason = ConvergenceCriteria.StopReason.MAX_ITERATIONS;
+        int iterationsRun = 0;
+        long forceNanos = 0;
+        long iterationNanos = 0;
+        long interactions = 0;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            long iterationStart = System.nanoTime();
+            iterationsRun++;
+            double t = (iteration + 1) / (double) maxIterations;
+            double decay = Math.exp(-20.0 * t);
+            double depthScale = Math.pow(1.0 - iteration / (double) maxIterations, 3);
+            double hMin = H_MIN + 0.1 * Math.sin(Math.PI / 2.0 * t);
+            int k = Math.min(kBestLimit, Math.min(atoms, (int) Math.floor(atoms - (atoms - 2) * Math.sqrt(t)) + 1));
+
+            // Masses (higher for fitter atoms, normalized to sum 1) and the sorted K best
+            double worst = Double.POSITIVE_INFINITY;
+            double top = Double.NEGATIVE_INFINITY;
+            for (int a = 0; a < atoms; a++) {
+                worst = Math.min(worst, fitness[a]);
+                top = Math.max(top, fitness[a]);
+            }
+            double massSum = 0.0;
+            for (int a = 0; a < atoms; a++) {
+                mass[a] = Math.exp(-(top - fitness[a]) / (top - worst + EPSILON));
+                massSum += mass[a];
+            }
+            for (int a = 0; a < atoms; a++) mass[a] /= massSum;
+            selectBest(fitness, k, kBest, kBestFitness);
+            for (int d = 0; d < dims; d++) centre[d] = 0.0;
+            for (int j = 0; j < k; j++) {
+                for (int d = 0; d < dims; d++) centre[d] += position[kBest[j] * dims + d];
+            }
+            for (int d = 0; d < dims; d++) centre[d] /= k;
+
+            // Interaction plus constraint force, then move
+            long forceStart = System.nanoTime();
+            for (int a = 0; a < atoms; a++) {
+                int offset = a * dims;
+                double scale = Math.max(Math.sqrt(squaredDistance(position, offset, centre, 0)), EPSILON);
+                for (int d = 0; d < dims; d++) force[d] = 0.0;
+                for (int j = 0; j < k; j++) {
+                    int other = kBest[j] * dims;
+                    if (other == offset) continue;
+                    interactions++;
+                    double r = Math.sqrt(squaredDistance(position, offset, position, other));
+                    double h = Math.max(hMin, Math.min(H_MAX, r / scale));
+                    double potential = depthScale * (-12.0 * Math.pow(h, -13) + 6.0 * Math.pow(h, -7));
+                    double toward = potential / (r + EPSILON);
+                    for (int d = 0; d < dims; d++) {
+                        force[d] += random.nextDouble() * toward * (position[other + d] - position[offset + d]);
+                    }
+                }
+                for (int d = 0; d < dims; d++) {
+                    int i = offset + d;
+                    double total = depth * force[d] + multiplier * decay * (best[d] - position[i]);
+                    velocity[i] = random.nextDouble() * velocity[i] + total / mass[a];
+                    double moved = position[i] + velocity[i];
+                    if (moved < 0.0 || moved > 1.0) {
+                        moved = random.nextDouble(); // Out of the box: re-enter at random
+                        velocity[i] = 0.0;
+                    }
+                    position[i] = moved;
+                }
+            }
+            forceNanos += System.nanoTime() - forceStart;
+
+            evaluationNanos += evaluate(tasks, position, atoms, executor);
+            candidateEvaluations += atoms;
+            System.arraycopy(trialFitness, 0, fitness, 0, atoms);
+            int strongest = 0;
+            for (int a = 1; a < atoms; a++) {
+                if (fitness[a] > fitness[strongest]) strongest = a;
+            }
+            if (fitness[strongest] > bestFitness) {
+                bestFitness = fitness[strongest];
+                System.arraycopy(position, strongest * dims, best, 0, dims);
+            } else {
+                // No improvement: a random atom takes the best position, as in the reference implementation
+                int a = random.nextInt(atoms);
+                System.arraycopy(best, 0, position, a * dims, dims);
+                fitness[a] = bestFitness;
+            }
+            iterationNanos += System.nanoTime() - iterationStart;
+
+            for (int a = 0; a < atoms; a++) cells[a] = cell(position, a * dims);
+            if (iteration == 0 || (iteration + 1) % 5 == 0 || iteration == maxIterations - 1) {
+                System.out.printf("ASO Iter %d/%d: Best %s = %.4f, Best %s (K-best %d, %.2f ms/iteration)%n",
+                        iteration + 1, maxIterations, CrossValidationEvaluator.accuracyLabel(validation), bestFitness, space.label(cell(best, 0)), k,
+                        iterationNanos / 1e6 / iterationsRun);
+            }
+            ConvergenceCriteria.StopReason fired = convergence.check(bestFitness,
+                    ConvergenceCriteria.diversity(cells, atoms), System.currentTimeMillis() - startTime,
+                    space.getModelEvaluations());
+            if (fired != null) {
+                stopReason = fired;
+                System.out.printf("ASO: Stopping after iteration %d/%d (%s). Best %s = %.4f%n",
+                        iteration + 1, maxIterations, fired.getKey(), CrossValidationEvaluator.accuracyLabel(validation), bestFitness);
+                break;
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        int bestCell = cell(best, 0);
+        long modelEvaluations = space.getModelEvaluations();
+        double evalSeconds = Math.max(1e-9, evaluationNanos / 1e9);
+        double iterations = Math.max(1, iterationsRun);
+        System.out.printf("ASO Finished. Best %s, Best %s = %.4f after %d model evaluations%n",
+                space.label(bestCell), CrossValidationEvaluator.accuracyLabel(validation), bestFitness, modelEvaluations);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("bestK", space.k(bestCell));
+        if (space.isWeighted()) metrics.put("bestWeightPower", AlgorithmConfig.round(space.weightPower(bestCell), 4));
+        metrics.put("iterationsRun", iterationsRun);
+        metrics.put("stopReason", stopReason.getKey());
+        metrics.put("atoms", atoms);
+        metrics.put("kBestLimit", kBestLimit);
+        metrics.put("candidateEvaluations", candidateEvaluations);
+        metrics.put("modelEvaluations", modelEvaluations);
+        metrics.put("fitnessCacheHits", space.getCacheHits());
+        metrics.put("evaluationsPerSecond", AlgorithmConfig.round(modelEvaluations / evalSeconds, 1));
+        metrics.put("msPerIteration", AlgorithmConfig.round(iterationNanos / 1e6 / iterations, 3));
+        metrics.put("forceMsPerIteration", AlgorithmConfig.round(forceNanos / 1e6 / iterations, 4));
+        metrics.put("interactionsPerIteration", AlgorithmConfig.round(interactions / iterations, 1));
+        metrics.put("fullInteractionsPerIteration", (long) atoms * atoms);
+        metrics.put("validation", CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()));
+        metrics.put("cvAccuracyVariance", AlgorithmConfig.round(evaluator.score(space.k(bestCell), space.weightPower(bestCell)).getVariance(), 6));
+        metrics.put("foldBuildMs", evaluator.getBuildTimeMs());
+        return new ExecutionResult(ALGORITHM_NAME + " (Best " + space.label(bestCell) + ")",
+                AlgorithmConfig.round(bestFitness, 4), Double.NaN, Double.NaN, duration, metrics);
+    }
+
+    /**
+     * Collects the {@code k} fittest atoms into {@code indices}/{@code values}, best first
+     * (ties to the lower index), by binary insertion into the bounded sorted arrays.
+     */
+    private static void selectBest(double[] fitness, int k, int[] indices, double[] values) {
+        int size = 0;
+        for (int a = 0; a < fitness.length; a++) {
+            double f = fitness[a];
+            if (size == k && f <= values[k - 1]) continue;
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) { // First slot holding a strictly worse atom
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] >= f) lo = mid + 1; else hi = mid;
+            }
+            int moved = Math.min(size, k - 1) - lo;
+            if (moved > 0) {
+                System.arraycopy(indices, lo, indices, lo + 1, moved);
+                System.arraycopy(values, lo, values, lo + 1, moved);
+            }
+            indices[lo] = a;
+            values[lo] = f;
+            if (size < k) size++;
+        }
+    }
+
+    private static double squaredDistance(double[] a, int aOffset, double[] b, int bOffset, int dims) {
+        double sum = 0.0;
+        for (int d = 0; d < dims; d++) {
+            double diff = a[aOffset + d] - b[bOffset + d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    private double squaredDistance(double[] a, int aOffset, double[] b, int bOffset) {
+        return squaredDistance(a, aOffset, b, bOffset, dims);
+    }
+
+    /** Maps a unit-cube position into the search box at {@code out[outOffset..]}. */
+    private void toSearchBox(double[] unit, int offset, double[] out, int outOffset) {
+        for (int d = 0; d < dims; d++) out[outOffset + d] = space.lower(d) + unit[offset + d] * space.range(d);
+    }
+
+    /** @return The grid cell of a unit-cube position. */
+    private int cell(double[] unit, int offset) {
+        toSearchBox(unit, offset, mapped, 0);
+        return space.cell(mapped, 0);
+    }
+
+    /**
+     * One task per atom, built once, scoring the atom's slot of {@code trial}.
+     */
+    private List<Callable<Void>> createEvaluationTasks(double[] trialFitness, int capacity) {
+        List<Callable<Void>> tasks = new ArrayList<>(capacity);
+        for (int s = 0; s < capacity; s++) {
+            int slot = s;
+            tasks.add(() -> {
+                trialFitness[slot] = space.fitness(trial, slot * dims);
+                return null;
+            });
+        }
+        return tasks;
+    }
+
+    /**
+     * Maps the first {@code count} unit-cube positions into the search box, scores them and
+     * returns the time taken in nanoseconds.
+     */
+    private long evaluate(List<Callable<Void>> tasks, double[] unit, int count, ExecutorService executor) {
+        long start = System.nanoTime();
+        for (int a = 0; a < count; a++) toSearchBox(unit, a * dims, trial, a * dims);
+        space.screen(trial, count);
+        AlgorithmConfig.runTasks(tasks, executor, "ASO atom evaluation");
+        space.recordScreened();
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+/**
+ * Ball-tree neighbor search.
+ * <p>
+ * Every node stores the centroid of its rows and the radius of the ball around it.
+ * A node is skipped when even the closest possible point in its ball,
+ * {@code max(0, |q - c| - r)}, is farther than the current k-th neighbor. Balls adapt
+ * to the data better than axis-aligned KD splits on clustered or moderately
+ * high-dimensional data. Nodes are split at the median of the widest dimension.
+ * Rows and centroids are kept in flat arrays (rows in leaf order). The tree is
+ * immutable after construction, so concurrent queries are safe.
+ */
+public class BallTreeNeighborSearch implements NeighborSearch {
+
+    private static final int LEAF_SIZE = 16;
+
+    private final DistanceKernel kernel;
+    private final int[] order;        // Leaf position -> original row index
+    private final DenseMatrix points; // Rows copied in leaf order (row i = original row order[i])
+    private final int dims;
+
+    // Node arrays (index = node id); leaves have left == -1
+    private final int[] start;
+    private final int[] end;
+    private final int[] left;
+    private final int[] right;
+    private final double[] centroids; // Node centroid at [node * dims, (node + 1) * dims)
+    private final double[] radius;
+    private int nodeCount = 0;
+
+    /** @param data Training rows (copied in leaf order). */
+    public BallTreeNeighborSearch(DenseMatrix data) {
+        this(data, DistanceKernel.getDefault());
+    }
+
+    /**
+     * @param data Training rows (copied in leaf order).
+     * @param kernel Distance kernel for row comparisons.
+     */
+    public BallTreeNeighborSearch(DenseMatrix data, DistanceKernel kernel) {
+        this.kernel = kernel;
+        this.dims = data.getNumCols();
+        int n = data.getNumRows();
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        int maxNodes = 2 * (n / (LEAF_SIZE / 2) + 1); // Median splits keep leaves >= LEAF_SIZE / 2 rows
+        start = new int[maxNodes];
+        end = new int[maxNodes];
+        left = new int[maxNodes];
+        right = new int[maxNodes];
+        centroids = new double[maxNodes * dims];
+        radius = new double[maxNodes];
+        if (n > 0) build(data, 0, n);
+        this.points = data.view(order).compact();
+    }
+
+    private int build(DenseMatrix data, int from, int to) {
+        int node = nodeCount++;
+        start[node] = from;
+        end[node] = to;
+        left[node] = -1;
+        right[node] = -1;
+
+        double[] values = data.getData();
+        int center = node * dims;
+        for (int i = from; i < to; i++) {
+            int offset = data.rowOffset(order[i]);
+            for (int d = 0; d < dims; d++) centroids[center + d] += values[offset + d];
+        }
+        for (int d = 0; d < dims; d++) centroids[center + d] /= (to - from);
+        double maxDist = 0.0;
+        for (int i = from; i < to; i++) {
+            maxDist = Math.max(maxDist, kernel.squaredEuclidean(centroids, center, values, data.rowOffset(order[i]), dims));
+        }
+        radius[node] = Math.sqrt(maxDist);
+
+        if (to - from <= LEAF_SIZE) return node;
+        int dim = TreeBuildUtil.widestDimension(data, order, from, to);
+        int mid = (from + to) >>> 1;
+        TreeBuildUtil.select(data, order, from, to - 1, mid, dim);
+        left[node] = build(data, from, mid);
+        right[node] = build(data, mid, to);
+        return node;
+    }
+
+    @Override
+    public int search(double[] query, int queryOffset, int k, int[] indices, double[] distances) {
+        if (k <= 0 || order.length == 0) return 0;
+        NeighborList best = new NeighborList(Math.min(k, order.length), indices, distances);
+        search(0, query, queryOffset, centerDistance(query, queryOffset, 0), best);
+        return best.size();
+    }
+
+    /** @param centerDist Euclidean distance from the query to this node's centroid. */
+    private void search(int node, double[] query, int queryOffset, double centerDist, NeighborList best) {
+        double gap = Math.max(0.0, centerDist - radius[node]);
+        if (gap * gap > best.worstDistance()) return;
+
+        if (left[node] < 0) {
+            double[] values = points.getData();
+            for (int i = start[node]; i < end[node]; i++) {
+                double d = kernel.squaredEuclidean(query, queryOffset, values, i * dims, dims);
+                if (d <= best.worstDistance()) best.offer(d, order[i]);
+            }
+            return;
+        }
+        // Visit the child whose centroid is closer first, so the bound tightens sooner
+        double leftDist = centerDistance(query, queryOffset, left[node]);
+        double rightDist = centerDistance(query, queryOffset, right[node]);
+        if (leftDist <= rightDist) {
+            search(left[node], query, queryOffset, leftDist, best);
+            search(right[node], query, queryOffset, rightDist, best);
+        } else {
+            search(right[node], query, queryOffset, rightDist, best);
+            search(left[node], query, queryOffset, leftDist, best);
+        }
+    }
+
+    private double centerDistance(double[] query, int queryOffset, int node) {
+        return Math.sqrt(kernel.squaredEuclidean(query, queryOffset, centroids, node * dims, dims));
+    }
+
+    @Override
+    public int size() { return order.length; }
+
+    @Override
+    public String getName() { return "ball-tree"; }
+}
@@ -0,0 +1,440 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DenseMatrix;
+import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Model-based (Bayesian) optimization of the KNN 'k' hyperparameter over the same
+ * search space, validation folds and fitness as {@link GeneticAlgorithm}, so the two
+ * are directly comparable in the results table.
+ * <p>
+ * After a few random start-up trials every new k is proposed by a surrogate fitted to
+ * all trials so far:
+ * <ul>
+ *   <li>"tpe" (Tree-structured Parzen Estimator): splits the trials into the best
+ *       {@code gamma} fraction and the rest, models each group with a Parzen (Gaussian
+ *       kernel) density over the integers, and picks the k maximizing
+ *       good-density / bad-density.</li>
+ *   <li>"gp": a Gaussian process with an RBF kernel (length scale chosen by marginal
+ *       likelihood) and the expected-improvement acquisition.</li>
+ * </ul>
+ * Each trial is one model evaluation, so far fewer are needed than a population search
+ * when evaluations are expensive. Trials stop at {@code maxEvaluations} (0 or less, as for
+ * {@link ConvergenceCriteria}, means no limit), when every k has been tried, or by the
+ * other {@link ConvergenceCriteria} rules (stagnation counts trials).
+ */
+public class BayesianOptimizationAlgorithm implements OptimizationAlgorithm {
+
+    private static final int MAX_ENUMERATED_CANDIDATES = 4096; // Larger spaces sample candidates instead
+
+    private Random random = new Random();
+
+    // --- Configuration ---
+    private String surrogate;            // "tpe" or "gp"
+    private int maxEvaluations = 30;     // Trial budget; 0 or less tries the whole search space
+    private int startupTrials = 10;      // Random trials before the surrogate takes over
+    private double gamma = 0.25;         // TPE: fraction of trials modeled as "good"
+    private int candidates = 24;         // Candidates drawn per proposal when the space is too large to enumerate
+    private String knnEvaluation = "table";
+    private String neighborSearchType = "auto";
+    private String validation = "stratified";
+    private int folds = 5;
+    private int minK = 1;
+    private int maxK = 20;
+
+    // --- Per-run state ---
+    private CrossValidationEvaluator evaluator;
+    private FitnessCache<Integer> fitnessCache;
+    private ConvergenceCriteria convergence;
+    private int lowK;
+    private int highK;
+
+    /** Creates a TPE optimizer. */
+    public BayesianOptimizationAlgorithm() {
+        this("tpe");
+    }
+
+    /**
+     * @param surrogate Default surrogate model, "tpe" or "gp" (the "surrogate" config key overrides it).
+     */
+    public BayesianOptimizationAlgorithm(String surrogate) {
+        this.surrogate = surrogate;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return ("gp".equals(surrogate) ? "GP-BO" : "TPE") + " (KNN HyperOpt)";
+    }
+
+    @Override
+    public ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration) {
+        applyConfiguration(configuration);
+        System.out.println("--- Executing " + getAlgorithmName() + " ---");
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = AlgorithmConfig.createEvaluationExecutor(configuration);
+        try {
+            return run(features, executor, startTime);
+        } finally {
+            if (executor != null) executor.shutdown();
+            evaluator = null;
+        }
+    }
+
+    private void applyConfiguration(Map<String, Object> config) {
+        surrogate = AlgorithmConfig.getString(config, "surrogate", surrogate).toLowerCase();
+        if (!"tpe".equals(surrogate) && !"gp".equals(surrogate)) {
+            System.err.println("BayesianOptimization: Unknown surrogate '" + surrogate + "', using tpe.");
+            surrogate = "tpe";
+        }
+        maxEvaluations = Math.max(0, AlgorithmConfig.getInt(config, "maxEvaluations", maxEvaluations));
+        startupTrials = Math.max(2, AlgorithmConfig.getInt(config, "startupTrials", startupTrials));
+        gamma = Math.min(0.9, Math.max(0.05, AlgorithmConfig.getDouble(config, "gamma", gamma)));
+        candidates = Math.max(1, AlgorithmConfig.getInt(config, "candidates", candidates));
+        knnEvaluation = AlgorithmConfig.getString(config, "knnEvaluation", knnEvaluation);
+        neighborSearchType = AlgorithmConfig.getString(config, "neighborSearch", neighborSearchType);
+        validation = AlgorithmConfig.getValidation(config, validation, "BayesianOptimization");
+        folds = Math.max(2, AlgorithmConfig.getInt(config, "folds", folds));
+        minK = Math.max(1, AlgorithmConfig.getInt(config, "minK", minK));
+        maxK = Math.max(minK, AlgorithmConfig.getInt(config, "maxK", maxK));
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+        convergence = ConvergenceCriteria.fromConfig(config);
+    }
+
+    private ExecutionResult run(FeatureMatrix features, ExecutorService executor, long startTime) {
+        DenseMatrix x = features.getMatrix();
+        int[] y = features.getY();
+        int[][][] splits = CrossValidationEvaluator.splitsFor(validation, y, folds, random);
+        evaluator = new CrossValidationEvaluator(x, y, splits[0], splits[1], "table".equalsIgnoreCase(knnEvaluation),
+                neighborSearchType, maxK, executor);
+        fitnessCache = new FitnessCache<>();
+        highK = Math.max(minK, Math.min(maxK, evaluator.getMinTrainRows() - 1)); // k must be < N
+        lowK = Math.min(minK, highK);
+        int space = highK - lowK + 1;
+        int budget = (maxEvaluations > 0) ? Math.min(maxEvaluations, space) : space;
+        System.out.println("BayesianOptimization: " + surrogate + " over k in [" + lowK + ", " + highK + "] with "
+                + CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()) + ", up to "
+                + budget + " trials.");
+
+        int[] trialK = new int[budget];
+        double[] trialScore = new double[budget];
+        boolean[] tried = new boolean[space];
+        int trials = 0;
+        int bestTrial = -1;
+        ConvergenceCriteria.StopReason stopReason = ConvergenceCriteria.StopReason.MAX_ITERATIONS;
+
+        while (trials < budget) {
+            int k = (trials < Math.min(startupTrials, budget)) ? randomUntried(tried)
+                    : ("gp".equals(surrogate) ? suggestGp(trialK, trialScore, trials, tried)
+                                              : suggestTpe(trialK, trialScore, trials, tried));
+            tried[k - lowK] = true;
+            double score = fitnessCache.getOrCompute(evaluator.getSplitId(), k, kk -> evaluator.score(kk).getMean());
+            trialK[trials] = k;
+            trialScore[trials] = score;
+            if (bestTrial < 0 || score > trialScore[bestTrial]) bestTrial = trials;
+            trials++;
+            if (trials == 1 || trials % 5 == 0 || trials == budget) {
+                System.out.printf("BayesianOptimization Trial %d/%d: k=%d, Accuracy = %.4f, Best K = %d (%.4f)%n",
+                        trials, budget, k, score, trialK[bestTrial], trialScore[bestTrial]);
+            }
+            ConvergenceCriteria.StopReason fired = convergence.check(score, 1.0, System.currentTimeMillis() - startTime,
+                    fitnessCache.getMisses());
+            if (fired != null && trials < budget) {
+                stopReason = fired;
+                System.out.printf("BayesianOptimization: Stopping after trial %d (%s).%n", trials, fired.getKey());
+                break;
+            }
+        }
+        if (trials == space && (maxEvaluations <= 0 || space < maxEvaluations)) {
+            System.out.println("BayesianOptimization: Every k in the search space has been tried.");
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        int bestK = trialK[bestTrial];
+        double bestScore = trialScore[bestTrial];
+        System.out.printf("BayesianOptimization Finished. Best K = %d, Best %s = %.4f after %d trials%n",
+                bestK, CrossValidationEvaluator.accuracyLabel(validation), bestScore, trials);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("surrogate", surrogate);
+        metrics.put("trials", trials);
+        metrics.put("bestTrial", bestTrial + 1);
+        metrics.put("modelEvaluations", fitnessCache.getMisses());
+        metrics.put("stopReason", stopReason.getKey());
+        metrics.put("validation", CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()));
+        metrics.put("cvAccuracyVariance", AlgorithmConfig.round(evaluator.score(bestK).getVariance(), 6));
+        metrics.put("foldBuildMs", evaluator.getBuildTimeMs());
+        return new ExecutionResult(getAlgorithmName() + " (Best K=" + bestK + ")",
+                AlgorithmConfig.round(bestScore, 4), Double.NaN, Double.NaN, duration, metrics);
+    }
+
+    private int randomUntried(boolean[] tried) {
+        int k;
+        do {
+            k = lowK + random.nextInt(tried.length);
+        } while (tried[k - lowK]);
+        return k;
+    }
+
+    // --- TPE ---
+
+    /**
+     * Proposes the untried k maximizing l(k) / g(k), where l and g are Parzen densities of
+     * the best {@code gamma} fraction of the trials and of the rest.
+     */
+    private int suggestTpe(int[] trialK, double[] trialScore, int n, boolean[] tried) {
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(trialScore[b], trialScore[a]));
+        int nGood = Math.max(1, Math.min(n - 1, (int) Math.ceil(gamma * n)));
+        double[] good = new double[nGood];
+        double[] bad = new double[n - nGood];
+        for (int i = 0; i < n; i++) {
+            if (i < nGood) good[i] = trialK[order[i]];
+            else bad[i - nGood] = trialK[order[i]];
+        }
+        double[][] lModel = parzen(good);
+        double[][] gModel = parzen(bad);
+
+        int best = -1;
+        double bestRatio = Double.NEGATIVE_INFINITY;
+        for (int k : proposalCandidates(tried, lModel)) {
+            double ratio = Math.log(parzenMass(lModel, k)) - Math.log(parzenMass(gModel, k));
+            if (ratio > bestRatio || (ratio == bestRatio && k < best)) {
+                bestRatio = ratio;
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Parzen estimator: one Gaussian per observation with hyperopt's adaptive bandwidth
+     * (the larger gap to its sorted neighbors), plus a uniform prior weighted as one sample.
+     * @return {means, bandwidths}.
+     */
+    private double[][] parzen(double[] samples) {
+        double[] mu = samples.clone();
+        Arrays.sort(mu);
+        int n = mu.length;
+        double range = highK - lowK + 1;
+        double minSigma = range / Math.min(100.0, n + 1.0);
+        double[] sigma = new double[n];
+        for (int i = 0; i < n; i++) {
+            double left = (i > 0) ? mu[i] - mu[i - 1] : mu[i] - (lowK - 0.5);
+            double right = (i < n - 1) ? mu[i + 1] - mu[i] : (highK + 0.5) - mu[i];
+            sigma[i] = Math.min(range, Math.max(minSigma, Math.max(left, right)));
+        }
+        return new double[][] { mu, sigma };
+    }
+
+    /** Probability mass of the integer k under a Parzen model, truncated to [lowK, highK]. */
+    private double parzenMass(double[][] model, int k) {
+        double[] mu = model[0];
+        double[] sigma = model[1];
+        double range = highK - lowK + 1;
+        double mass = 1.0 / range; // Uniform prior component
+        for (int i = 0; i < mu.length; i++) {
+            double lo = lowK - 0.5;
+            double hi = highK + 0.5;
+            double total = phi((hi - mu[i]) / sigma[i]) - phi((lo - mu[i]) / sigma[i]);
+            double cell = phi((k + 0.5 - mu[i]) / sigma[i]) - phi((k - 0.5 - mu[i]) / sigma[i]);
+            mass += cell / Math.max(total, 1e-12);
+        }
+        return Math.max(mass / (mu.length + 1), 1e-300);
+    }
+
+    /**
+     * Every untried k when the space is small; otherwise {@code candidates} draws from the
+     * good-trial model (plus its prior), as in hyperopt.
+     */
+    private int[] proposalCandidates(boolean[] tried, double[][] lModel) {
+        if (tried.length <= MAX_ENUMERATED_CANDIDATES) {
+            return untried(tried);
+        }
+        double[] mu = lModel[0];
+        double[] sigma = lModel[1];
+        int[] drawn = new int[candidates];
+        int count = 0;
+        for (int attempt = 0; attempt < 20 * candidates && count < candidates; attempt++) {
+            int component = random.nextInt(mu.length + 1);
+            int k = (component == mu.length) ? lowK + random.nextInt(tried.length)
+                    : (int) Math.round(mu[component] + sigma[component] * random.nextGaussian());
+            if (k >= lowK && k <= highK && !tried[k - lowK]) drawn[count++] = k;
+        }
+        if (count == 0) drawn[count++] = randomUntried(tried);
+        return Arrays.copyOf(drawn, count);
+    }
+
+    private int[] untried(boolean[] tried) {
+        int count = 0;
+        for (boolean t : tried) if (!t) count++;
+        int[] result = new int[count];
+        for (int i = 0, j = 0; i < tried.length; i++) {
+            if (!tried[i]) result[j++] = lowK + i;
+        }
+        return result;
+    }
+
+    // --- Gaussian process ---
+
+    private static final double[] LENGTH_SCALES = { 0.03, 0.06, 0.12, 0.25, 0.5, 1.0 };
+    private static final double GP_NOISE = 1e-4;
+    private static final double EI_XI = 0.01;
+
+    /**
+     * Proposes the untried k with the highest expected improvement under a GP fitted to
+     * the standardized scores (inputs scaled to [0, 1]).
+     */
+    private int suggestGp(int[] trialK, double[] trialScore, int n, boolean[] tried) {
+        double span = Math.max(1, highK - lowK);
+        double[] t = new double[n];
+        double mean = 0.0;
+        for (int i = 0; i < n; i++) {
+            t[i] = (trialK[i] - lowK) / span;
+            mean += trialScore[i];
+        }
+        mean /= n;
+        double var = 0.0;
+        for (int i = 0; i < n; i++) var += (trialScore[i] - mean) * (trialScore[i] - mean);
+        double std = Math.sqrt(var / n);
+        if (std < 1e-12) std = 1.0;
+        double[] z = new double[n];
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            z[i] = (trialScore[i] - mean) / std;
+            best = Math.max(best, z[i]);
+        }
+
+        // Pick the length scale with the highest log marginal likelihood
+        double[][] chol = null;
+        double[] alpha = null;
+        double lengthScale = LENGTH_SCALES[0];
+        double bestLml = Double.NEGATIVE_INFINITY;
+        for (double ell : LENGTH_SCALES) {
+            double[][] l = cholesky(kernelMatrix(t, ell));
+            if (l == null) continue;
+            double[] a = choleskySolve(l, z);
+            double lml = 0.0;
+            for (int i = 0; i < n; i++) lml += -0.5 * z[i] * a[i] - Math.log(l[i][i]);
+            if (lml > bestLml) {
+                bestLml = lml;
+                chol = l;
+                alpha = a;
+                lengthScale = ell;
+            }
+        }
+        if (chol == null) return randomUntried(tried);
+
+        int[] pool = (tried.length <= MAX_ENUMERATED_CANDIDATES) ? untried(tried) : sampleUntried(tried, 512);
+        int bestK = pool[0];
+        double bestEi = Double.NEGATIVE_INFINITY;
+        double[] kStar = new double[n];
+        for (int k : pool) {
+            double tk = (k - lowK) / span;
+            for (int i = 0; i < n; i++) kStar[i] = rbf(tk, t[i], lengthScale);
+            double mu = 0.0;
+            for (int i = 0; i < n; i++) mu += kStar[i] * alpha[i];
+            double[] v = forwardSubstitute(chol, kStar);
+            double s2 = 1.0 - dot(v, v);
+            double sigma = Math.sqrt(Math.max(s2, 1e-12));
+            double improvement = mu - best - EI_XI;
+            double u = improvement / sigma;
+            double ei = improvement * phi(u) + sigma * Math.exp(-0.5 * u * u) / Math.sqrt(2 * Math.PI);
+            if (ei > bestEi) {
+                bestEi = ei;
+                bestK = k;
+            }
+        }
+        return bestK;
+    }
+
+    private int[] sampleUntried(boolean[] tried, int count) {
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) result[i] = randomUntried(tried);
+        return result;
+    }
+
+    private static double rbf(double a, double b, double lengthScale) {
+        double d = (a - b) / lengthScale;
+        return Math.exp(-0.5 * d * d);
+    }
+
+    private static double[][] kernelMatrix(double[] t, double lengthScale) {
+        int n = t.length;
+        double[][] k = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                k[i][j] = k[j][i] = rbf(t[i], t[j], lengthScale);
+            }
+            k[i][i] += GP_NOISE;
+        }
+        return k;
+    }
+
+    /** @return Lower-triangular L with L L^T = a, or null if a is not positive definite. */
+    private static double[][] cholesky(double[][] a) {
+        int n = a.length;
+        double[][] l = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = a[i][j];
+                for (int p = 0; p < j; p++) sum -= l[i][p] * l[j][p];
+                if (i == j) {
+                    if (sum <= 0.0) return null;
+                    l[i][i] = Math.sqrt(sum);
+                } else {
+                    l[i][j] = sum / l[j][j];
+                }
+            }
+        }
+        return l;
+    }
+
+    private static double[] forwardSubstitute(double[][] l, double[] b) {
+        int n = b.length;
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = b[i];
+            for (int p = 0; p < i; p++) sum -= l[i][p] * x[p];
+            x[i] = sum / l[i][i];
+        }
+        return x;
+    }
+
+    /** Solves (L L^T) x = b. */
+    private static double[] choleskySolve(double[][] l, double[] b) {
+        double[] w = forwardSubstitute(l, b);
+        int n = b.length;
+        double[] x = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = w[i];
+            for (int p = i + 1; p < n; p++) sum -= l[p][i] * x[p];
+            x[i] = sum / l[i][i];
+        }
+        return x;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+        return sum;
+    }
+
+    /** Standard normal CDF (Abramowitz and Stegun 7.1.26 erf, |error| < 1.5e-7). */
+    private static double phi(double x) {
+        double z = Math.abs(x) / Math.sqrt(2.0);
+        double t = 1.0 / (1.0 + 0.3275911 * z);
+        double poly = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+        double erf = 1.0 - poly * Math.exp(-z * z);
+        return 0.5 * (1.0 + Math.signum(x) * erf);
+    }
+}
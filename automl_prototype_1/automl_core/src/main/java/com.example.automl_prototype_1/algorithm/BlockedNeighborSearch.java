@@ -0,0 +1,151 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+/**
+ * Exhaustive neighbor search that computes whole tiles of query x train distances,
+ * GEMM style, with {@code |a - b|^2 = |a|^2 + |b|^2 - 2 a.b}.
+ * <p>
+ * Training row norms are computed once. A block of {@value #QUERY_TILE} queries is
+ * compared against one cache-sized tile of training rows at a time, so the tile is
+ * loaded from memory once per block instead of once per query. Inside a tile, four
+ * queries share each pass over a training row ({@link DistanceKernel#dot4}), and each
+ * pair costs a single dot product. Blocks are independent; {@link KnnNeighborTable}
+ * runs them in parallel.
+ * <p>
+ * The expansion loses precision when rows are far from the origin, so rows are
+ * centered on the training mean first (distances are unchanged by a shift). The k
+ * nearest candidates are then re-ranked by their exact squared distance, so results
+ * agree with {@link BruteForceNeighborSearch} except for neighbors whose distances
+ * differ by less than rounding error.
+ */
+public class BlockedNeighborSearch implements NeighborSearch {
+
+    /** Query rows handled together against each training tile. */
+    private static final int QUERY_TILE = 32;
+    /** Target size of one training tile; about half of a typical L2 cache. */
+    private static final int TRAIN_TILE_BYTES = 128 * 1024;
+
+    private final DistanceKernel kernel;
+    private final DenseMatrix points; // Centered training rows, contiguous
+    private final double[] mean;      // Training column means
+    private final double[] norms;     // Squared norm of each centered training row
+    private final int dims;
+    private final int trainTile;
+
+    /** @param data Training rows (copied and centered). */
+    public BlockedNeighborSearch(DenseMatrix data) {
+        this(data, DistanceKernel.getDefault());
+    }
+
+    /**
+     * @param data Training rows (copied and centered).
+     * @param kernel Kernel used for dot products and the exact re-ranking.
+     */
+    public BlockedNeighborSearch(DenseMatrix data, DistanceKernel kernel) {
+        this.kernel = kernel;
+        this.dims = data.getNumCols();
+        int n = data.getNumRows();
+        double[] values = data.getData();
+
+        this.mean = new double[dims];
+        for (int i = 0; i < n; i++) {
+            int offset = data.rowOffset(i);
+            for (int d = 0; d < dims; d++) mean[d] += values[offset + d];
+        }
+        for (int d = 0; d < dims; d++) mean[d] /= Math.max(1, n);
+
+        this.points = new DenseMatrix(n, dims);
+        this.norms = new double[n];
+        double[] centered = points.getData();
+        for (int i = 0; i < n; i++) {
+            int offset = data.rowOffset(i);
+            for (int d = 0; d < dims; d++) centered[i * dims + d] = values[offset + d] - mean[d];
+            norms[i] = kernel.dot(centered, i * dims, centered, i * dims, dims);
+        }
+        this.trainTile = Math.max(16, Math.min(1024, TRAIN_TILE_BYTES / (Double.BYTES * Math.max(1, dims))));
+    }
+
+    @Override
+    public int search(double[] query, int queryOffset, int k, int[] indices, double[] distances) {
+        int count = Math.min(k, norms.length);
+        if (count <= 0) return 0;
+        double[] block = new double[dims];
+        double[] blockNorms = new double[1];
+        center(query, queryOffset, block, 0, blockNorms, 0);
+        searchBlock(block, blockNorms, 1, count, indices, distances, 0, k);
+        return count;
+    }
+
+    @Override
+    public void searchBatch(DenseMatrix queries, int from, int to, int k, int[] indices, double[] distances) {
+        int count = Math.min(k, norms.length);
+        if (count <= 0) return;
+        double[] block = new double[QUERY_TILE * dims];
+        double[] blockNorms = new double[QUERY_TILE];
+        double[] values = queries.getData();
+        for (int q0 = from; q0 < to; q0 += QUERY_TILE) {
+            int rows = Math.min(QUERY_TILE, to - q0);
+            for (int q = 0; q < rows; q++) center(values, queries.rowOffset(q0 + q), block, q, blockNorms, q);
+            searchBlock(block, blockNorms, rows, count, indices, distances, (q0 - from) * k, k);
+        }
+    }
+
+    /** Copies one query into the block, centered on the training mean, and stores its squared norm. */
+    private void center(double[] query, int queryOffset, double[] block, int row, double[] blockNorms, int normIndex) {
+        int base = row * dims;
+        for (int d = 0; d < dims; d++) block[base + d] = query[queryOffset + d] - mean[d];
+        blockNorms[normIndex] = kernel.dot(block, base, block, base, dims);
+    }
+
+    /**
+     * Finds {@code count} neighbors for each of the first {@code rows} centered queries in
+     * {@code block}, writing query q's list at {@code outBase + q * stride}.
+     */
+    private void searchBlock(double[] block, double[] blockNorms, int rows, int count,
+                             int[] indices, double[] distances, int outBase, int stride) {
+        NeighborList[] lists = new NeighborList[rows];
+        for (int q = 0; q < rows; q++) lists[q] = new NeighborList(count, indices, distances, outBase + q * stride);
+
+        double[] train = points.getData();
+        double[] dots = new double[4];
+        int n = norms.length;
+        for (int t0 = 0; t0 < n; t0 += trainTile) {
+            int t1 = Math.min(n, t0 + trainTile);
+            int q = 0;
+            for (; q + 4 <= rows; q += 4) { // Four queries per pass over each training row
+                for (int j = t0; j < t1; j++) {
+                    kernel.dot4(block, q * dims, dims, train, j * dims, dims, dots);
+                    for (int r = 0; r < 4; r++) offer(lists[q + r], blockNorms[q + r] + norms[j] - 2.0 * dots[r], j);
+                }
+            }
+            for (; q < rows; q++) {
+                for (int j = t0; j < t1; j++) {
+                    offer(lists[q], blockNorms[q] + norms[j] - 2.0 * kernel.dot(block, q * dims, train, j * dims, dims), j);
+                }
+            }
+        }
+
+        // Re-rank the selected neighbors by exact distance so ties and near-ties order like brute force
+        int[] candidates = new int[count];
+        for (int q = 0; q < rows; q++) {
+            int base = outBase + q * stride;
+            System.arraycopy(indices, base, candidates, 0, count);
+            NeighborList exact = new NeighborList(count, indices, distances, base);
+            for (int candidate : candidates) {
+                exact.offer(kernel.squaredEuclidean(block, q * dims, train, candidate * dims, dims), candidate);
+            }
+        }
+    }
+
+    private static void offer(NeighborList best, double distance, int row) {
+        if (distance < 0.0) distance = 0.0; // Rounding can push near-duplicates below zero
+        if (distance <= best.worstDistance()) best.offer(distance, row);
+    }
+
+    @Override
+    public int size() { return norms.length; }
+
+    @Override
+    public String getName() { return "blocked"; }
+}
@@ -0,0 +1,336 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DenseMatrix;
+import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Binary particle swarm optimization (BPSO) for wrapper feature selection with KNN.
+ * <p>
+ * Each particle is a feature subset. Positions are bitsets packed into one flat
+ * {@code long[]} (one {@link FeatureMask#words(int)}-long block per particle) and
+ * velocities are one flat {@code double[]} (one value per particle and feature). Each
+ * iteration the velocity of a bit is pulled towards the particle's own best subset and
+ * the swarm's best subset. With the default V-shaped transfer the bit then flips with
+ * probability |tanh(velocity)|, so bits that agree with both bests settle as their
+ * velocity decays; the classic S-shaped transfer sets the bit with probability
+ * sigmoid(velocity), which keeps re-randomizing settled bits.
+ * <p>
+ * Fitness rewards accuracy first and small subsets second:
+ * {@code alpha * accuracy + (1 - alpha) * (1 - selected / total)}, where accuracy is the
+ * mean fold accuracy of KNN with a fixed k on the selected columns
+ * ({@link FeatureSubsetEvaluator}). Particles are scored in parallel and every distinct
+ * subset is evaluated at most once per run ({@link FitnessCache}); the swarm update and
+ * any predictor screening ({@link ScreeningBatch}) run on one thread, so a seeded run is
+ * reproducible.
+ * <p>
+ * A particle only flips a few bits per iteration, so by default each particle keeps
+ * the distance matrix of the subset it last scored and updates it by the flipped
+ * features only ({@link FeatureSubsetEvaluator.DistanceState}). The states cost one
+ * test-by-train matrix per particle; when they would not fit in
+ * {@code incrementalMemoryMb} (default a quarter of the heap) every subset is scored
+ * from scratch instead.
+ */
+public class BpsoAlgorithm implements ScreenableSearch {
+
+    private static final String ALGORITHM_NAME = "BPSO (KNN Feature Selection)";
+    private static final double V_MAX = 6.0; // Both transfers stay just below 1: a bit can still go either way
+
+    // --- Configuration ---
+    private int particles = 20;
+    private int maxIterations = 30;
+    private int k = 5;
+    private double alpha = 0.99;        // Weight of accuracy against subset size
+    private double inertiaStart = 0.9;  // Inertia decays linearly to inertiaEnd
+    private double inertiaEnd = 0.4;
+    private double cognitive = 2.0;     // Pull towards the particle's best
+    private double social = 2.0;        // Pull towards the swarm's best
+    private String transfer = "v";      // "v" (flip with |tanh(v)|) or "s" (set with sigmoid(v))
+    private String validation = "holdout";
+    private int folds = 5;
+    private String neighborSearchType = "auto";
+    private boolean incremental = true;
+    private long incrementalMemoryMb = Runtime.getRuntime().maxMemory() / (4L << 20);
+    private Random random = new Random();
+    private ConvergenceCriteria convergence;
+    private PerformancePredictor predictor; // Screens new subsets when wrapped by NNP
+
+    // --- Per-run state ---
+    private FeatureSubsetEvaluator evaluator;
+    private FitnessCache<FeatureMask> fitnessCache;
+    private ScreeningBatch<FeatureMask> screening; // null without a predictor
+    private int numFeatures;
+    private int words;
+
+    @Override
+    public String getAlgorithmName() { return ALGORITHM_NAME; }
+
+    @Override
+    public void setPerformancePredictor(PerformancePredictor predictor) { this.predictor = predictor; }
+
+    @Override
+    public ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration) {
+        System.out.println("--- Executing " + ALGORITHM_NAME + " ---");
+        long startTime = System.currentTimeMillis();
+        applyConfiguration(configuration);
+        ExecutorService executor = AlgorithmConfig.createEvaluationExecutor(configuration);
+        try {
+            return run(features, executor, startTime);
+        } finally {
+            if (executor != null) executor.shutdown();
+            evaluator = null;
+        }
+    }
+
+    private void applyConfiguration(Map<String, Object> config) {
+        particles = Math.max(2, AlgorithmConfig.getInt(config, "particles", particles));
+        maxIterations = Math.max(1, AlgorithmConfig.getInt(config, "maxIterations", maxIterations));
+        k = Math.max(1, AlgorithmConfig.getInt(config, "k", k));
+        alpha = Math.min(1.0, Math.max(0.0, AlgorithmConfig.getDouble(config, "alpha", alpha)));
+        inertiaStart = AlgorithmConfig.getDouble(config, "inertiaStart", inertiaStart);
+        inertiaEnd = AlgorithmConfig.getDouble(config, "inertiaEnd", inertiaEnd);
+        cognitive = AlgorithmConfig.getDouble(config, "cognitive", cognitive);
+        social = AlgorithmConfig.getDouble(config, "social", social);
+        transfer = AlgorithmConfig.getString(config, "transfer", transfer).toLowerCase();
+        if (!"v".equals(transfer) && !"s".equals(transfer)) {
+            System.err.println("BPSO: Unknown transfer '" + transfer + "', using v.");
+            transfer = "v";
+        }
+        validation = AlgorithmConfig.getValidation(config, validation, "BPSO");
+        folds = Math.max(2, AlgorithmConfig.getInt(config, "folds", folds));
+        neighborSearchType = AlgorithmConfig.getString(config, "neighborSearch", neighborSearchType);
+        incremental = AlgorithmConfig.getBoolean(config, "incremental", incremental);
+        incrementalMemoryMb = Math.max(0L, (long) AlgorithmConfig.getDouble(config, "incrementalMemoryMb", incrementalMemoryMb));
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+        convergence = ConvergenceCriteria.fromConfig(config);
+    }
+
+    private ExecutionResult run(FeatureMatrix features, ExecutorService executor, long startTime) {
+        DenseMatrix x = features.getMatrix();
+        int[] y = features.getY();
+        numFeatures = features.getNumFeatures();
+        words = FeatureMask.words(numFeatures);
+        if (numFeatures == 0) throw new RuntimeException("Fatal: Dataset has no features to select from.");
+        int[][][] splits = CrossValidationEvaluator.splitsFor(validation, y, folds, random);
+        evaluator = new FeatureSubsetEvaluator(x, y, splits[0], splits[1], k, neighborSearchType);
+        fitnessCache = new FitnessCache<>();
+        screening = (predictor != null) ? new ScreeningBatch<>(predictor) : null;
+        long stateMb = particles * evaluator.getStateBytes() >> 20;
+        boolean useStates = incremental && stateMb <= incrementalMemoryMb;
+        if (incremental && !useStates) {
+            System.out.println("BPSO: Incremental distances need " + stateMb + " MB (limit " + incrementalMemoryMb
+                    + " MB, key incrementalMemoryMb); scoring every subset from scratch.");
+        }
+        FeatureSubsetEvaluator.DistanceState[] states = new FeatureSubsetEvaluator.DistanceState[particles];
+        for (int p = 0; useStates && p < particles; p++) states[p] = evaluator.newState();
+        double fullAccuracy = accuracy(FeatureMask.all(numFeatures), states[0]);
+        System.out.println("BPSO: " + particles + " particles over " + numFeatures + " features, k=" + evaluator.getK()
+                + ", " + CrossValidationEvaluator.describe(validation, evaluator.getNumFolds())
+                + (useStates ? ", incremental distances (" + stateMb + " MB)" : "")
+                + String.format(", all-feature accuracy %.4f", fullAccuracy));
+
+        // Swarm state, one block per particle
+        long[] position = new long[particles * words];
+        double[] velocity = new double[particles * numFeatures];
+        double[] fitness = new double[particles];
+        long[] personalBest = new long[particles * words];
+        double[] personalBestFitness = new double[particles];
+        long[] globalBest = new long[words];
+        double globalBestFitness = Double.NEGATIVE_INFINITY;
+        int[] hashes = new int[particles]; // Diversity scratch
+
+        for (int p = 0; p < particles; p++) {
+            for (int f = 0; f < numFeatures; f++) {
+                FeatureMask.set(position, p * words, f, random.nextBoolean());
+                velocity[p * numFeatures + f] = 2.0 * random.nextDouble() - 1.0;
+            }
+            ensureNonEmpty(position, p);
+        }
+        Arrays.fill(personalBestFitness, Double.NEGATIVE_INFINITY);
+        List<Callable<Void>> tasks = createEvaluationTasks(position, fitness, states);
+
+        ConvergenceCriteria.StopReason stopReason = ConvergenceCriteria.StopReason.MAX_ITERATIONS;
+        int iterationsRun = 0;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            screen(position);
+            AlgorithmConfig.runTasks(tasks, executor, "BPSO fitness evaluation");
+            if (screening != null) screening.record();
+            iterationsRun++;
+            for (int p = 0; p < particles; p++) {
+                int offset = p * words;
+                if (fitness[p] > personalBestFitness[p]) {
+                    personalBestFitness[p] = fitness[p];
+                    System.arraycopy(position, offset, personalBest, offset, words);
+                }
+                if (fitness[p] > globalBestFitness) {
+                    globalBestFitness = fitness[p];
+                    System.arraycopy(position, offset, globalBest, 0, words);
+                }
+                hashes[p] = hash(position, offset);
+            }
+            System.out.printf("BPSO Iter %d/%d: Best Fitness = %.4f, Features = %d/%d%n", iteration + 1, maxIterations,
+                    globalBestFitness, FeatureMask.cardinality(globalBest, 0, numFeatures), numFeatures);
+            ConvergenceCriteria.StopReason fired = convergence.check(globalBestFitness,
+                    ConvergenceCriteria.diversity(hashes, particles), System.currentTimeMillis() - startTime,
+                    fitnessCache.getMisses());
+            if (fired != null) {
+                stopReason = fired;
+                System.out.printf("BPSO: Stopping after iteration %d/%d (%s).%n", iteration + 1, maxIterations, fired.getKey());
+                break;
+            }
+            if (iteration + 1 < maxIterations) {
+                double inertia = inertiaStart - (inertiaStart - inertiaEnd) * iteration / Math.max(1, maxIterations - 1);
+                move(position, velocity, personalBest, globalBest, inertia);
+            }
+        }
+
+        FeatureMask best = FeatureMask.of(globalBest, 0, numFeatures);
+        double bestAccuracy = accuracy(best, states[0]);
+        int selected = best.cardinality();
+        long duration = System.currentTimeMillis() - startTime;
+        List<String> names = new ArrayList<>(selected);
+        for (int col : best.toIndices()) names.add(features.getFeatureNames().get(col));
+        double reduction = 100.0 * (numFeatures - selected) / numFeatures;
+        System.out.printf("BPSO Finished. %d/%d features (%.1f%% fewer), Accuracy = %.4f (all features %.4f)%n",
+                selected, numFeatures, reduction, bestAccuracy, fullAccuracy);
+        System.out.println("BPSO: Selected " + names);
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("selectedFeatures", names);
+        metrics.put("selectedCount", selected);
+        metrics.put("totalFeatures", numFeatures);
+        metrics.put("dimensionalityReductionPercent", AlgorithmConfig.round(reduction, 1));
+        metrics.put("fullFeatureAccuracy", AlgorithmConfig.round(fullAccuracy, 4));
+        metrics.put("bestFitness", AlgorithmConfig.round(globalBestFitness, 4));
+        metrics.put("transfer", transfer);
+        metrics.put("k", evaluator.getK());
+        metrics.put("validation", CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()));
+        metrics.put("iterationsRun", iterationsRun);
+        metrics.put("stopReason", stopReason.getKey());
+        metrics.put("modelEvaluations", fitnessCache.getMisses());
+        metrics.put("fitnessCacheHits", fitnessCache.getHits());
+        metrics.put("incrementalDistances", useStates);
+        if (useStates) {
+            long passes = evaluator.getFeaturePasses();
+            long fromScratch = evaluator.getFromScratchPasses();
+            metrics.put("incrementalUpdates", evaluator.getIncrementalUpdates());
+            metrics.put("distanceRebuilds", evaluator.getRebuilds());
+            metrics.put("featurePasses", passes);
+            metrics.put("fromScratchFeaturePasses", fromScratch);
+            metrics.put("featurePassesSavedPercent", AlgorithmConfig.round(100.0 * (fromScratch - passes) / Math.max(1, fromScratch), 1));
+            System.out.printf("BPSO: Incremental distances swept %d feature columns instead of %d (%d updates, %d rebuilds)%n",
+                    passes, fromScratch, evaluator.getIncrementalUpdates(), evaluator.getRebuilds());
+        }
+        return new ExecutionResult(ALGORITHM_NAME + " (" + selected + "/" + numFeatures + " features)",
+                AlgorithmConfig.round(bestAccuracy, 4), Double.NaN, Double.NaN, duration, metrics);
+    }
+
+    /** Velocity and position update of every particle (sequential, so seeded runs repeat). */
+    private void move(long[] position, double[] velocity, long[] personalBest, long[] globalBest, double inertia) {
+        boolean vShaped = "v".equals(transfer);
+        for (int p = 0; p < particles; p++) {
+            int offset = p * words;
+            int base = p * numFeatures;
+            for (int f = 0; f < numFeatures; f++) {
+                int bit = FeatureMask.get(position, offset, f) ? 1 : 0;
+                int own = FeatureMask.get(personalBest, offset, f) ? 1 : 0;
+                int swarm = FeatureMask.get(globalBest, 0, f) ? 1 : 0;
+                double v = inertia * velocity[base + f]
+                        + cognitive * random.nextDouble() * (own - bit)
+                        + social * random.nextDouble() * (swarm - bit);
+                v = Math.max(-V_MAX, Math.min(V_MAX, v));
+                velocity[base + f] = v;
+                if (vShaped) {
+                    if (random.nextDouble() < Math.abs(Math.tanh(v))) FeatureMask.set(position, offset, f, bit == 0);
+                } else {
+                    FeatureMask.set(position, offset, f, random.nextDouble() < 1.0 / (1.0 + Math.exp(-v)));
+                }
+            }
+            ensureNonEmpty(position, p);
+        }
+    }
+
+    /** An empty subset cannot be scored; select one random feature instead. */
+    private void ensureNonEmpty(long[] position, int particle) {
+        if (FeatureMask.cardinality(position, particle * words, numFeatures) == 0) {
+            FeatureMask.set(position, particle * words, random.nextInt(numFeatures), true);
+        }
+    }
+
+    private int hash(long[] bits, int offset) {
+        int h = 1;
+        for (int w = 0; w < words; w++) h = 31 * h + Long.hashCode(bits[offset + w]);
+        return h;
+    }
+
+    /**
+     * One task per particle, built once; each scores the particle's current position,
+     * moving the particle's own distance state (if any) along with it.
+     */
+    private List<Callable<Void>> createEvaluationTasks(long[] position, double[] fitness,
+                                                      FeatureSubsetEvaluator.DistanceState[] states) {
+        List<Callable<Void>> tasks = new ArrayList<>(particles);
+        for (int p = 0; p < particles; p++) {
+            int particle = p;
+            FeatureSubsetEvaluator.DistanceState state = states[p];
+            tasks.add(() -> {
+                FeatureMask mask = FeatureMask.of(position, particle * words, numFeatures);
+                fitness[particle] = screenedFitness(mask, state);
+                return null;
+            });
+        }
+        return tasks;
+    }
+
+    /** Screens the particles' subsets not evaluated yet with the predictor (if any), in particle order. */
+    private void screen(long[] position) {
+        if (screening == null) return;
+        long splitId = evaluator.getSplitId();
+        for (int p = 0; p < particles; p++) {
+            FeatureMask mask = FeatureMask.of(position, p * words, numFeatures);
+            if (fitnessCache.contains(splitId, mask)) continue;
+            double[] input = new double[numFeatures]; // One 0/1 input per feature
+            for (int f = 0; f < numFeatures; f++) input[f] = mask.get(f) ? 1.0 : 0.0;
+            screening.screen(mask, input);
+        }
+    }
+
+    /**
+     * Cached fitness of a subset; a subset not evaluated yet may instead be answered by the
+     * prediction {@link #screen} got for it in this iteration.
+     */
+    private double screenedFitness(FeatureMask mask, FeatureSubsetEvaluator.DistanceState state) {
+        long splitId = evaluator.getSplitId();
+        ScreeningBatch<FeatureMask> batch = screening;
+        if (batch == null) {
+            return fitnessCache.getOrCompute(splitId, mask, m -> fitnessOf(m, state));
+        }
+        double predicted = batch.prediction(mask);
+        if (!Double.isNaN(predicted)) return predicted;
+        return fitnessCache.getOrCompute(splitId, mask, m -> {
+            double fitness = fitnessOf(m, state);
+            batch.evaluated(m, fitness);
+            return fitness;
+        });
+    }
+
+    private double fitnessOf(FeatureMask mask, FeatureSubsetEvaluator.DistanceState state) {
+        return alpha * accuracy(mask, state) + (1.0 - alpha) * (1.0 - mask.cardinality() / (double) numFeatures);
+    }
+
+    private double accuracy(FeatureMask mask, FeatureSubsetEvaluator.DistanceState state) {
+        return (state != null) ? evaluator.accuracy(mask, state) : evaluator.accuracy(mask);
+    }
+}
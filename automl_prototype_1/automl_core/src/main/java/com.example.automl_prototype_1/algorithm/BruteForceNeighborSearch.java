@@ -0,0 +1,49 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+/**
+ * Exhaustive neighbor search: compares the query with every training row.
+ * No assumptions about dimensionality, so it is the fallback for high-dimensional
+ * data where tree indexes cannot prune. A row view (e.g. a shuffled train split) is
+ * copied once into contiguous storage so every scan streams through memory in order.
+ */
+public class BruteForceNeighborSearch implements NeighborSearch {
+
+    private final DenseMatrix data;
+    private final DistanceKernel kernel;
+
+    /** @param data Training rows (copied only if it is a row view). */
+    public BruteForceNeighborSearch(DenseMatrix data) {
+        this(data, DistanceKernel.getDefault());
+    }
+
+    /**
+     * @param data Training rows (copied only if it is a row view).
+     * @param kernel Distance kernel for row comparisons.
+     */
+    public BruteForceNeighborSearch(DenseMatrix data, DistanceKernel kernel) {
+        this.data = data.isView() ? data.compact() : data;
+        this.kernel = kernel;
+    }
+
+    @Override
+    public int search(double[] query, int queryOffset, int k, int[] indices, double[] distances) {
+        int n = data.getNumRows();
+        if (k <= 0 || n == 0) return 0;
+        NeighborList best = new NeighborList(Math.min(k, n), indices, distances);
+        double[] values = data.getData();
+        int dims = data.getNumCols();
+        for (int i = 0, offset = 0; i < n; i++, offset += dims) {
+            double d = kernel.squaredEuclidean(query, queryOffset, values, offset, dims);
+            if (d <= best.worstDistance()) best.offer(d, i);
+        }
+        return best.size();
+    }
+
+    @Override
+    public int size() { return data.getNumRows(); }
+
+    @Override
+    public String getName() { return "brute-force"; }
+}
@@ -0,0 +1,145 @@
+package com.example.automl_prototype_1.algorithm;
+
+import java.util.Map;
+
+/**
+ * Early-stopping rules for iterative searches (GA generations, swarm iterations, ...).
+ * Call {@link #check} once per iteration after the population has been scored; it
+ * returns the rule that fired, or null to keep going. The iteration limit itself stays
+ * with the algorithm; {@link StopReason#MAX_ITERATIONS} is reported when none fired.
+ * <p>
+ * Configuration keys (all optional). Every rule is off by default, so a configuration
+ * that sets none of them runs all its iterations, as before early stopping existed:
+ * <ul>
+ *   <li>{@code stagnationGenerations}: stop after this many iterations without a new best
+ *       fitness (default 0, disabled).</li>
+ *   <li>{@code minDiversity}: stop when the population diversity, (distinct - 1) / (size - 1),
+ *       drops below this value (default 0, disabled). It is 0 only when every individual is
+ *       identical; to stop exactly then, use a value at most 1 / (size - 1). Larger values
+ *       also stop populations that still hold a few distinct values (e.g. 0.01 stops a
+ *       population of 201 with two distinct values).</li>
+ *   <li>{@code targetFitness}: stop once the best fitness reaches this value
+ *       (default off; e.g. 1.0 stops at perfect accuracy).</li>
+ *   <li>{@code timeBudgetMs}: stop once the run has taken this long (default 0, unlimited).</li>
+ *   <li>{@code maxEvaluations}: stop once the run has made this many model evaluations
+ *       (fitness cache misses; default 0, unlimited). Checked after each iteration, so a
+ *       run can overshoot by up to one iteration's evaluations.</li>
+ * </ul>
+ * The time and evaluation budgets mean the same for every search, so runs of different
+ * algorithms can be compared at equal cost.
+ * Instances keep per-run state; create one per run.
+ */
+final class ConvergenceCriteria {
+
+    /** Why a search stopped. */
+    enum StopReason {
+        MAX_ITERATIONS("maxIterations"),
+        STAGNATION("stagnation"),
+        LOW_DIVERSITY("lowDiversity"),
+        TARGET_FITNESS("targetFitness"),
+        TIME_BUDGET("timeBudget"),
+        EVALUATION_BUDGET("evaluationBudget");
+
+        private final String key;
+
+        StopReason(String key) { this.key = key; }
+
+        /** @return The name reported in result metrics. */
+        String getKey() { return key; }
+    }
+
+    private final int stagnationGenerations;
+    private final double minDiversity;
+    private final double targetFitness;
+    private final long timeBudgetMs;
+    private final long maxEvaluations;
+
+    private double bestFitness = Double.NEGATIVE_INFINITY;
+    private int generationsWithoutImprovement = 0;
+
+    ConvergenceCriteria(int stagnationGenerations, double minDiversity, double targetFitness, long timeBudgetMs,
+                        long maxEvaluations) {
+        this.stagnationGenerations = stagnationGenerations;
+        this.minDiversity = minDiversity;
+        this.targetFitness = targetFitness;
+        this.timeBudgetMs = timeBudgetMs;
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    /** Reads the criteria from an algorithm configuration map (see class comment for keys). */
+    static ConvergenceCriteria fromConfig(Map<String, Object> config) {
+        return new ConvergenceCriteria(
+                Math.max(0, AlgorithmConfig.getInt(config, "stagnationGenerations", 0)),
+                AlgorithmConfig.getDouble(config, "minDiversity", 0.0),
+                AlgorithmConfig.getDouble(config, "targetFitness", Double.POSITIVE_INFINITY),
+                Math.max(0L, (long) AlgorithmConfig.getDouble(config, "timeBudgetMs", 0)),
+                Math.max(0L, (long) AlgorithmConfig.getDouble(config, "maxEvaluations", 0)));
+    }
+
+    /**
+     * Checks the rules after one scored iteration.
+     * @param currentBest Best fitness in the current population.
+     * @param diversity Population diversity in [0, 1] (see {@link #diversity(int[], int)}).
+     * @param elapsedMs Time since the run started.
+     * @param evaluations Model evaluations made so far in the run.
+     * @return The rule that fired, or null to continue.
+     */
+    StopReason check(double currentBest, double diversity, long elapsedMs, long evaluations) {
+        if (currentBest > bestFitness) {
+            bestFitness = currentBest;
+            generationsWithoutImprovement = 0;
+        } else {
+            generationsWithoutImprovement++;
+        }
+        if (bestFitness >= targetFitness) return StopReason.TARGET_FITNESS;
+        if (timeBudgetMs > 0 && elapsedMs >= timeBudgetMs) return StopReason.TIME_BUDGET;
+        if (maxEvaluations > 0 && evaluations >= maxEvaluations) return StopReason.EVALUATION_BUDGET;
+        if (stagnationGenerations > 0 && generationsWithoutImprovement >= stagnationGenerations) return StopReason.STAGNATION;
+        if (diversity < minDiversity) return StopReason.LOW_DIVERSITY;
+        return null;
+    }
+
+    /**
+     * Diversity of a population of integer genomes: (distinct values - 1) / (size - 1).
+     * @param genomes Genome values; the first {@code size} entries are used (reordered in place).
+     * @param size Number of individuals.
+     * @return 0 when all are identical, 1 when all differ.
+     */
+    static double diversity(int[] genomes, int size) {
+        if (size <= 1) return 0.0;
+        heapSort(genomes, size);
+        int distinct = 1;
+        for (int i = 1; i < size; i++) {
+            if (genomes[i] != genomes[i - 1]) distinct++;
+        }
+        return (distinct - 1) / (double) (size - 1);
+    }
+
+    /**
+     * In-place heapsort of a[0..size). Arrays.sort can allocate a run buffer
+     * (DualPivotQuicksort merges presorted runs), and this runs every generation of
+     * searches that are meant to allocate nothing per iteration.
+     */
+    private static void heapSort(int[] a, int size) {
+        for (int i = size / 2 - 1; i >= 0; i--) siftDown(a, i, size);
+        for (int end = size - 1; end > 0; end--) {
+            int tmp = a[0];
+            a[0] = a[end];
+            a[end] = tmp;
+            siftDown(a, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int root, int size) {
+        int value = a[root];
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= size) break;
+            if (child + 1 < size && a[child + 1] > a[child]) child++;
+            if (a[child] <= value) break;
+            a[root] = a[child];
+            root = child;
+        }
+        a[root] = value;
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+import smile.classification.KNN;
+import smile.validation.metric.Accuracy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Scores KNN candidates on a fixed set of train/test folds and reports the mean and
+ * variance of the test accuracy across folds. A single holdout split is the one-fold case.
+ * <p>
+ * Fold structures are built once and shared by every individual of a search: in
+ * "table" mode each fold gets its own {@link NeighborSearch} index and
+ * {@link KnnNeighborTable}, so scoring any k is a lookup per fold. The fold indexes are
+ * built in parallel, then each fold's table is filled with row blocks in parallel.
+ * In "refit" mode (or for k beyond the table) a Smile KNN is fitted per fold.
+ * The folds are views of the shared feature matrix; no rows are copied.
+ */
+public class CrossValidationEvaluator {
+
+    /** Mean and variance of a candidate's accuracy across folds. */
+    public static final class Score {
+        private final double mean;
+        private final double variance;
+
+        Score(double mean, double variance) {
+            this.mean = mean;
+            this.variance = variance;
+        }
+
+        /** @return Mean test accuracy over the folds. */
+        public double getMean() { return mean; }
+
+        /** @return Population variance of the fold accuracies (0 for a single split). */
+        public double getVariance() { return variance; }
+    }
+
+    private final DenseMatrix[] trainX;
+    private final int[][] trainY;
+    private final DenseMatrix[] testX;
+    private final int[][] testY;
+    private final KnnNeighborTable[] tables; // null in refit mode
+    private final int minTrainRows;
+    private final long splitId;
+    private final long buildTimeMs;
+
+    /**
+     * Builds the fold structures.
+     * @param x Feature matrix (folds are views of it).
+     * @param y Labels, one per row of {@code x}.
+     * @param trainFolds Training row indices per fold.
+     * @param testFolds Test row indices per fold (same fold order).
+     * @param useTable True to precompute neighbor tables ("table" mode), false to refit KNN per score.
+     * @param neighborSearchType Backend for the fold indexes (see {@link NeighborSearch#create}).
+     * @param maxK Largest k the tables must cover.
+     * @param executor Executor for parallel construction, or null to build sequentially.
+     */
+    public CrossValidationEvaluator(DenseMatrix x, int[] y, int[][] trainFolds, int[][] testFolds, boolean useTable,
+                                    String neighborSearchType, int maxK, ExecutorService executor) {
+        long startTime = System.currentTimeMillis();
+        int folds = trainFolds.length;
+        if (folds == 0 || testFolds.length != folds) {
+            throw new IllegalArgumentException("Need matching, non-empty train and test folds.");
+        }
+        this.trainX = new DenseMatrix[folds];
+        this.trainY = new int[folds][];
+        this.testX = new DenseMatrix[folds];
+        this.testY = new int[folds][];
+        int minRows = Integer.MAX_VALUE;
+        long id = 17;
+        for (int f = 0; f < folds; f++) {
+            if (trainFolds[f].length == 0 || testFolds[f].length == 0) {
+                throw new IllegalArgumentException("Fold " + f + " has an empty train or test part.");
+            }
+            trainX[f] = x.view(trainFolds[f]);
+            trainY[f] = select(y, trainFolds[f]);
+            testX[f] = x.view(testFolds[f]);
+            testY[f] = select(y, testFolds[f]);
+            minRows = Math.min(minRows, trainFolds[f].length);
+            id = 31 * id + Arrays.hashCode(trainFolds[f]);
+        }
+        this.minTrainRows = minRows;
+        this.splitId = id;
+        this.tables = useTable ? buildTables(neighborSearchType, Math.max(1, Math.min(maxK, minRows - 1)), executor) : null;
+        this.buildTimeMs = System.currentTimeMillis() - startTime;
+    }
+
+    // --- Fold assignment ---
+
+    /**
+     * Folds for the "validation" setting shared by the KNN searches.
+     * @param validation "holdout" (one 70/30 split), "kfold" or "stratified"; callers
+     *                   normalize unknown values to "stratified" first.
+     * @param y Labels.
+     * @param folds Number of folds for the k-fold settings.
+     * @param random Source of the shuffle.
+     * @return {trainFolds, testFolds}.
+     */
+    public static int[][][] splitsFor(String validation, int[] y, int folds, Random random) {
+        if ("holdout".equals(validation)) {
+            int[][][] split = holdoutSplit(y.length, 0.7, random);
+            if (split[0][0].length == 0 || split[1][0].length == 0) {
+                throw new RuntimeException("Fatal: Dataset too small or split percentage invalid.");
+            }
+            return split;
+        }
+        return kFoldSplits(y, folds, "stratified".equals(validation), random);
+    }
+
+    /** @return A label for result metrics, e.g. "5-fold stratified CV" or "70/30 holdout". */
+    public static String describe(String validation, int numFolds) {
+        return "holdout".equals(validation) ? "70/30 holdout"
+                : numFolds + "-fold" + ("stratified".equals(validation) ? " stratified" : "") + " CV";
+    }
+
+    /** @return The score's name for progress lines: "Test Accuracy" for a holdout split, otherwise "CV Accuracy". */
+    public static String accuracyLabel(String validation) {
+        return "holdout".equals(validation) ? "Test Accuracy" : "CV Accuracy";
+    }
+
+    /**
+     * Single shuffled train/test split (the one-fold case).
+     * @param n Number of rows.
+     * @param ratio Fraction of rows used for training.
+     * @param random Source of the shuffle.
+     * @return {trainFolds, testFolds} with one fold each; the train rows are in shuffled order.
+     */
+    public static int[][][] holdoutSplit(int n, double ratio, Random random) {
+        int[] indices = shuffled(n, random);
+        int trainSize = (int) (n * ratio);
+        int[] train = Arrays.copyOfRange(indices, 0, trainSize);
+        int[] test = Arrays.copyOfRange(indices, trainSize, n);
+        return new int[][][] { { train }, { test } };
+    }
+
+    /**
+     * Splits rows into k folds. Plain k-fold deals shuffled rows round-robin; stratified
+     * k-fold does the same class by class, so every fold keeps the class proportions.
+     * @param y Labels.
+     * @param folds Number of folds (clamped to [2, rows]).
+     * @param stratified True for stratified folds.
+     * @param random Source of the shuffle.
+     * @return {trainFolds, testFolds}.
+     */
+    public static int[][][] kFoldSplits(int[] y, int folds, boolean stratified, Random random) {
+        int n = y.length;
+        int k = Math.max(2, Math.min(folds, n));
+        int[] foldOf = new int[n];
+        if (stratified) {
+            int[] order = shuffled(n, random);
+            // Stable sort of the shuffled rows by class keeps the shuffle within each class
+            Integer[] boxed = IntStream.of(order).boxed().toArray(Integer[]::new);
+            Arrays.sort(boxed, (a, b) -> Integer.compare(y[a], y[b]));
+            for (int i = 0; i < n; i++) foldOf[boxed[i]] = i % k;
+        } else {
+            int[] order = shuffled(n, random);
+            for (int i = 0; i < n; i++) foldOf[order[i]] = i % k;
+        }
+        int[] testSize = new int[k];
+        for (int f : foldOf) testSize[f]++;
+        int[][] train = new int[k][];
+        int[][] test = new int[k][];
+        int[] trainFill = new int[k];
+        int[] testFill = new int[k];
+        for (int f = 0; f < k; f++) {
+            train[f] = new int[n - testSize[f]];
+            test[f] = new int[testSize[f]];
+        }
+        for (int row = 0; row < n; row++) {
+            int fold = foldOf[row];
+            test[fold][testFill[fold]++] = row;
+            for (int f = 0; f < k; f++) {
+                if (f != fold) train[f][trainFill[f]++] = row;
+            }
+        }
+        return new int[][][] { train, test };
+    }
+
+    private static int[] shuffled(int n, Random random) {
+        int[] order = IntStream.range(0, n).toArray();
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    // --- Scoring ---
+
+    /**
+     * Scores KNN with the given k on every fold. Thread-safe.
+     * @param k Number of neighbors (should not exceed {@link #getMinTrainRows()}).
+     * @return Mean and variance of the fold accuracies; a failed fit scores negative infinity.
+     */
+    public Score score(int k) {
+        return summarize(foldAccuracies(k));
+    }
+
+    /**
+     * Scores KNN with the given k on every fold, unsummarized. Thread-safe.
+     * @param k Number of neighbors.
+     * @return Accuracy per fold, in fold order.
+     */
+    double[] foldAccuracies(int k) {
+        double[] accuracy = new double[trainX.length];
+        for (int f = 0; f < accuracy.length; f++) accuracy[f] = scoreFold(f, k);
+        return accuracy;
+    }
+
+    /**
+     * Scores distance-weighted KNN (see {@link KnnNeighborTable#weightedAccuracy}) on every
+     * fold. Needs "table" mode and k within the tables, since the weights come from the
+     * stored neighbor distances. Thread-safe.
+     * @param k Number of neighbors.
+     * @param weightPower Vote weight exponent; 0 is the plain majority vote of {@link #score(int)}.
+     * @return Mean and variance of the fold accuracies.
+     */
+    public Score score(int k, double weightPower) {
+        if (weightPower == 0.0) return score(k);
+        if (tables == null || k > getTableMaxK()) {
+            throw new IllegalStateException("Weighted KNN needs neighbor tables covering k=" + k + ".");
+        }
+        double[] accuracy = new double[trainX.length];
+        for (int f = 0; f < accuracy.length; f++) accuracy[f] = tables[f].weightedAccuracy(k, weightPower);
+        return summarize(accuracy);
+    }
+
+    /** Mean and population variance of per-fold accuracies. */
+    static Score summarize(double[] accuracy) {
+        int folds = accuracy.length;
+        double mean = 0.0;
+        for (double a : accuracy) mean += a;
+        mean /= folds;
+        double variance = 0.0;
+        for (double a : accuracy) variance += (a - mean) * (a - mean);
+        variance /= folds;
+        return new Score(mean, Double.isNaN(variance) ? 0.0 : variance);
+    }
+
+    private double scoreFold(int fold, int k) {
+        if (tables != null && k <= tables[fold].getMaxK()) {
+            return tables[fold].accuracy(k);
+        }
+        try {
+            KNN<double[]> knn = KNN.fit(trainX[fold].toArray(), trainY[fold], k);
+            return Accuracy.of(testY[fold], knn.predict(testX[fold].toArray()));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error evaluating fitness for k=" + k + " on fold " + fold + ": " + e.getMessage());
+            return Double.NEGATIVE_INFINITY; // Give very bad fitness
+        } catch (Exception e) { // Catch other unexpected errors
+            System.err.println("Unexpected error evaluating fitness for k=" + k + " on fold " + fold);
+            e.printStackTrace();
+            return Double.NEGATIVE_INFINITY; // Penalize heavily
+        }
+    }
+
+    // --- Getters ---
+
+    /** @return The number of folds. */
+    public int getNumFolds() { return trainX.length; }
+
+    /** @return The smallest training part over all folds (upper bound for k). */
+    public int getMinTrainRows() { return minTrainRows; }
+
+    /** @return The largest k every fold's neighbor table covers, or 0 in refit mode. */
+    public int getTableMaxK() {
+        if (tables == null) return 0;
+        int maxK = Integer.MAX_VALUE;
+        for (KnnNeighborTable table : tables) maxK = Math.min(maxK, table.getMaxK());
+        return maxK;
+    }
+
+    /** @return Identifies these folds, for keying fitness caches. */
+    public long getSplitId() { return splitId; }
+
+    /** @return Time spent building indexes and neighbor tables, in milliseconds. */
+    public long getBuildTimeMs() { return buildTimeMs; }
+
+    // --- Construction ---
+
+    private KnnNeighborTable[] buildTables(String neighborSearchType, int tableMaxK, ExecutorService executor) {
+        int folds = trainX.length;
+        NeighborSearch[] indexes = new NeighborSearch[folds];
+        if (executor == null || folds == 1) {
+            for (int f = 0; f < folds; f++) indexes[f] = NeighborSearch.create(neighborSearchType, trainX[f]);
+        } else {
+            List<Callable<NeighborSearch>> tasks = new ArrayList<>(folds);
+            for (int f = 0; f < folds; f++) {
+                DenseMatrix foldTrain = trainX[f];
+                tasks.add(() -> NeighborSearch.create(neighborSearchType, foldTrain));
+            }
+            try {
+                List<Future<NeighborSearch>> futures = executor.invokeAll(tasks);
+                for (int f = 0; f < folds; f++) indexes[f] = futures.get(f).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Fold index build interrupted.", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Fold index build failed: " + e.getCause(), e.getCause());
+            }
+        }
+        KnnNeighborTable[] result = new KnnNeighborTable[folds];
+        for (int f = 0; f < folds; f++) {
+            result[f] = new KnnNeighborTable(indexes[f], trainY[f], testX[f], testY[f], tableMaxK, executor);
+        }
+        System.out.println("CrossValidationEvaluator: Built " + folds + " " + indexes[0].getName() + " fold index(es) ("
+                + DistanceKernel.getDefault().getName() + " distances) and neighbor tables for k <= " + tableMaxK + ".");
+        return result;
+    }
+
+    private static int[] select(int[] data, int[] indices) {
+        int[] subset = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) subset[i] = data[indices[i]];
+        return subset;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.automl_prototype_1.algorithm;
+
+/**
+ * Distance functions between feature rows: the innermost loop of every KNN evaluation.
+ * <p>
+ * Rows are addressed as (array, offset, length) so the same kernel works on separate
+ * {@code double[]} rows and on rows packed into one flat array. Implementations are
+ * stateless and safe to share between threads.
+ * <p>
+ * {@link #getDefault()} is chosen once at startup: a SIMD implementation on the
+ * {@code jdk.incubator.vector} API when that module is available (run with
+ * {@code --add-modules jdk.incubator.vector}), otherwise a scalar one. The choice can be
+ * forced with the system property {@code automl.distanceKernel=vector|scalar}.
+ * SIMD sums in a different order, so results may differ from the scalar kernel in the
+ * last bits.
+ */
+public interface DistanceKernel {
+
+    /** System property that forces the default kernel: "auto" (default), "vector" or "scalar". */
+    String KERNEL_PROPERTY = "automl.distanceKernel";
+
+    /** @return sum((a[i] - b[i])^2) over {@code length} elements. */
+    double squaredEuclidean(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    /** @return sum(|a[i] - b[i]|) over {@code length} elements. */
+    double manhattan(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    /** @return sum(a[i] * b[i]) over {@code length} elements. */
+    double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    /**
+     * Dot products of four rows of {@code a} with one row of {@code b} in a single pass,
+     * so {@code b} is read once for all four (the inner kernel of blocked distance tiles).
+     * @param a Array holding the four rows, at {@code aOffset + r * aStride} for r = 0..3.
+     * @param out Receives the four dot products in out[0..3].
+     */
+    void dot4(double[] a, int aOffset, int aStride, double[] b, int bOffset, int length, double[] out);
+
+    /**
+     * @return 1 - cos(a, b) in [0, 2]. Two all-zero rows have distance 0; one all-zero
+     *         row is treated as orthogonal to everything (distance 1).
+     */
+    double cosine(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    /** @return A short name for logging, e.g. "vector-256". */
+    String getName();
+
+    default double squaredEuclidean(double[] a, double[] b) {
+        return squaredEuclidean(a, 0, b, 0, a.length);
+    }
+
+    default double manhattan(double[] a, double[] b) {
+        return manhattan(a, 0, b, 0, a.length);
+    }
+
+    default double dot(double[] a, double[] b) {
+        return dot(a, 0, b, 0, a.length);
+    }
+
+    default double cosine(double[] a, double[] b) {
+        return cosine(a, 0, b, 0, a.length);
+    }
+
+    /** @return The kernel selected at startup (see class comment). */
+    static DistanceKernel getDefault() {
+        return DistanceKernels.DEFAULT;
+    }
+
+    /** @return The portable scalar kernel. */
+    static DistanceKernel scalar() {
+        return ScalarDistanceKernel.INSTANCE;
+    }
+}
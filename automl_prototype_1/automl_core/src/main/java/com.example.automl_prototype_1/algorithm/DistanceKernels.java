@@ -0,0 +1,36 @@
+package com.example.automl_prototype_1.algorithm;
+
+/**
+ * Picks the default {@link DistanceKernel} once, when first used.
+ * The vector kernel is loaded reflectively: if {@code jdk.incubator.vector} is not in
+ * the module graph (or the CPU has no useful SIMD width) loading it fails or it is
+ * rejected, and the scalar kernel is used instead.
+ */
+final class DistanceKernels {
+
+    static final DistanceKernel DEFAULT = select(System.getProperty(DistanceKernel.KERNEL_PROPERTY, "auto"));
+
+    private DistanceKernels() { }
+
+    private static DistanceKernel select(String requested) {
+        String mode = requested.trim().toLowerCase();
+        if ("scalar".equals(mode)) {
+            System.out.println("DistanceKernel: Using scalar kernel (forced).");
+            return ScalarDistanceKernel.INSTANCE;
+        }
+        try {
+            Class<?> type = Class.forName("com.example.automl_prototype_1.algorithm.VectorDistanceKernel");
+            int lanes = (Integer) type.getDeclaredMethod("lanes").invoke(null);
+            if (lanes > 1 || "vector".equals(mode)) {
+                DistanceKernel kernel = (DistanceKernel) type.getDeclaredConstructor().newInstance();
+                System.out.println("DistanceKernel: Using " + kernel.getName() + " SIMD kernel (" + lanes + " lanes).");
+                return kernel;
+            }
+            System.out.println("DistanceKernel: SIMD width is 1 lane on this CPU, using scalar kernel.");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.out.println("DistanceKernel: Vector API not available (run with --add-modules jdk.incubator.vector)"
+                    + ", using scalar kernel.");
+        }
+        return ScalarDistanceKernel.INSTANCE;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.automl_prototype_1.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of selected feature columns, stored as a bitset (bit {@code f} of
+ * word {@code f / 64}). Used as a {@link FitnessCache} key by feature-selection
+ * searches, so equality and hashing are by value.
+ * <p>
+ * The static helpers work on masks packed into one flat {@code long[]} at a word
+ * offset, which is how swarms keep all their particles in a single array.
+ */
+final class FeatureMask {
+
+    private final long[] words;
+    private final int numFeatures;
+    private final int hash;
+
+    private FeatureMask(long[] words, int numFeatures) {
+        this.words = words;
+        this.numFeatures = numFeatures;
+        this.hash = 31 * Arrays.hashCode(words) + numFeatures;
+    }
+
+    /**
+     * Copies one mask out of a packed array.
+     * @param bits Packed masks.
+     * @param offset Index of the mask's first word.
+     * @param numFeatures Number of features (bits) in the mask.
+     */
+    static FeatureMask of(long[] bits, int offset, int numFeatures) {
+        return new FeatureMask(Arrays.copyOfRange(bits, offset, offset + words(numFeatures)), numFeatures);
+    }
+
+    /** @return A mask with every feature selected. */
+    static FeatureMask all(int numFeatures) {
+        long[] bits = new long[words(numFeatures)];
+        for (int f = 0; f < numFeatures; f++) set(bits, 0, f, true);
+        return new FeatureMask(bits, numFeatures);
+    }
+
+    /** @return The number of 64-bit words needed for {@code numFeatures} bits. */
+    static int words(int numFeatures) {
+        return (numFeatures + 63) >>> 6;
+    }
+
+    static boolean get(long[] bits, int offset, int feature) {
+        return (bits[offset + (feature >>> 6)] & (1L << feature)) != 0;
+    }
+
+    static void set(long[] bits, int offset, int feature, boolean selected) {
+        if (selected) {
+            bits[offset + (feature >>> 6)] |= 1L << feature;
+        } else {
+            bits[offset + (feature >>> 6)] &= ~(1L << feature);
+        }
+    }
+
+    /** @return The number of selected features of the packed mask at {@code offset}. */
+    static int cardinality(long[] bits, int offset, int numFeatures) {
+        int count = 0;
+        for (int w = 0, n = words(numFeatures); w < n; w++) count += Long.bitCount(bits[offset + w]);
+        return count;
+    }
+
+    /** @return Whether {@code feature} is selected. */
+    boolean get(int feature) { return get(words, 0, feature); }
+
+    /** @return The number of selected features. */
+    int cardinality() { return cardinality(words, 0, numFeatures); }
+
+    /** @return The total number of features the mask ranges over. */
+    int getNumFeatures() { return numFeatures; }
+
+    /** @return The selected column numbers in ascending order. */
+    int[] toIndices() {
+        int[] indices = new int[cardinality()];
+        int i = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) indices[i++] = (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        return indices;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FeatureMask)) return false;
+        FeatureMask other = (FeatureMask) o;
+        return numFeatures == other.numFeatures && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() { return hash; }
+
+    @Override
+    public String toString() { return Arrays.toString(toIndices()); }
+}
@@ -0,0 +1,326 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scores feature subsets for wrapper feature selection: the mean test accuracy, over a
+ * fixed set of train/test folds, of KNN with a fixed k on the selected columns only.
+ * <p>
+ * Two evaluation paths give the same neighbors (up to floating-point rounding):
+ * <ul>
+ *   <li>From scratch ({@link #accuracy(FeatureMask)}): project the fold rows onto the
+ *       subset, build a {@link NeighborSearch} and read the accuracy off a
+ *       {@link KnnNeighborTable}. Costs O(test x train x selected features).</li>
+ *   <li>Incremental ({@link #accuracy(FeatureMask, DistanceState)}): a
+ *       {@link DistanceState} keeps the squared test-to-train distances of the subset it
+ *       last scored. Squared Euclidean distance is a sum of per-feature terms, so moving
+ *       to a new subset only adds the terms of features that were switched on and
+ *       subtracts those switched off: O(test x train x changed features), plus one
+ *       pass to pick the k nearest. Searches that change a few features at a time
+ *       (swarm particles, mutations) give each searcher its own state.</li>
+ * </ul>
+ * A state is rebuilt from scratch when that touches fewer features than the update
+ * would, and every {@link #REBUILD_INTERVAL} updates so that rounding from repeated
+ * add/subtract cannot build up.
+ * <p>
+ * Evaluations are thread-safe as long as each state is used by one thread at a time.
+ * Each evaluation itself runs sequentially.
+ */
+final class FeatureSubsetEvaluator {
+
+    /** Incremental updates between full rebuilds of a state. */
+    static final int REBUILD_INTERVAL = 32;
+
+    private final DenseMatrix[] trainX;
+    private final int[][] trainY;
+    private final DenseMatrix[] testX;
+    private final int[][] testY;
+    private final double[][][] trainColumns; // [fold][feature][train row]: one feature's values are contiguous
+    private final double[][][] testColumns;  // [fold][feature][test row]
+    private final int[][] trainClass;        // [fold][train row] -> class index (ascending label order)
+    private final int[][] testClass;         // [fold][test row] -> class index
+    private final int numClasses;
+    private final int numFeatures;
+    private final int k;
+    private final String neighborSearchType;
+    private final long splitId;
+    private final long pairs; // Test-to-train distances over all folds
+
+    private final LongAdder featurePasses = new LongAdder();        // Feature columns swept into states
+    private final LongAdder fromScratchPasses = new LongAdder();    // ... had every evaluation started from scratch
+    private final LongAdder incrementalUpdates = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    /**
+     * @param x Feature matrix with every candidate feature as a column.
+     * @param y Labels, one per row of {@code x}.
+     * @param trainFolds Training row indices per fold.
+     * @param testFolds Test row indices per fold (same fold order).
+     * @param k Number of neighbors (clamped to the smallest training fold).
+     * @param neighborSearchType Backend for the from-scratch indexes (see {@link NeighborSearch#create}).
+     */
+    FeatureSubsetEvaluator(DenseMatrix x, int[] y, int[][] trainFolds, int[][] testFolds, int k, String neighborSearchType) {
+        int folds = trainFolds.length;
+        if (folds == 0 || testFolds.length != folds) {
+            throw new IllegalArgumentException("Need matching, non-empty train and test folds.");
+        }
+        this.numFeatures = x.getNumCols();
+        this.trainX = new DenseMatrix[folds];
+        this.trainY = new int[folds][];
+        this.testX = new DenseMatrix[folds];
+        this.testY = new int[folds][];
+        this.trainColumns = new double[folds][][];
+        this.testColumns = new double[folds][][];
+        this.trainClass = new int[folds][];
+        this.testClass = new int[folds][];
+        int[] classes = Arrays.stream(y).distinct().sorted().toArray();
+        this.numClasses = classes.length;
+        int minRows = Integer.MAX_VALUE;
+        long id = 17;
+        long pairCount = 0;
+        for (int f = 0; f < folds; f++) {
+            if (trainFolds[f].length == 0 || testFolds[f].length == 0) {
+                throw new IllegalArgumentException("Fold " + f + " has an empty train or test part.");
+            }
+            trainX[f] = x.view(trainFolds[f]);
+            trainY[f] = select(y, trainFolds[f]);
+            testX[f] = x.view(testFolds[f]);
+            testY[f] = select(y, testFolds[f]);
+            trainColumns[f] = columns(trainX[f]);
+            testColumns[f] = columns(testX[f]);
+            trainClass[f] = classIndices(trainY[f], classes);
+            testClass[f] = classIndices(testY[f], classes);
+            minRows = Math.min(minRows, trainFolds[f].length);
+            id = 31 * id + Arrays.hashCode(trainFolds[f]);
+            pairCount += (long) trainFolds[f].length * testFolds[f].length;
+        }
+        this.k = Math.max(1, Math.min(k, minRows));
+        this.neighborSearchType = neighborSearchType;
+        this.splitId = id;
+        this.pairs = pairCount;
+    }
+
+    /**
+     * Mean fold accuracy of KNN on the selected features, computed from scratch. Thread-safe.
+     * @param mask Selected features; must not be empty.
+     * @return The accuracy in [0, 1].
+     */
+    double accuracy(FeatureMask mask) {
+        int[] cols = mask.toIndices();
+        if (cols.length == 0) throw new IllegalArgumentException("Cannot score an empty feature subset.");
+        double sum = 0.0;
+        for (int f = 0; f < trainX.length; f++) {
+            DenseMatrix train = trainX[f].selectColumns(cols);
+            DenseMatrix test = testX[f].selectColumns(cols);
+            NeighborSearch index = NeighborSearch.create(neighborSearchType, train);
+            sum += new KnnNeighborTable(index, trainY[f], test, testY[f], k, null).accuracy(k);
+        }
+        return sum / trainX.length;
+    }
+
+    /**
+     * Mean fold accuracy of KNN on the selected features, updating {@code state} from the
+     * subset it last scored to {@code mask}. Allocation-free.
+     * @param mask Selected features; must not be empty.
+     * @param state Distances of this caller; left holding the distances of {@code mask}.
+     * @return The accuracy in [0, 1].
+     */
+    double accuracy(FeatureMask mask, DistanceState state) {
+        int selected = mask.cardinality();
+        if (selected == 0) throw new IllegalArgumentException("Cannot score an empty feature subset.");
+        int changed = 0;
+        for (int f = 0; f < numFeatures; f++) {
+            if (mask.get(f) != state.selected[f]) changed++;
+        }
+        boolean rebuild = !state.valid || selected <= changed || state.updates >= REBUILD_INTERVAL;
+        if (rebuild) {
+            for (double[] d : state.distances) Arrays.fill(d, 0.0);
+            Arrays.fill(state.selected, false);
+            state.updates = 0;
+            rebuilds.increment();
+        } else {
+            state.updates++;
+            incrementalUpdates.increment();
+        }
+        int passes = 0;
+        for (int f = 0; f < numFeatures; f++) {
+            boolean on = mask.get(f);
+            if (on == state.selected[f]) continue;
+            for (int fold = 0; fold < trainX.length; fold++) addFeature(fold, f, on ? 1.0 : -1.0, state.distances[fold]);
+            state.selected[f] = on;
+            passes++;
+        }
+        state.valid = true;
+        featurePasses.add(passes);
+        fromScratchPasses.add(selected);
+
+        double sum = 0.0;
+        for (int fold = 0; fold < trainX.length; fold++) sum += foldAccuracy(fold, state);
+        return sum / trainX.length;
+    }
+
+    /** Adds (sign 1) or removes (sign -1) one feature's squared differences for every test/train pair of a fold. */
+    private void addFeature(int fold, int feature, double sign, double[] distances) {
+        double[] train = trainColumns[fold][feature];
+        double[] test = testColumns[fold][feature];
+        int numTrain = train.length;
+        for (int t = 0, base = 0; t < test.length; t++, base += numTrain) {
+            double value = test[t];
+            for (int r = 0; r < numTrain; r++) {
+                double diff = value - train[r];
+                distances[base + r] += sign * diff * diff;
+            }
+        }
+    }
+
+    /**
+     * Picks the k nearest training rows of every test row (ordered by distance, then row,
+     * like {@link NeighborSearch}) with a bounded max-heap and takes a majority vote,
+     * ties going to the smallest label as in {@link KnnNeighborTable}.
+     */
+    private double foldAccuracy(int fold, DistanceState state) {
+        double[] distances = state.distances[fold];
+        int[] classOf = trainClass[fold];
+        int[] expected = testClass[fold];
+        int numTrain = classOf.length;
+        int[] heapRows = state.heapRows;
+        double[] heapDistances = state.heapDistances;
+        int[] votes = state.votes;
+        int correct = 0;
+        for (int t = 0, base = 0; t < expected.length; t++, base += numTrain) {
+            int size = 0;
+            for (int r = 0; r < numTrain; r++) {
+                double d = distances[base + r];
+                if (size < k) {
+                    heapRows[size] = r;
+                    heapDistances[size] = d;
+                    siftUp(heapRows, heapDistances, size++);
+                } else if (d < heapDistances[0]) { // Rows arrive in index order: a tie never displaces the root
+                    heapRows[0] = r;
+                    heapDistances[0] = d;
+                    siftDown(heapRows, heapDistances, size);
+                }
+            }
+            Arrays.fill(votes, 0);
+            int best = -1;
+            for (int i = 0; i < size; i++) {
+                int label = classOf[heapRows[i]];
+                int count = ++votes[label];
+                if (best < 0 || count > votes[best] || (count == votes[best] && label < best)) best = label;
+            }
+            if (best == expected[t]) correct++;
+        }
+        return (double) correct / expected.length;
+    }
+
+    /** Max-heap on (distance, row): the root is the farthest of the current k. */
+    private static boolean farther(double[] distances, int[] rows, int a, int b) {
+        return distances[a] > distances[b] || (distances[a] == distances[b] && rows[a] > rows[b]);
+    }
+
+    private static void siftUp(int[] rows, double[] distances, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!farther(distances, rows, i, parent)) return;
+            swap(rows, distances, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] rows, double[] distances, int size) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) return;
+            if (child + 1 < size && farther(distances, rows, child + 1, child)) child++;
+            if (!farther(distances, rows, child, i)) return;
+            swap(rows, distances, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] rows, double[] distances, int a, int b) {
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+        double d = distances[a];
+        distances[a] = distances[b];
+        distances[b] = d;
+    }
+
+    // --- Incremental state ---
+
+    /** @return A fresh incremental state (see {@link #getStateBytes()} for its size). */
+    DistanceState newState() {
+        return new DistanceState();
+    }
+
+    /** @return Memory held by one {@link DistanceState}, in bytes. */
+    long getStateBytes() { return 8L * pairs; }
+
+    /** Distances of the subset a searcher last scored; owned by one thread at a time. */
+    final class DistanceState {
+        private final double[][] distances; // [fold][test row * train rows + train row]
+        private final boolean[] selected = new boolean[numFeatures];
+        private final int[] heapRows = new int[k];
+        private final double[] heapDistances = new double[k];
+        private final int[] votes = new int[numClasses];
+        private boolean valid;
+        private int updates;
+
+        private DistanceState() {
+            distances = new double[trainX.length][];
+            for (int f = 0; f < trainX.length; f++) distances[f] = new double[trainX[f].getNumRows() * testX[f].getNumRows()];
+        }
+    }
+
+    // --- Getters ---
+
+    /** @return The k actually used. */
+    int getK() { return k; }
+
+    /** @return The number of folds. */
+    int getNumFolds() { return trainX.length; }
+
+    /** @return Identifies these folds, for keying fitness caches. */
+    long getSplitId() { return splitId; }
+
+    /** @return Feature columns swept into distance states so far. */
+    long getFeaturePasses() { return featurePasses.sum(); }
+
+    /** @return Feature columns the same incremental evaluations would have swept from scratch. */
+    long getFromScratchPasses() { return fromScratchPasses.sum(); }
+
+    /** @return Incremental evaluations that updated a state in place. */
+    long getIncrementalUpdates() { return incrementalUpdates.sum(); }
+
+    /** @return Incremental evaluations that rebuilt a state from scratch. */
+    long getRebuilds() { return rebuilds.sum(); }
+
+    // --- Construction ---
+
+    private static double[][] columns(DenseMatrix rows) {
+        double[][] columns = new double[rows.getNumCols()][rows.getNumRows()];
+        double[] data = rows.getData();
+        for (int r = 0; r < rows.getNumRows(); r++) {
+            int offset = rows.rowOffset(r);
+            for (int c = 0; c < columns.length; c++) columns[c][r] = data[offset + c];
+        }
+        return columns;
+    }
+
+    private static int[] classIndices(int[] labels, int[] classes) {
+        int[] indices = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) indices[i] = Arrays.binarySearch(classes, labels[i]);
+        return indices;
+    }
+
+    private static int[] select(int[] data, int[] indices) {
+        int[] subset = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) subset[i] = data[indices[i]];
+        return subset;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.automl_prototype_1.algorithm;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Thread-safe memo of fitness values, keyed by the data split and the genome.
+ * Searches that revisit the same candidate (e.g. GA elitism and averaging crossover
+ * keep producing the same k) get the stored value instead of refitting the model.
+ * <p>
+ * When several threads ask for the same uncached key at once, only the first one
+ * evaluates it; the others wait for that result. Genome keys must implement
+ * {@code equals}/{@code hashCode} by value (wrap arrays before using them as keys).
+ *
+ * @param <G> The genome key type.
+ */
+public class FitnessCache<G> {
+
+    private final ConcurrentMap<Key<G>, CompletableFuture<Double>> values = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Returns the cached fitness for (split, genome), evaluating and storing it on a miss.
+     * @param splitId Identifies the train/test data the fitness was measured on.
+     * @param genome The candidate.
+     * @param evaluator Computes the fitness on a miss. Failures (exceptions and errors) are
+     *                  not cached: threads waiting on the same key get the failure (wrapped
+     *                  in a CompletionException), and a later lookup evaluates again.
+     * @return The fitness value.
+     */
+    public double getOrCompute(long splitId, G genome, ToDoubleFunction<G> evaluator) {
+        Key<G> key = new Key<>(splitId, genome);
+        CompletableFuture<Double> existing = values.get(key);
+        if (existing == null) {
+            CompletableFuture<Double> mine = new CompletableFuture<>();
+            existing = values.putIfAbsent(key, mine);
+            if (existing == null) {
+                misses.increment();
+                try {
+                    double fitness = evaluator.applyAsDouble(genome);
+                    mine.complete(fitness);
+                    return fitness;
+                } catch (Throwable e) { // Errors too (e.g. OutOfMemoryError), or waiters would block forever
+                    values.remove(key, mine);
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        hits.increment();
+        return existing.join();
+    }
+
+    /**
+     * Checks for a stored or in-flight fitness without counting a lookup, so batch
+     * evaluators can send only the genomes that still need a model fit.
+     * @return True if (split, genome) has been or is being evaluated.
+     */
+    public boolean contains(long splitId, G genome) {
+        return values.containsKey(new Key<>(splitId, genome));
+    }
+
+    /** @return The number of lookups answered from the cache. */
+    public long getHits() { return hits.sum(); }
+
+    /** @return The number of lookups that had to evaluate the genome (real model evaluations). */
+    public long getMisses() { return misses.sum(); }
+
+    /** @return The number of distinct (split, genome) entries stored. */
+    public int size() { return values.size(); }
+
+    private static final class Key<G> {
+        private final long splitId;
+        private final G genome;
+
+        Key(long splitId, G genome) {
+            this.splitId = splitId;
+            this.genome = genome;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key<?> other = (Key<?>) o;
+            return splitId == other.splitId && Objects.equals(genome, other.genome);
+        }
+
+        @Override
+        public int hashCode() { return 31 * Long.hashCode(splitId) + Objects.hashCode(genome); }
+    }
+}
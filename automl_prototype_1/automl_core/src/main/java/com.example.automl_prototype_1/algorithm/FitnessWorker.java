@@ -0,0 +1,289 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Worker process for distributed fitness evaluation ({@link RemoteFitnessEvaluator}).
+ * <p>
+ * Started by the coordinator as a child JVM; commands arrive on stdin and replies go to
+ * stdout as big-endian {@link DataOutputStream} records. Everything the core logs with
+ * {@code System.out} is redirected to stderr so it cannot corrupt the protocol.
+ * <pre>
+ *   HAS_DATASET  long hash                               -> OK boolean present
+ *   DATASET      long hash, matrix                       -> OK
+ *   SETUP        long hash, long setupId, int folds,
+ *                {int[] train, int[] test} per fold,
+ *                boolean useTable, UTF neighborSearch,
+ *                int maxK, int parallelism               -> OK
+ *   EVALUATE     long setupId, int[] k                   -> OK int count, int folds,
+ *                                                           double[count * folds] accuracy
+ *   SHUTDOWN                                             -> (exit)
+ * </pre>
+ * A matrix is int rows, int cols, double[rows * cols] row-major, int[rows] labels; an
+ * int[] is its length followed by the values. EVALUATE replies every fold's accuracy, k by k,
+ * so the coordinator can report fold variance as well as the mean. Failed commands reply
+ * ERROR and a UTF message.
+ * <p>
+ * Datasets are kept in memory and in {@code <java.io.tmpdir>/automl-worker-cache}, named by
+ * content hash, so neither repeated generations nor a restarted worker need the data resent.
+ */
+public final class FitnessWorker {
+
+    static final byte HAS_DATASET = 1;
+    static final byte DATASET = 2;
+    static final byte SETUP = 3;
+    static final byte EVALUATE = 4;
+    static final byte SHUTDOWN = 5;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    private static final File CACHE_DIR = new File(System.getProperty("java.io.tmpdir"), "automl-worker-cache");
+
+    private final Map<Long, Object[]> datasets = new HashMap<>(); // hash -> {DenseMatrix, int[]}
+    private final Map<Long, CrossValidationEvaluator> evaluators = new HashMap<>();
+    private ExecutorService executor;
+
+    private FitnessWorker() { }
+
+    public static void main(String[] args) throws IOException {
+        PrintStream protocolOut = new PrintStream(new FileOutputStream(FileDescriptor.out), false);
+        System.setOut(System.err); // Core logging must not interleave with protocol records
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in), 1 << 16));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(protocolOut, 1 << 16));
+        FitnessWorker worker = new FitnessWorker();
+        try {
+            worker.serve(in, out);
+        } finally {
+            if (worker.executor != null) worker.executor.shutdown();
+        }
+    }
+
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        System.out.println("FitnessWorker: Started (pid " + ProcessHandle.current().pid() + ").");
+        while (true) {
+            byte command;
+            try {
+                command = in.readByte();
+            } catch (EOFException e) {
+                return; // Coordinator went away
+            }
+            if (command == SHUTDOWN) return;
+            try {
+                switch (command) {
+                    case HAS_DATASET: {
+                        boolean present = findDataset(in.readLong()) != null;
+                        out.writeByte(OK);
+                        out.writeBoolean(present);
+                        break;
+                    }
+                    case DATASET:
+                        receiveDataset(in);
+                        out.writeByte(OK);
+                        break;
+                    case SETUP:
+                        setup(in);
+                        out.writeByte(OK);
+                        break;
+                    case EVALUATE: {
+                        CrossValidationEvaluator evaluator = evaluators.get(in.readLong());
+                        int[] ks = readInts(in);
+                        if (evaluator == null) throw new IllegalStateException("EVALUATE before SETUP");
+                        double[][] scores = evaluate(evaluator, ks);
+                        out.writeByte(OK);
+                        out.writeInt(scores.length);
+                        out.writeInt(evaluator.getNumFolds());
+                        for (double[] folds : scores) {
+                            for (double score : folds) out.writeDouble(score);
+                        }
+                        break;
+                    }
+                    default:
+                        throw new IOException("Unknown command " + command); // Stream is out of sync
+                }
+            } catch (RuntimeException e) {
+                out.writeByte(ERROR);
+                out.writeUTF(String.valueOf(e.getMessage()));
+            }
+            out.flush();
+        }
+    }
+
+    private void receiveDataset(DataInputStream in) throws IOException {
+        long hash = in.readLong();
+        DenseMatrix x = readMatrix(in);
+        int[] y = readInts(in);
+        if (contentHash(x, y) != hash) throw new IllegalArgumentException("Dataset hash mismatch");
+        datasets.put(hash, new Object[] { x, y });
+        storeDataset(hash, x, y);
+        System.out.println("FitnessWorker: Received dataset " + Long.toHexString(hash) + " (" + x.getNumRows() + " rows).");
+    }
+
+    private void setup(DataInputStream in) throws IOException {
+        long hash = in.readLong();
+        long setupId = in.readLong();
+        int folds = in.readInt();
+        int[][] train = new int[folds][];
+        int[][] test = new int[folds][];
+        for (int f = 0; f < folds; f++) {
+            train[f] = readInts(in);
+            test[f] = readInts(in);
+        }
+        boolean useTable = in.readBoolean();
+        String neighborSearch = in.readUTF();
+        int maxK = in.readInt();
+        int parallelism = in.readInt();
+        Object[] data = findDataset(hash);
+        if (data == null) throw new IllegalStateException("SETUP for unknown dataset " + Long.toHexString(hash));
+        if (executor == null) {
+            executor = AlgorithmConfig.createEvaluationExecutor(Map.of(AlgorithmConfig.PARALLELISM, parallelism));
+        }
+        if (!evaluators.containsKey(setupId)) {
+            evaluators.put(setupId, new CrossValidationEvaluator((DenseMatrix) data[0], (int[]) data[1], train, test,
+                    useTable, neighborSearch, maxK, executor));
+        }
+    }
+
+    private double[][] evaluate(CrossValidationEvaluator evaluator, int[] ks) {
+        double[][] scores = new double[ks.length][];
+        if (executor == null || ks.length == 1) {
+            for (int i = 0; i < ks.length; i++) scores[i] = evaluator.foldAccuracies(ks[i]);
+            return scores;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(ks.length);
+        for (int i = 0; i < ks.length; i++) {
+            int index = i;
+            tasks.add(() -> { scores[index] = evaluator.foldAccuracies(ks[index]); return null; });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Worker evaluation interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Worker evaluation failed: " + e.getCause(), e.getCause());
+        }
+        return scores;
+    }
+
+    // --- Local dataset cache ---
+
+    private Object[] findDataset(long hash) {
+        Object[] data = datasets.get(hash);
+        if (data == null) {
+            data = loadDataset(hash);
+            if (data != null) datasets.put(hash, data);
+        }
+        return data;
+    }
+
+    private static File cacheFile(long hash) {
+        return new File(CACHE_DIR, Long.toHexString(hash) + ".bin");
+    }
+
+    private static Object[] loadDataset(long hash) {
+        File file = cacheFile(hash);
+        if (!file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            DenseMatrix x = readMatrix(in);
+            int[] y = readInts(in);
+            if (contentHash(x, y) != hash) {
+                System.out.println("FitnessWorker: Ignoring corrupt cache file " + file.getPath());
+                return null;
+            }
+            System.out.println("FitnessWorker: Loaded dataset " + Long.toHexString(hash) + " from local cache.");
+            return new Object[] { x, y };
+        } catch (IOException | RuntimeException e) {
+            System.out.println("FitnessWorker: Could not read cache file " + file.getPath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void storeDataset(long hash, DenseMatrix x, int[] y) {
+        File file = cacheFile(hash);
+        if (file.isFile()) return;
+        try {
+            Files.createDirectories(CACHE_DIR.toPath());
+            File tmp = File.createTempFile("dataset", ".tmp", CACHE_DIR);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16))) {
+                writeMatrix(out, x);
+                writeInts(out, y);
+            }
+            // Atomic rename: concurrent workers never see a half-written file
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("FitnessWorker: Could not write cache file " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    // --- Wire format (shared with RemoteFitnessEvaluator) ---
+
+    /** 64-bit FNV-1a over the shape, the feature bits and the labels. */
+    static long contentHash(DenseMatrix x, int[] y) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, x.getNumRows());
+        hash = fnv(hash, x.getNumCols());
+        for (int row = 0; row < x.getNumRows(); row++) {
+            for (int col = 0; col < x.getNumCols(); col++) hash = fnv(hash, Double.doubleToLongBits(x.get(row, col)));
+        }
+        for (int label : y) hash = fnv(hash, label);
+        return hash;
+    }
+
+    private static long fnv(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static void writeMatrix(DataOutputStream out, DenseMatrix x) throws IOException {
+        out.writeInt(x.getNumRows());
+        out.writeInt(x.getNumCols());
+        for (int row = 0; row < x.getNumRows(); row++) {
+            for (int col = 0; col < x.getNumCols(); col++) out.writeDouble(x.get(row, col));
+        }
+    }
+
+    static DenseMatrix readMatrix(DataInputStream in) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        double[] data = new double[Math.multiplyExact(rows, cols)];
+        for (int i = 0; i < data.length; i++) data[i] = in.readDouble();
+        return DenseMatrix.wrap(data, rows, cols);
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) out.writeInt(value);
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+        return values;
+    }
+}
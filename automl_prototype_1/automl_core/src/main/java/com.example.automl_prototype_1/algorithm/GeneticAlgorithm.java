@@ -1,29 +1,58 @@
 package com.example.automl_prototype_1.algorithm;
 
 import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DenseMatrix;
 import com.example.automl_prototype_1.model.ExecutionResult;
-import smile.classification.KNN;        // KNN Classifier
+import com.example.automl_prototype_1.model.FeatureMatrix;
 // Note: DataFrame, Formula, vector imports are no longer needed here as we use arrays directly
 // import smile.data.DataFrame;
 // import smile.data.formula.Formula;
 // import smile.data.vector.BaseVector;
 // import smile.data.vector.DoubleVector;
 // import smile.data.type.StructField;
-import smile.validation.metric.Accuracy; // Classification metric
 
 // Import necessary standard Java classes
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.IntStream;
 
 /**
  * Implementation of a Genetic Algorithm focused on optimizing the 'k'
  * hyperparameter for a KNN classifier using the Smile 2.6.0 library.
  * Uses direct array manipulation after preprocessing.
+ * <p>
+ * A population is stored as parallel primitive arrays (genome k and fitness per
+ * individual) and each generation is bred into a second, preallocated pair of arrays
+ * that is then swapped in. Together with a per-run fitness memo indexed by k, the
+ * in-process generation loop allocates nothing once the population is warm, apart from
+ * the progress lines it prints ({@code progressInterval}, 0 for none) and the futures of
+ * a parallel executor.
+ * <p>
+ * With {@code islands > 1} the GA runs as an island model: each island is an
+ * independent population of {@code populationSize} evolved on its own thread with its
+ * own Random. Every {@code migrationInterval} generations each island publishes copies
+ * of its best {@code migrationSize} individuals to a lock-free mailbox
+ * ({@link AtomicReferenceArray}, one slot per island, double-buffered by epoch), and at
+ * the start of the next epoch replaces its worst individuals with the migrants of its
+ * neighbors ({@code topology} "ring": the previous island; "full": every other island).
+ * Islands only meet at epoch boundaries, so a run is reproducible for a given
+ * {@code seed} and island count regardless of thread timing. With a performance
+ * predictor (NNP) the islands share its training state, so their epochs then run one
+ * after another in island order.
+ * <p>
+ * With {@code workers > 0} (single population only) fitness is computed in that many
+ * {@link FitnessWorker} child processes: each generation the distinct, uncached k values
+ * are shipped to the workers ({@link RemoteFitnessEvaluator}), which keep the dataset
+ * cached by content hash and are restarted if they die mid-generation.
  */
-public class GeneticAlgorithm implements OptimizationAlgorithm {
+public class GeneticAlgorithm implements ScreenableSearch {
 
     private static final String ALGORITHM_NAME = "Genetic Algorithm (KNN HyperOpt)";
-    private final Random random = new Random();
+    private Random random = new Random(); // Re-seeded per run when the "seed" key is set
 
     // --- GA Configuration Parameters ---
     private int populationSize = 20;
@@ -32,332 +61,636 @@ public class GeneticAlgorithm implements OptimizationAlgorithm {
     private double mutationRate = 0.1;
     private boolean elitism = true;
     private int tournamentSize = 5;
+    private int progressInterval = 5; // Generations between progress lines (0 = none)
+    // "table": score every k from one shared neighbor search (KnnNeighborTable); "refit": fit Smile KNN per k
+    private String knnEvaluation = "table";
+    // Neighbor search backend for the table: "auto", "kdtree", "balltree", "blocked" or "brute"
+    private String neighborSearchType = "auto";
+    // Fitness validation: "stratified" k-fold (default), "kfold", or a single 70/30 "holdout" split
+    private String validation = "stratified";
+    private int folds = 5;
+    // Island model: independent populations of populationSize each (1 = a single population)
+    private int islands = 1;
+    private int migrationInterval = 5; // Generations between migrations
+    private int migrationSize = 2;     // Elites each island sends per migration
+    private String topology = "ring";  // "ring" (from the previous island) or "full" (from every other island)
+    // Coordinator/worker mode: number of worker JVMs scoring fitness (0 = in-process)
+    private int workers = 0;
+    private String workerCommand = "";  // Overrides the command starting a worker (space-separated)
+    private int workerParallelism = 0;  // Threads per worker; 0 = cores / workers
 
     // --- Hyperparameter Space (KNN 'k') ---
     private int minK = 1;
     private int maxK = 20;
 
+    // --- Per-run evaluation state ---
+    // Fitness per (folds, clamped k), shared across generations so repeated k values are not refitted
+    private FitnessCache<Integer> fitnessCache;
+    private CrossValidationEvaluator evaluator; // Validation folds and their shared neighbor structures
+    private ConvergenceCriteria convergence; // Early-stopping rules, read from the configuration per run
+    private RemoteFitnessEvaluator remote; // Worker processes, when workers > 0
+    private PerformancePredictor predictor; // Screens new k values when wrapped by NNP (in-process only)
+    private ScreeningBatch<Integer> screening; // Per-run batches of predictor lookups, null without a predictor
+    // Genomes are clamped into [rangeMinK, rangeMaxK] (maxK limited by the training rows)
+    private int rangeMinK;
+    private int rangeMaxK;
+    // Allocation-free front of fitnessCache: fitness bits per k - rangeMinK, UNSCORED until evaluated
+    private AtomicLongArray fitnessMemo;
+    private final LongAdder memoHits = new LongAdder();
+    private static final long UNSCORED = 0xfff8deadbeef0001L; // A NaN payload no evaluation produces
+
     @Override
     public String getAlgorithmName() { return ALGORITHM_NAME; }
 
     @Override
-    public ExecutionResult execute(Dataset rawDataset, Map<String, Object> configuration) {
+    public void setPerformancePredictor(PerformancePredictor predictor) { this.predictor = predictor; }
+
+    @Override
+    public ExecutionResult execute(Dataset rawDataset, FeatureMatrix features, Map<String, Object> configuration) {
         System.out.println("--- Executing GA for KNN Hyperparameter Optimization ---");
         long startTime = System.currentTimeMillis();
 
         applyConfiguration(configuration);
-
-        // --- 1. Preprocessing ---
-        // Converts raw Map data directly to feature/target arrays
-        ProcessedData processedData = preprocessDataBasic(rawDataset);
-        if (processedData == null || processedData.x == null || processedData.y == null || processedData.x.length == 0) {
-            throw new RuntimeException("Fatal: Preprocessing failed to produce valid data arrays.");
-        }
-        System.out.println("Preprocessing returned: x["+processedData.x.length+"]["+(processedData.x.length > 0 ? processedData.x[0].length : 0)+"], y["+processedData.y.length+"]");
-        // ------------------------
-
-        // --- 2. Train/Test Split ---
-        System.out.println("Splitting data (70% train, 30% test)...");
-        int n = processedData.y.length;
-        int[][] splitIndices = trainTestSplitManual(n, 0.7, random); // Use manual split helper
-        int[] trainIndices = splitIndices[0];
-        int[] testIndices = splitIndices[1];
-        if (trainIndices.length == 0 || testIndices.length == 0) {
-            throw new RuntimeException("Fatal: Dataset too small or split percentage invalid.");
+        ExecutorService evaluationExecutor = AlgorithmConfig.createEvaluationExecutor(configuration);
+        try {
+            return runGa(features, evaluationExecutor, startTime);
+        } finally {
+            if (evaluationExecutor != null) evaluationExecutor.shutdown();
+            if (remote != null) remote.close();
+            remote = null;
         }
+    }
 
-        // Create training and testing arrays directly from ProcessedData
-        double[][] xTrain = selectRows(processedData.x, trainIndices);
-        int[] yTrain = selectElementsInt(processedData.y, trainIndices); // Use int[] y
-        double[][] xTest = selectRows(processedData.x, testIndices);
-        int[] yTest = selectElementsInt(processedData.y, testIndices);   // Use int[] y
-        System.out.println("Train samples: " + xTrain.length + ", Test samples: " + xTest.length);
+    private ExecutionResult runGa(FeatureMatrix features, ExecutorService evaluationExecutor, long startTime) {
+        DenseMatrix x = features.getMatrix();
+        int[] y = features.getY();
+        System.out.println("Using preprocessed data: x["+x.getNumRows()+"]["+features.getNumFeatures()+"], y["+y.length+"]");
+
+        // --- 2. Validation Folds ---
+        fitnessCache = new FitnessCache<>();
+        memoHits.reset();
+        screening = (predictor != null) ? new ScreeningBatch<>(predictor) : null;
+        evaluator = createEvaluator(x, y, evaluationExecutor);
+        System.out.println("GA: Prepared " + validationDescription(evaluator) + " in " + evaluator.getBuildTimeMs() + " ms.");
+        initializeSearchSpace(evaluator.getMinTrainRows()); // Pass train size for k clamping
         // --------------------------
 
+        if (islands > 1) {
+            return runIslands(evaluationExecutor, startTime);
+        }
+
         // 3. Initialize Population
-        List<Solution> population = initializePopulation(xTrain.length); // Pass train size for k clamping
+        Population population = new Population(random);
 
-        Solution bestOverallSolution = null;
+        ConvergenceCriteria.StopReason stopReason = ConvergenceCriteria.StopReason.MAX_ITERATIONS;
+        int generationsRun = 0;
+        int[] genomes = new int[populationSize]; // Scratch for the diversity check
+        List<Callable<Void>> evaluationTasks = createEvaluationTasks(population, evaluationExecutor);
 
         // 4. Evolution Loop
         System.out.println("Starting GA generations...");
         for (int generation = 0; generation < maxGenerations; generation++) {
             // 5. Evaluate Fitness
-            evaluatePopulation(population, xTrain, yTrain, xTest, yTest); // Pass arrays
-
-            Solution bestOfGeneration = findBestSolution(population);
-            if (bestOverallSolution == null || bestOfGeneration.fitness > bestOverallSolution.fitness) {
-                bestOverallSolution = new Solution(bestOfGeneration); // Use copy constructor
-            }
+            evaluatePopulation(population, evaluationTasks, evaluationExecutor);
+            int bestOfGeneration = population.updateBest();
 
             // Log progress
-            if (generation == 0 || (generation + 1) % 5 == 0 || generation == maxGenerations - 1) {
-                System.out.printf("GA Gen %d/%d: Best Test Accuracy = %.4f, Best K = %d%n",
-                        generation + 1, maxGenerations, bestOfGeneration.fitness, bestOfGeneration.k);
+            if (progressInterval > 0 && (generation == 0 || (generation + 1) % progressInterval == 0
+                    || generation == maxGenerations - 1)) {
+                System.out.printf("GA Gen %d/%d: Best %s = %.4f, Best K = %d%n", generation + 1, maxGenerations,
+                        CrossValidationEvaluator.accuracyLabel(validation), population.fitness[bestOfGeneration],
+                        population.genomes[bestOfGeneration]);
+            }
+            generationsRun = generation + 1;
+
+            // Stop early once the search has converged or the budget is spent
+            System.arraycopy(population.genomes, 0, genomes, 0, populationSize);
+            ConvergenceCriteria.StopReason fired = convergence.check(population.fitness[bestOfGeneration],
+                    ConvergenceCriteria.diversity(genomes, populationSize), System.currentTimeMillis() - startTime,
+                    fitnessCache.getMisses());
+            if (fired != null) {
+                stopReason = fired;
+                System.out.printf("GA: Stopping after generation %d/%d (%s). Best %s = %.4f%n",
+                        generationsRun, maxGenerations, fired.getKey(), CrossValidationEvaluator.accuracyLabel(validation), population.bestFitness);
+                break;
             }
 
             // 6. Prepare Next Generation
-            List<Solution> nextPopulation = createNextGeneration(population, bestOverallSolution);
-            population = nextPopulation;
+            population.breed();
 
         } // End generations loop
 
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-
         // 7. Report Final Result
-        if (bestOverallSolution != null) {
-            System.out.printf("GA Finished. Best K = %d, Best Test Accuracy = %.4f%n",
-                    bestOverallSolution.k, bestOverallSolution.fitness);
-            return new ExecutionResult(ALGORITHM_NAME + " (Best K=" + bestOverallSolution.k + ")",
-                    round(bestOverallSolution.fitness, 4), Double.NaN, Double.NaN, duration);
-        } else {
-            System.err.println("GA Finished. No best solution found.");
-            return new ExecutionResult(ALGORITHM_NAME, Double.NaN, Double.NaN, Double.NaN, duration);
-        }
+        return buildResult(population.bestK, population.bestFitness, stopReason, generationsRun, startTime,
+                Collections.emptyMap());
     }
 
+    /**
+     * Island-model run: islands evolve in parallel for {@code migrationInterval}
+     * generations (an epoch), then exchange elites through the mailbox. The stopping
+     * rules are replayed per generation on the union of all islands after each epoch.
+     */
+    private ExecutionResult runIslands(ExecutorService executor, long startTime) {
+        Island[] archipelago = new Island[islands];
+        for (int i = 0; i < islands; i++) {
+            archipelago[i] = new Island(i, random.nextLong()); // Seeds drawn in order: reproducible per seed
+        }
+        System.out.println("GA: Island model with " + islands + " islands of " + populationSize + " (" + topology
+                + " topology, " + migrationSize + " migrants every " + migrationInterval + " generations).");
+
+        // Slot epoch % 2 * islands + i holds island i's emigrants from that epoch. Islands write
+        // one parity while reading the other, so a fast island cannot overwrite unread migrants.
+        AtomicReferenceArray<Migrants> mailbox = new AtomicReferenceArray<>(2 * islands);
+        int[] epoch = new int[3]; // {generations, inbox (-1: no migration), outbox}, set before each epoch
+        List<Callable<Void>> tasks = new ArrayList<>(islands);
+        for (Island island : archipelago) {
+            tasks.add(() -> {
+                island.runEpoch(epoch[0], mailbox, epoch[1]);
+                mailbox.set(epoch[2] + island.id, island.emigrants(epoch[2] / islands));
+                return null;
+            });
+        }
+        ConvergenceCriteria.StopReason stopReason = ConvergenceCriteria.StopReason.MAX_ITERATIONS;
+        int generationsRun = 0;
+        int migrations = 0;
+        int[] genomes = new int[islands * populationSize]; // Scratch for the diversity check
 
-    // --- Helper Class to hold preprocessed data ---
-    private static class ProcessedData {
-        final double[][] x; // Features
-        final int[] y;      // Target as int[]
-        ProcessedData(double[][] x, int[] y) { this.x = x; this.y = y; }
-    }
-    // --------------------------------------------
-
-
-    // --- GA Methods ---
-
-    private void applyConfiguration(Map<String, Object> config) { /* ... keep placeholder ... */ }
-
-    /** Basic Preprocessing: Converts raw Map data to double[][] features and int[] target */
-    private ProcessedData preprocessDataBasic(Dataset rawDataset) {
-        try {
-            List<String> headers = rawDataset.getHeaders();
-            List<Map<String, String>> records = rawDataset.getRecords();
-            if (headers == null || records == null || headers.isEmpty() || records.isEmpty()) {
-                System.err.println("Cannot preprocess empty dataset."); return null;
+        System.out.println("Starting GA generations...");
+        for (int e = 0; generationsRun < maxGenerations; e++) {
+            int generations = Math.min(migrationInterval, maxGenerations - generationsRun);
+            epoch[0] = generations;
+            epoch[1] = (e > 0) ? ((e + 1) % 2) * islands : -1;
+            epoch[2] = (e % 2) * islands;
+            // With a predictor, epochs run in island order so its lookups do too
+            AlgorithmConfig.runTasks(tasks, (screening != null) ? null : executor, "GA island epoch");
+            if (e > 0) migrations++;
+
+            // Replay the stopping rules for each generation of the epoch, over all islands
+            ConvergenceCriteria.StopReason fired = null;
+            for (int g = 0; g < generations && fired == null; g++) {
+                double best = Double.NEGATIVE_INFINITY;
+                for (Island island : archipelago) {
+                    best = Math.max(best, island.generationBest[g]);
+                    System.arraycopy(island.generationGenomes, g * populationSize, genomes, island.id * populationSize, populationSize);
+                }
+                fired = convergence.check(best, ConvergenceCriteria.diversity(genomes, genomes.length),
+                        System.currentTimeMillis() - startTime, fitnessCache.getMisses());
             }
-
-            int numRecords = records.size();
-            int numCols = headers.size();
-            if (numCols < 2) {
-                System.err.println("Dataset must have at least 2 columns (features + target)."); return null;
+            generationsRun += generations;
+            Population bestSoFar = bestOfIslands(archipelago);
+            if (progressInterval > 0) {
+                System.out.printf("GA Gen %d/%d: Best %s = %.4f, Best K = %d (%d islands)%n",
+                        generationsRun, maxGenerations, CrossValidationEvaluator.accuracyLabel(validation),
+                        bestSoFar.bestFitness, bestSoFar.bestK, islands);
             }
-            int featureCols = numCols - 1;
-            int targetColIndex = numCols - 1; // Still assuming last col is target - needs config
-
-            double[][] features = new double[numRecords][featureCols];
-            int[] target = new int[numRecords]; // Target as int[]
-
-            System.out.println("Preprocessing " + numRecords + " records...");
-
-            for (int i = 0; i < numRecords; i++) {
-                Map<String, String> record = records.get(i);
-                if (record == null || record.size() != numCols) { // Added check for record integrity
-                    System.err.printf("Warning: Row %d is null or has wrong column count (%d vs %d). Skipping.%n",
-                            i + 1, (record == null ? 0 : record.size()), numCols);
-                    // Consider how to handle target if row is skipped - might need to resize arrays later or use NaN/default
-                    if(i < target.length) target[i] = -1; // Mark target as invalid? Or use a specific value.
-                    continue; // Skip this row
-                }
-
-                int currentFeatureIndex = 0;
-                for (int j = 0; j < numCols; j++) {
-                    String header = headers.get(j);
-                    // Use getOrDefault in case a column is missing in a specific record map
-                    String val = record.getOrDefault(header, "");
-                    double numVal = 0.0; // Default for errors/missing
-
-                    try {
-                        numVal = (val == null || val.isBlank()) ? 0.0 : Double.parseDouble(val);
-                    } catch (NumberFormatException e) {
-                        System.err.printf("Warning: Row %d, Col '%s'. Could not parse '%s'. Using 0.0%n", i + 1, header, val);
-                        // Consider using NaN if your models/fitness can handle it: numVal = Double.NaN;
-                    }
-
-                    if (j == targetColIndex) {
-                        target[i] = (int) Math.round(numVal); // Convert target to int
-                    } else {
-                        if (currentFeatureIndex < featureCols) {
-                            features[i][currentFeatureIndex++] = numVal;
-                        } else {
-                            System.err.printf("Logic Error: Row %d, Col '%s'. Feature index out of bounds.%n", i + 1, header);
-                        }
-                    }
-                }
-                // This check might be less useful now if we skip rows above
-                // if (currentFeatureIndex != featureCols) { ... }
+            if (fired != null) {
+                stopReason = fired;
+                System.out.printf("GA: Stopping after generation %d/%d (%s). Best %s = %.4f%n",
+                        generationsRun, maxGenerations, fired.getKey(), CrossValidationEvaluator.accuracyLabel(validation), bestSoFar.bestFitness);
+                break;
             }
-            System.out.println("Preprocessing complete.");
-            // TODO: Handle skipped rows if necessary (e.g., create smaller arrays)
-            return new ProcessedData(features, target);
-
-        } catch (Exception e) {
-            System.err.println("Error during basic preprocessing:");
-            e.printStackTrace();
-            return null;
         }
+
+        Map<String, Object> islandMetrics = new LinkedHashMap<>();
+        islandMetrics.put("islands", islands);
+        islandMetrics.put("topology", topology);
+        islandMetrics.put("migrations", migrations);
+        islandMetrics.put("migrantsPerIsland", migrations * migrationSize * sourcesPerIsland());
+        Population best = bestOfIslands(archipelago);
+        return buildResult(best.bestK, best.bestFitness, stopReason, generationsRun, startTime, islandMetrics);
     }
 
+    private int sourcesPerIsland() {
+        return "full".equals(topology) ? islands - 1 : 1;
+    }
 
-    /** Evaluate fitness using train/test split */
-    // Signature uses int[] for target arrays
-    private void evaluatePopulation(List<Solution> population, double[][] xTrain, int[] yTrain, double[][] xTest, int[] yTest) {
-        for (Solution sol : population) {
-            int kValue = 0;
-            try {
-                kValue = sol.getClampedK(xTrain.length);
+    /** Island population holding the best individual; ties go to the lower island. */
+    private static Population bestOfIslands(Island[] archipelago) {
+        Population best = archipelago[0].population;
+        for (Island island : archipelago) {
+            if (island.population.bestFitness > best.bestFitness) best = island.population;
+        }
+        return best;
+    }
 
-                // KNN.fit takes int[] target yTrain
-                KNN<double[]> knn = KNN.fit(xTrain, yTrain, kValue);
+    private ExecutionResult buildResult(int bestK, double bestFitness, ConvergenceCriteria.StopReason stopReason,
+                                        int generationsRun, long startTime, Map<String, Object> extraMetrics) {
+        long endTime = System.currentTimeMillis();
+        long duration = endTime - startTime;
+        if (bestK >= 0) {
+            long hits = fitnessCache.getHits() + memoHits.sum();
+            System.out.printf("GA Finished. Best K = %d, Best %s = %.4f%n", bestK, CrossValidationEvaluator.accuracyLabel(validation), bestFitness);
+            System.out.println("GA fitness cache: " + hits + " hits, "
+                    + fitnessCache.getMisses() + " misses (model evaluations).");
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("fitnessCacheHits", hits);
+            metrics.put("fitnessCacheMisses", fitnessCache.getMisses());
+            metrics.put("modelEvaluations", fitnessCache.getMisses());
+            metrics.put("stopReason", stopReason.getKey());
+            metrics.put("generationsRun", generationsRun);
+            metrics.put("validation", validationDescription(evaluator));
+            // In worker mode the local evaluator refits per fold; ask the workers instead
+            CrossValidationEvaluator.Score bestScore = (remote != null)
+                    ? remote.evaluate(new int[] { bestK })[0] : evaluator.score(bestK);
+            metrics.put("cvAccuracyVariance", AlgorithmConfig.round(bestScore.getVariance(), 6));
+            metrics.put("foldBuildMs", evaluator.getBuildTimeMs());
+            metrics.putAll(extraMetrics);
+            if (remote != null) {
+                metrics.put("workers", workers);
+                metrics.put("workerRestarts", remote.getRestarts());
+                metrics.put("datasetTransfers", remote.getDatasetTransfers());
+            }
+            return new ExecutionResult(ALGORITHM_NAME + " (Best K=" + bestK + ")",
+                    AlgorithmConfig.round(bestFitness, 4), Double.NaN, Double.NaN, duration, metrics);
+        } else {
+            System.err.println("GA Finished. No best solution found.");
+            return new ExecutionResult(ALGORITHM_NAME, Double.NaN, Double.NaN, Double.NaN, duration);
+        }
+    }
 
-                // knn.predict takes double[][] features xTest and returns int[] predictions
-                int[] predictions = knn.predict(xTest);
 
-                // Accuracy compares int[] yTest vs int[] predictions
-                sol.fitness = Accuracy.of(yTest, predictions);
+    // --- GA Methods ---
 
-            } catch (IllegalArgumentException e) {
-                System.err.println("Error evaluating fitness for k=" + sol.k + " (clamped: " + kValue + "): " + e.getMessage());
-                sol.fitness = Double.NEGATIVE_INFINITY; // Give very bad fitness
-            } catch (Exception e) { // Catch other unexpected errors
-                System.err.println("Unexpected error evaluating fitness for k=" + sol.k + " (clamped: " + kValue + ")");
-                e.printStackTrace();
-                sol.fitness = Double.NEGATIVE_INFINITY; // Penalize heavily
-            }
+    /** Reads GA settings from the configuration map; missing keys keep the defaults above. */
+    private void applyConfiguration(Map<String, Object> config) {
+        populationSize = Math.max(2, AlgorithmConfig.getInt(config, "populationSize", populationSize));
+        maxGenerations = Math.max(1, AlgorithmConfig.getInt(config, "maxGenerations", maxGenerations));
+        crossoverRate = AlgorithmConfig.getDouble(config, "crossoverRate", crossoverRate);
+        mutationRate = AlgorithmConfig.getDouble(config, "mutationRate", mutationRate);
+        elitism = AlgorithmConfig.getBoolean(config, "elitism", elitism);
+        tournamentSize = Math.max(1, AlgorithmConfig.getInt(config, "tournamentSize", tournamentSize));
+        progressInterval = Math.max(0, AlgorithmConfig.getInt(config, "progressInterval", progressInterval));
+        knnEvaluation = AlgorithmConfig.getString(config, "knnEvaluation", knnEvaluation);
+        neighborSearchType = AlgorithmConfig.getString(config, "neighborSearch", neighborSearchType);
+        validation = AlgorithmConfig.getValidation(config, validation, "GA");
+        folds = Math.max(2, AlgorithmConfig.getInt(config, "folds", folds));
+        minK = Math.max(1, AlgorithmConfig.getInt(config, "minK", minK));
+        maxK = Math.max(minK, AlgorithmConfig.getInt(config, "maxK", maxK));
+        islands = Math.max(1, AlgorithmConfig.getInt(config, "islands", islands));
+        migrationInterval = Math.max(1, AlgorithmConfig.getInt(config, "migrationInterval", migrationInterval));
+        migrationSize = Math.max(0, Math.min(populationSize - 1, AlgorithmConfig.getInt(config, "migrationSize", migrationSize)));
+        topology = AlgorithmConfig.getString(config, "topology", topology).toLowerCase();
+        workers = Math.max(0, AlgorithmConfig.getInt(config, "workers", workers));
+        workerCommand = AlgorithmConfig.getString(config, "workerCommand", workerCommand);
+        workerParallelism = AlgorithmConfig.getInt(config, "workerParallelism", workerParallelism);
+        if (workers > 0 && islands > 1) {
+            System.err.println("GA: Worker processes are not supported in island mode; evaluating in-process.");
+            workers = 0;
         }
+        if (!"ring".equals(topology) && !"full".equals(topology)) {
+            System.err.println("GA: Unknown topology '" + topology + "', using ring.");
+            topology = "ring";
+        }
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+        convergence = ConvergenceCriteria.fromConfig(config);
     }
 
+    /**
+     * Builds the validation folds selected by the "validation" key, with the neighbor
+     * structures every individual shares.
+     */
+    private CrossValidationEvaluator createEvaluator(DenseMatrix x, int[] y, ExecutorService executor) {
+        if ("holdout".equals(validation)) {
+            System.out.println("Splitting data (70% train, 30% test)...");
+        }
+        int[][][] splits = CrossValidationEvaluator.splitsFor(validation, y, folds, random);
+        int[][] trainFolds = splits[0];
+        int[][] testFolds = splits[1];
+        boolean useTable = "table".equalsIgnoreCase(knnEvaluation);
+        if (workers == 0) {
+            return new CrossValidationEvaluator(x, y, trainFolds, testFolds, useTable, neighborSearchType, maxK, executor);
+        }
+        // The workers hold the neighbor tables; the local refit evaluator is the fallback if they all fail
+        CrossValidationEvaluator local = new CrossValidationEvaluator(x, y, trainFolds, testFolds, false,
+                neighborSearchType, maxK, executor);
+        List<String> command = workerCommand.isEmpty()
+                ? RemoteFitnessEvaluator.defaultWorkerCommand() : Arrays.asList(workerCommand.split("\\s+"));
+        int threads = workerParallelism > 0 ? workerParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / workers);
+        remote = new RemoteFitnessEvaluator(workers, command, x, y, trainFolds, testFolds, useTable,
+                neighborSearchType, maxK, threads, local);
+        return local;
+    }
 
-    /** Initialize population */
-    private List<Solution> initializePopulation(int maxPossibleK) {
-        int effectiveMaxK = Math.min(this.maxK, maxPossibleK > 0 ? maxPossibleK - 1 : this.maxK);
-        effectiveMaxK = Math.max(minK, effectiveMaxK);
-        int effectiveMinK = Math.min(minK, effectiveMaxK);
+    private String validationDescription(CrossValidationEvaluator cv) {
+        return CrossValidationEvaluator.describe(validation, cv.getNumFolds());
+    }
 
+    /** Sets the k range for this run's genomes and clears the fitness memo. */
+    private void initializeSearchSpace(int maxPossibleK) {
+        int effectiveMaxK = Math.min(this.maxK, maxPossibleK > 0 ? maxPossibleK - 1 : this.maxK); // k must be < N
+        rangeMaxK = Math.max(minK, effectiveMaxK);
+        rangeMinK = Math.min(minK, rangeMaxK);
+        fitnessMemo = new AtomicLongArray(rangeMaxK - rangeMinK + 1);
+        for (int i = 0; i < fitnessMemo.length(); i++) fitnessMemo.set(i, UNSCORED);
         System.out.println("GA Initializing population (KNN k) of size " + populationSize
-                + " with k range [" + effectiveMinK + ", " + effectiveMaxK + "]");
-        List<Solution> population = new ArrayList<>(populationSize);
+                + " with k range [" + rangeMinK + ", " + rangeMaxK + "]");
+    }
+
+    /**
+     * One task per individual slot, built once per run. Tasks read the population's
+     * current arrays when they run, so they stay valid across generation swaps.
+     */
+    private List<Callable<Void>> createEvaluationTasks(Population population, ExecutorService executor) {
+        if (executor == null || remote != null) return Collections.emptyList();
+        List<Callable<Void>> tasks = new ArrayList<>(populationSize);
         for (int i = 0; i < populationSize; i++) {
-            // Call the constructor taking two ints
-            population.add(new Solution(effectiveMinK, effectiveMaxK));
+            int slot = i;
+            tasks.add(() -> { population.fitness[slot] = fitnessOf(population.genomes[slot]); return null; });
         }
-        return population;
+        return tasks;
     }
 
-    /** Creates the next generation */
-    private List<Solution> createNextGeneration(List<Solution> currentPopulation, Solution bestOverall) {
-        List<Solution> nextPopulation = new ArrayList<>(populationSize);
-        if (elitism && bestOverall != null) {
-            // Use copy constructor
-            nextPopulation.add(new Solution(bestOverall));
+    /**
+     * Evaluate fitness on the validation folds.
+     * With an executor, individuals are scored concurrently; each task writes only its own
+     * fitness slot and predictor lookups are screened and recorded around the batch in slot
+     * order, so the result does not depend on completion order.
+     */
+    private void evaluatePopulation(Population population, List<Callable<Void>> tasks, ExecutorService executor) {
+        if (remote != null) {
+            evaluateRemotely(population);
+            return;
         }
-        List<Solution> parents = selection(currentPopulation);
-        while (nextPopulation.size() < populationSize) {
-            Solution parent1 = parents.get(random.nextInt(parents.size()));
-            Solution parent2 = parents.get(random.nextInt(parents.size()));
-            // Use copy constructor
-            Solution child1 = new Solution(parent1);
-            Solution child2 = new Solution(parent2);
-            if (random.nextDouble() < crossoverRate) { performCrossover(child1, child2); }
-            mutate(child1);
-            mutate(child2);
-            if (nextPopulation.size() < populationSize) nextPopulation.add(child1);
-            if (nextPopulation.size() < populationSize) nextPopulation.add(child2);
+        screen(population);
+        if (executor == null) {
+            for (int i = 0; i < populationSize; i++) population.fitness[i] = fitnessOf(population.genomes[i]);
+        } else {
+            AlgorithmConfig.runTasks(tasks, executor, "GA fitness evaluation");
         }
-        return nextPopulation;
+        if (screening != null) screening.record();
     }
 
-    // --- findBestSolution, selection, performCrossover, mutate (Keep implementations) ---
-    private Solution findBestSolution(List<Solution> population) { return Collections.max(population, Comparator.comparingDouble(s -> s.fitness)); }
-    private List<Solution> selection(List<Solution> population) { /* ... Tournament selection ... */
-        List<Solution> parents = new ArrayList<>(populationSize);
+    /** Screens the population's k values not scored yet with the predictor (if any), in slot order. */
+    private void screen(Population population) {
+        if (screening == null) return;
+        long splitId = evaluator.getSplitId();
         for (int i = 0; i < populationSize; i++) {
-            Solution bestInTournament = population.get(random.nextInt(population.size()));
-            for (int j = 1; j < tournamentSize; j++) {
-                Solution competitor = population.get(random.nextInt(population.size()));
-                if (competitor.fitness > bestInTournament.fitness) bestInTournament = competitor;
+            int k = population.genomes[i];
+            if (fitnessMemo.get(k - rangeMinK) == UNSCORED && !fitnessCache.contains(splitId, k)) {
+                screening.screen(k, new double[] { (rangeMaxK > rangeMinK) ? (k - rangeMinK) / (double) (rangeMaxK - rangeMinK) : 0.0 });
             }
-            parents.add(bestInTournament);
         }
-        return parents;
     }
-    private void performCrossover(Solution child1, Solution child2) { /* ... Averaging crossover ... */
-        int k1 = child1.k; int k2 = child2.k;
-        child1.k = (k1 + k2) / 2; child2.k = (k1 + k2 + 1) / 2;
-        child1.clampK(); child2.clampK();
+
+    /**
+     * Sends the distinct k values not scored yet to the worker processes in one batch,
+     * then fills every individual's fitness from the memo.
+     */
+    private void evaluateRemotely(Population population) {
+        long splitId = evaluator.getSplitId();
+        int[] pending = IntStream.of(population.genomes).distinct()
+                .filter(k -> fitnessMemo.get(k - rangeMinK) == UNSCORED).toArray();
+        if (pending.length > 0) {
+            CrossValidationEvaluator.Score[] scores = remote.evaluate(pending);
+            for (int i = 0; i < pending.length; i++) {
+                double score = scores[i].getMean();
+                memoize(pending[i], fitnessCache.getOrCompute(splitId, pending[i], k -> score));
+            }
+        }
+        for (int i = 0; i < populationSize; i++) {
+            population.fitness[i] = Double.longBitsToDouble(fitnessMemo.get(population.genomes[i] - rangeMinK));
+        }
+        memoHits.add(populationSize - pending.length);
     }
-    private void mutate(Solution solution) { /* ... Small change mutation ... */
-        if (random.nextDouble() < mutationRate) {
-            int change = random.nextInt(3) - 1;
-            if (change != 0) { solution.k += change; solution.clampK(); }
+
+    /**
+     * Fitness (mean accuracy over the folds) of a k in the search range. Reads the memo
+     * without allocating; only a k not seen on these folds yet goes through the cache
+     * and is scored, unless the predictor (if any) screened it out for this batch.
+     */
+    private double fitnessOf(int k) {
+        long bits = fitnessMemo.get(k - rangeMinK);
+        if (bits != UNSCORED) {
+            memoHits.increment();
+            return Double.longBitsToDouble(bits);
+        }
+        long splitId = evaluator.getSplitId();
+        ScreeningBatch<Integer> batch = screening;
+        double fitness;
+        if (batch == null) {
+            fitness = fitnessCache.getOrCompute(splitId, k, kk -> evaluator.score(kk).getMean());
+        } else {
+            double predicted = batch.prediction(k);
+            if (!Double.isNaN(predicted)) return predicted; // Predicted poor: not memoized
+            fitness = fitnessCache.getOrCompute(splitId, k, kk -> {
+                double score = evaluator.score(kk).getMean();
+                batch.evaluated(kk, score);
+                return score;
+            });
         }
+        memoize(k, fitness);
+        return fitness;
     }
 
-    // --- Solution Class (Ensure ONLY these two constructors) ---
-    private class Solution {
-        int k;
-        double fitness = Double.NEGATIVE_INFINITY;
-        final int currentMinK;
-        final int currentMaxK;
-
-        // Constructor for initialization
-        public Solution(int minPossibleK, int maxPossibleK) {
-            this.currentMinK = Math.max(1, minPossibleK);
-            this.currentMaxK = Math.max(this.currentMinK, maxPossibleK);
-            this.k = (this.currentMaxK >= this.currentMinK) ?
-                    random.nextInt(this.currentMaxK - this.currentMinK + 1) + this.currentMinK
-                    : this.currentMinK;
+    private void memoize(int k, double fitness) {
+        fitnessMemo.set(k - rangeMinK, Double.doubleToRawLongBits(fitness));
+    }
+
+    private int clampK(int k) {
+        return Math.max(rangeMinK, Math.min(k, rangeMaxK));
+    }
+
+    // --- Population (structure of arrays) ---
+    /**
+     * One population as parallel primitive arrays: genome k and fitness per slot. The next
+     * generation is bred into a second pair of arrays and the pairs are swapped, so
+     * selection, crossover and mutation allocate nothing.
+     */
+    private final class Population {
+        final Random rnd;
+        int[] genomes;
+        double[] fitness;
+        private int[] nextGenomes;
+        private double[] nextFitness;
+        private final int[] parents; // Tournament winners, as slot indices
+        // Best individual seen so far (the elite)
+        int bestK = -1;
+        double bestFitness = Double.NEGATIVE_INFINITY;
+
+        Population(Random rnd) {
+            this.rnd = rnd;
+            this.genomes = new int[populationSize];
+            this.fitness = new double[populationSize];
+            this.nextGenomes = new int[populationSize];
+            this.nextFitness = new double[populationSize];
+            this.parents = new int[populationSize];
+            for (int i = 0; i < populationSize; i++) {
+                genomes[i] = rnd.nextInt(rangeMaxK - rangeMinK + 1) + rangeMinK;
+                fitness[i] = Double.NEGATIVE_INFINITY;
+            }
         }
 
-        // Copy constructor
-        public Solution(Solution other) {
-            this.k = other.k;
-            this.fitness = other.fitness;
-            this.currentMinK = other.currentMinK;
-            this.currentMaxK = other.currentMaxK;
+        /** Call after scoring: remembers a new overall best. @return Slot of this generation's best. */
+        int updateBest() {
+            int best = 0;
+            for (int i = 1; i < populationSize; i++) {
+                if (fitness[i] > fitness[best]) best = i;
+            }
+            if (bestK < 0 || fitness[best] > bestFitness) {
+                bestK = genomes[best];
+                bestFitness = fitness[best];
+            }
+            return best;
         }
 
-        // No other constructors should be present
+        /** Breeds the next generation (elitism, tournament selection, averaging crossover, ±1 mutation). */
+        void breed() {
+            int filled = 0;
+            if (elitism && bestK >= 0) {
+                nextGenomes[0] = bestK;
+                nextFitness[0] = bestFitness;
+                filled = 1;
+            }
+            for (int i = 0; i < populationSize; i++) { // Tournament selection
+                int winner = rnd.nextInt(populationSize);
+                for (int j = 1; j < tournamentSize; j++) {
+                    int competitor = rnd.nextInt(populationSize);
+                    if (fitness[competitor] > fitness[winner]) winner = competitor;
+                }
+                parents[i] = winner;
+            }
+            while (filled < populationSize) {
+                int parent1 = parents[rnd.nextInt(populationSize)];
+                int parent2 = parents[rnd.nextInt(populationSize)];
+                int k1 = genomes[parent1];
+                int k2 = genomes[parent2];
+                if (rnd.nextDouble() < crossoverRate) { // Averaging crossover
+                    int sum = k1 + k2;
+                    k1 = clampK(sum / 2);
+                    k2 = clampK((sum + 1) / 2);
+                }
+                k1 = mutate(k1);
+                k2 = mutate(k2);
+                nextGenomes[filled] = k1;
+                nextFitness[filled++] = fitness[parent1];
+                if (filled < populationSize) {
+                    nextGenomes[filled] = k2;
+                    nextFitness[filled++] = fitness[parent2];
+                }
+            }
+            int[] swapGenomes = genomes;
+            genomes = nextGenomes;
+            nextGenomes = swapGenomes;
+            double[] swapFitness = fitness;
+            fitness = nextFitness;
+            nextFitness = swapFitness;
+        }
 
-        void clampK() { this.k = Math.max(this.currentMinK, Math.min(this.k, this.currentMaxK)); }
-        int getClampedK(int trainingSetSize) {
-            int maxAllowedByData = Math.max(1, trainingSetSize - 1); // k must be < N
-            return Math.max(this.currentMinK, Math.min(this.k, Math.min(this.currentMaxK, maxAllowedByData)));
+        private int mutate(int k) { // Small change mutation
+            if (rnd.nextDouble() < mutationRate) {
+                int change = rnd.nextInt(3) - 1;
+                if (change != 0) return clampK(k + change);
+            }
+            return k;
         }
     }
-    // --- End Solution Class ---
-
-    private double round(double value, int places) {
-        if (places < 0) throw new IllegalArgumentException();
-        long factor = (long) Math.pow(10, places);
-        value = value * factor;
-        long tmp = Math.round(value);
-        return (double) tmp / factor;
-    }
 
-    // --- Manual Train/Test Split ---
-    private static int[][] trainTestSplitManual(int n, double ratio, Random random) {
-        int[] indices = IntStream.range(0, n).toArray();
-        for (int i = n - 1; i > 0; i--) { int j = random.nextInt(i + 1); int temp = indices[i]; indices[i] = indices[j]; indices[j] = temp; }
-        int trainSize = (int) (n * ratio);
-        int[] train = Arrays.copyOfRange(indices, 0, trainSize);
-        int[] test = Arrays.copyOfRange(indices, trainSize, n);
-        return new int[][] { train, test };
-    }
-    private static double[][] selectRows(double[][] data, int[] indices) {
-        double[][] subset = new double[indices.length][];
-        for (int i = 0; i < indices.length; i++) { subset[i] = data[indices[i]]; }
-        return subset;
+    // --- Island model ---
+    /** Emigrants of one island for one epoch parity; preallocated and reused. */
+    private static final class Migrants {
+        final int[] genomes;
+        final double[] fitness;
+
+        Migrants(int size) {
+            this.genomes = new int[size];
+            this.fitness = new double[size];
+        }
     }
-    // Helper to select elements from int[]
-    private static int[] selectElementsInt(int[] data, int[] indices) {
-        int[] subset = new int[indices.length];
-        for (int i = 0; i < indices.length; i++) { subset[i] = data[indices[i]]; }
-        return subset;
+
+    /**
+     * One sub-population of the island model. An island runs on one thread at a time and
+     * owns its Random, so its trajectory depends only on its seed and the migrants it gets.
+     */
+    private final class Island {
+        final int id;
+        final Population population;
+        final double[] generationBest;  // Best fitness per generation of the last epoch
+        final int[] generationGenomes;  // populationSize genomes per generation of the last epoch
+        private final Migrants[] outbox = { new Migrants(migrationSize), new Migrants(migrationSize) }; // Per parity
+        private final boolean[] taken;  // Scratch for picking emigrants / replaced slots
+        private boolean evaluated;
+
+        Island(int id, long seed) {
+            this.id = id;
+            this.population = new Population(new Random(seed));
+            this.generationBest = new double[migrationInterval];
+            this.generationGenomes = new int[migrationInterval * populationSize];
+            this.taken = new boolean[populationSize];
+        }
+
+        /**
+         * Takes in the previous epoch's migrants, then runs {@code generations} generations.
+         * @param inbox Mailbox offset of the previous epoch, or -1 when there is nothing to take in.
+         */
+        void runEpoch(int generations, AtomicReferenceArray<Migrants> mailbox, int inbox) {
+            if (evaluated) {
+                if (inbox >= 0) acceptImmigrants(mailbox, inbox);
+                population.breed();
+            }
+            for (int g = 0; g < generations; g++) {
+                // Islands are the unit of parallelism; individuals are scored in order
+                screen(population);
+                for (int i = 0; i < populationSize; i++) population.fitness[i] = fitnessOf(population.genomes[i]);
+                if (screening != null) screening.record();
+                generationBest[g] = population.fitness[population.updateBest()];
+                System.arraycopy(population.genomes, 0, generationGenomes, g * populationSize, populationSize);
+                if (g < generations - 1) population.breed();
+            }
+            evaluated = true;
+        }
+
+        /** @return This island's best {@code migrationSize} individuals (ties towards smaller k), in the parity's buffer. */
+        Migrants emigrants(int parity) {
+            Migrants out = outbox[parity];
+            Arrays.fill(taken, false);
+            for (int m = 0; m < out.genomes.length; m++) {
+                int pick = -1;
+                for (int i = 0; i < populationSize; i++) {
+                    if (taken[i]) continue;
+                    if (pick < 0 || population.fitness[i] > population.fitness[pick]
+                            || (population.fitness[i] == population.fitness[pick] && population.genomes[i] < population.genomes[pick])) {
+                        pick = i;
+                    }
+                }
+                taken[pick] = true;
+                out.genomes[m] = population.genomes[pick];
+                out.fitness[m] = population.fitness[pick];
+            }
+            return out;
+        }
+
+        /** Replaces the worst individuals with the neighbors' migrants (keeping at least one resident). */
+        private void acceptImmigrants(AtomicReferenceArray<Migrants> mailbox, int inbox) {
+            Arrays.fill(taken, false);
+            int room = populationSize - 1;
+            if ("full".equals(topology)) {
+                for (int source = 0; source < islands && room > 0; source++) {
+                    if (source != id) room = accept(mailbox.get(inbox + source), room);
+                }
+            } else {
+                accept(mailbox.get(inbox + (id + islands - 1) % islands), room);
+            }
+        }
+
+        private int accept(Migrants migrants, int room) {
+            for (int m = 0; m < migrants.genomes.length && room > 0; m++, room--) {
+                int worst = -1;
+                for (int i = 0; i < populationSize; i++) {
+                    if (!taken[i] && (worst < 0 || population.fitness[i] < population.fitness[worst])) worst = i;
+                }
+                taken[worst] = true;
+                population.genomes[worst] = migrants.genomes[m];
+                population.fitness[worst] = migrants.fitness[m];
+                if (migrants.fitness[m] > population.bestFitness) {
+                    population.bestK = migrants.genomes[m];
+                    population.bestFitness = migrants.fitness[m];
+                }
+            }
+            return room;
+        }
     }
-    // -----------------------------
 
-} // End of GeneticAlgorithm class
\ No newline at end of file
+} // End of GeneticAlgorithm class
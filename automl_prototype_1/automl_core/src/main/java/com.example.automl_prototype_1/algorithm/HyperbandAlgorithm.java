@@ -0,0 +1,235 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DenseMatrix;
+import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Multi-fidelity search for the KNN 'k' hyperparameter (same search space as
+ * {@link GeneticAlgorithm}) using successive halving and Hyperband.
+ * <p>
+ * The fidelity of an evaluation is the fraction of the training split used to fit the
+ * model. Successive halving scores a set of candidates on a small subsample, keeps the
+ * best {@code 1/eta} of them, and repeats with {@code eta} times more rows until the
+ * survivors are scored on the full training split. Hyperband runs several such
+ * brackets, from many candidates on tiny subsamples to a few on the full data, so a
+ * bad guess of the right starting fidelity cannot ruin the search.
+ * <p>
+ * Subsamples are nested prefixes of the shuffled training split and all rungs are
+ * scored on the same held-out test split. Each (k, subsample size) pair is evaluated
+ * at most once per run ({@link FitnessCache}), candidates of a rung are scored in
+ * parallel, and the result reports how many full-data evaluations were saved compared
+ * with an exhaustive search over every k.
+ */
+public class HyperbandAlgorithm implements OptimizationAlgorithm {
+
+    private static final String ALGORITHM_NAME = "Hyperband (KNN HyperOpt)";
+
+    // --- Configuration ---
+    private String schedule = "hyperband"; // "hyperband" or "successiveHalving"
+    private double eta = 3.0;              // Keep 1/eta of the candidates per rung; eta times more rows per rung
+    private double minResource = 0.0;      // Smallest training fraction; 0 = derived from maxK and the data size
+    // Per-candidate fits are what multi-fidelity saves; "table" builds one neighbor table per rung instead
+    private String knnEvaluation = "refit";
+    private String neighborSearchType = "auto";
+    private int minK = 1;
+    private int maxK = 20;
+    private Random random = new Random();
+
+    // --- Per-run state ---
+    private DenseMatrix x;
+    private int[] y;
+    private int[] trainIndices;  // Shuffled; subsamples are prefixes
+    private int[] testIndices;
+    private ExecutorService executor;
+    private final Map<Integer, CrossValidationEvaluator> evaluators = new HashMap<>(); // By training rows
+    private FitnessCache<Integer> fitnessCache;
+    private double fullEvaluationEquivalents; // Sum of (rows used / full training rows) over real evaluations
+
+    @Override
+    public String getAlgorithmName() { return ALGORITHM_NAME; }
+
+    @Override
+    public ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration) {
+        System.out.println("--- Executing " + ALGORITHM_NAME + " ---");
+        long startTime = System.currentTimeMillis();
+        applyConfiguration(configuration);
+        executor = AlgorithmConfig.createEvaluationExecutor(configuration);
+        try {
+            return run(features, startTime);
+        } finally {
+            if (executor != null) executor.shutdown();
+            executor = null;
+            evaluators.clear();
+            x = null;
+        }
+    }
+
+    private void applyConfiguration(Map<String, Object> config) {
+        schedule = AlgorithmConfig.getString(config, "schedule", schedule);
+        eta = Math.max(2.0, AlgorithmConfig.getDouble(config, "eta", eta));
+        minResource = AlgorithmConfig.getDouble(config, "minResource", minResource);
+        knnEvaluation = AlgorithmConfig.getString(config, "knnEvaluation", knnEvaluation);
+        neighborSearchType = AlgorithmConfig.getString(config, "neighborSearch", neighborSearchType);
+        minK = Math.max(1, AlgorithmConfig.getInt(config, "minK", minK));
+        maxK = Math.max(minK, AlgorithmConfig.getInt(config, "maxK", maxK));
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+    }
+
+    private ExecutionResult run(FeatureMatrix features, long startTime) {
+        x = features.getMatrix();
+        y = features.getY();
+        int[][][] split = CrossValidationEvaluator.holdoutSplit(y.length, 0.7, random);
+        trainIndices = split[0][0];
+        testIndices = split[1][0];
+        if (trainIndices.length < 2 || testIndices.length == 0) {
+            throw new RuntimeException("Fatal: Dataset too small for a train/test split.");
+        }
+        fitnessCache = new FitnessCache<>();
+        fullEvaluationEquivalents = 0.0;
+
+        int fullRows = trainIndices.length;
+        int upperK = Math.max(minK, Math.min(maxK, fullRows - 1));
+        int spaceSize = upperK - minK + 1;
+        double rMin = (minResource > 0.0) ? Math.min(1.0, minResource)
+                : Math.min(1.0, Math.max(Math.pow(eta, -3), 2.0 * upperK / fullRows)); // Subsamples must fit k
+        System.out.println("Hyperband: k in [" + minK + ", " + upperK + "], " + fullRows + " training rows, eta="
+                + eta + ", min fraction=" + String.format("%.4f", rMin) + ", schedule=" + schedule);
+
+        int[] best = { -1 };
+        double[] bestScore = { Double.NEGATIVE_INFINITY };
+        int brackets;
+        if ("successiveHalving".equalsIgnoreCase(schedule)) {
+            int[] all = new int[spaceSize];
+            for (int i = 0; i < spaceSize; i++) all[i] = minK + i;
+            successiveHalving(all, rMin, best, bestScore);
+            brackets = 1;
+        } else {
+            int sMax = (int) Math.floor(Math.log(1.0 / rMin) / Math.log(eta) + 1e-9);
+            for (int s = sMax; s >= 0; s--) {
+                int n = (int) Math.ceil((sMax + 1) / (double) (s + 1) * Math.pow(eta, s));
+                int[] candidates = sampleCandidates(Math.min(n, spaceSize), upperK);
+                System.out.println("Hyperband: Bracket s=" + s + ": " + candidates.length + " candidates from "
+                        + String.format("%.3f", Math.pow(eta, -s)) + " of the training rows.");
+                successiveHalving(candidates, Math.pow(eta, -s), best, bestScore);
+            }
+            brackets = sMax + 1;
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        double saved = spaceSize - fullEvaluationEquivalents;
+        System.out.printf("Hyperband Finished. Best K = %d, Best Test Accuracy = %.4f (%.1f full-data evaluations vs %d exhaustive)%n",
+                best[0], bestScore[0], fullEvaluationEquivalents, spaceSize);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("schedule", schedule);
+        metrics.put("brackets", brackets);
+        metrics.put("modelEvaluations", fitnessCache.getMisses());
+        metrics.put("fitnessCacheHits", fitnessCache.getHits());
+        metrics.put("fullEvaluationEquivalents", AlgorithmConfig.round(fullEvaluationEquivalents, 2));
+        metrics.put("exhaustiveEvaluations", spaceSize);
+        metrics.put("evaluationsSaved", AlgorithmConfig.round(saved, 2));
+        metrics.put("evaluationsSavedPercent", AlgorithmConfig.round(100.0 * saved / spaceSize, 1));
+        return new ExecutionResult(ALGORITHM_NAME + " (Best K=" + best[0] + ")",
+                AlgorithmConfig.round(bestScore[0], 4), Double.NaN, Double.NaN, duration, metrics);
+    }
+
+    /**
+     * One successive-halving bracket: score, keep the top 1/eta, grow the subsample,
+     * until the survivors have been scored on the full training split.
+     */
+    private void successiveHalving(int[] candidates, double startFraction, int[] best, double[] bestScore) {
+        double fraction = startFraction;
+        int[] alive = candidates;
+        while (true) {
+            int rows = rowsFor(fraction);
+            double[] scores = scoreAll(alive, rows);
+            if (rows >= trainIndices.length) { // Full fidelity: these scores are final
+                for (int i = 0; i < alive.length; i++) {
+                    if (scores[i] > bestScore[0] || (scores[i] == bestScore[0] && alive[i] < best[0])) {
+                        bestScore[0] = scores[i];
+                        best[0] = alive[i];
+                    }
+                }
+                return;
+            }
+            int keep = Math.max(1, (int) Math.floor(alive.length / eta));
+            alive = topCandidates(alive, scores, keep);
+            fraction = (keep == 1) ? 1.0 : Math.min(1.0, fraction * eta); // A lone survivor goes straight to full data
+        }
+    }
+
+    private int rowsFor(double fraction) {
+        int full = trainIndices.length;
+        return (fraction >= 1.0) ? full : Math.max(Math.min(full, maxK + 1), (int) Math.round(fraction * full));
+    }
+
+    /** Scores candidates on the first {@code rows} training rows, in parallel when an executor is configured. */
+    private double[] scoreAll(int[] candidates, int rows) {
+        CrossValidationEvaluator evaluator = evaluatorFor(rows);
+        double[] scores = new double[candidates.length];
+        if (executor == null) {
+            for (int i = 0; i < candidates.length; i++) scores[i] = score(evaluator, candidates[i], rows);
+            return scores;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(candidates.length);
+        for (int i = 0; i < candidates.length; i++) {
+            int index = i;
+            tasks.add(() -> { scores[index] = score(evaluator, candidates[index], rows); return null; });
+        }
+        AlgorithmConfig.runTasks(tasks, executor, "Hyperband evaluation");
+        return scores;
+    }
+
+    private double score(CrossValidationEvaluator evaluator, int k, int rows) {
+        int clamped = Math.max(1, Math.min(k, rows - 1));
+        return fitnessCache.getOrCompute(evaluator.getSplitId(), clamped, kk -> {
+            synchronized (this) {
+                fullEvaluationEquivalents += rows / (double) trainIndices.length;
+            }
+            return evaluator.score(kk).getMean();
+        });
+    }
+
+    private CrossValidationEvaluator evaluatorFor(int rows) {
+        return evaluators.computeIfAbsent(rows, r -> new CrossValidationEvaluator(x, y,
+                new int[][] { Arrays.copyOf(trainIndices, r) }, new int[][] { testIndices },
+                "table".equalsIgnoreCase(knnEvaluation), neighborSearchType, maxK, executor));
+    }
+
+    /** @return The {@code keep} best candidates (ties towards smaller k). */
+    private static int[] topCandidates(int[] candidates, double[] scores, int keep) {
+        Integer[] order = new Integer[candidates.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b]
+                ? Double.compare(scores[b], scores[a]) : Integer.compare(candidates[a], candidates[b]));
+        int[] result = new int[keep];
+        for (int i = 0; i < keep; i++) result[i] = candidates[order[i]];
+        return result;
+    }
+
+    /** @return {@code n} distinct k values drawn uniformly from [minK, upperK]. */
+    private int[] sampleCandidates(int n, int upperK) {
+        int[] space = new int[upperK - minK + 1];
+        for (int i = 0; i < space.length; i++) space[i] = minK + i;
+        for (int i = 0; i < n; i++) { // Partial Fisher-Yates shuffle
+            int j = i + random.nextInt(space.length - i);
+            int tmp = space[i];
+            space[i] = space[j];
+            space[j] = tmp;
+        }
+        return Arrays.copyOf(space, n);
+    }
+}
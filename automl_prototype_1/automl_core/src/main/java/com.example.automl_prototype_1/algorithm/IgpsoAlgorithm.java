@@ -0,0 +1,283 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DenseMatrix;
+import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Improved global-best particle swarm optimization (IGPSO) of KNN hyperparameters:
+ * the integer 'k' (same range and validation folds as {@link GeneticAlgorithm}) and the
+ * continuous exponent of inverse-distance vote weighting (0 = plain majority vote; see
+ * {@link KnnNeighborTable#weightedAccuracy}). Set {@code weighting=false} to search k only.
+ * <p>
+ * Improvements over the canonical global-best PSO:
+ * <ul>
+ *   <li>Inertia decreases linearly from {@code inertiaStart} to {@code inertiaEnd}.</li>
+ *   <li>Time-varying acceleration: the pull towards a particle's own best shrinks from
+ *       2.5 to 0.5 while the pull towards the swarm's best grows from 0.5 to 2.5, moving
+ *       the swarm from exploration to exploitation.</li>
+ *   <li>When the global best has not improved for {@code mutationPatience} iterations it
+ *       is perturbed with Gaussian noise (shrinking over the run) and the mutant replaces
+ *       it if better, to escape stagnation.</li>
+ * </ul>
+ * Positions, velocities and personal bests are flat {@code double[]} arrays
+ * ({@code particle * dimensions + dimension}). Particles are scored in parallel through
+ * the shared fitness cache of a {@link KnnHyperparameterSpace} (positions are rounded to
+ * its grid first, so nearby positions share an entry), then all velocities
+ * are updated in one batch from random numbers drawn up front, so a seeded run is
+ * reproducible regardless of the thread count.
+ */
+public class IgpsoAlgorithm implements ScreenableSearch {
+
+    private static final String ALGORITHM_NAME = "IGPSO (KNN HyperOpt)";
+    private static final double C_HIGH = 2.5;   // Time-varying acceleration bounds
+    private static final double C_LOW = 0.5;
+
+    // --- Configuration ---
+    private int particles = 20;
+    private int maxIterations = 40;
+    private double inertiaStart = 0.9;
+    private double inertiaEnd = 0.4;
+    private double maxVelocity = 0.2;           // Fraction of each dimension's range
+    private int mutationPatience = 3;           // Iterations without improvement before mutating the global best
+    private boolean weighting = true;
+    private double maxWeightPower = 4.0;
+    private double weightResolution = 0.05;
+    private String neighborSearchType = "auto";
+    private String validation = "stratified";
+    private int folds = 5;
+    private int minK = 1;
+    private int maxK = 20;
+    private Random random = new Random();
+    private ConvergenceCriteria convergence;
+    private PerformancePredictor predictor; // Screens new candidates when wrapped by NNP
+
+    // --- Per-run state ---
+    private KnnHyperparameterSpace space;
+    private int dims;
+
+    @Override
+    public String getAlgorithmName() { return ALGORITHM_NAME; }
+
+    @Override
+    public void setPerformancePredictor(PerformancePredictor predictor) { this.predictor = predictor; }
+
+    @Override
+    public ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration) {
+        System.out.println("--- Executing " + ALGORITHM_NAME + " ---");
+        long startTime = System.currentTimeMillis();
+        applyConfiguration(configuration);
+        ExecutorService executor = AlgorithmConfig.createEvaluationExecutor(configuration);
+        try {
+            return run(features, executor, startTime);
+        } finally {
+            if (executor != null) executor.shutdown();
+            space = null;
+        }
+    }
+
+    private void applyConfiguration(Map<String, Object> config) {
+        particles = Math.max(2, AlgorithmConfig.getInt(config, "particles", particles));
+        maxIterations = Math.max(1, AlgorithmConfig.getInt(config, "maxIterations", maxIterations));
+        inertiaStart = AlgorithmConfig.getDouble(config, "inertiaStart", inertiaStart);
+        inertiaEnd = AlgorithmConfig.getDouble(config, "inertiaEnd", inertiaEnd);
+        maxVelocity = Math.max(0.01, AlgorithmConfig.getDouble(config, "maxVelocity", maxVelocity));
+        mutationPatience = Math.max(0, AlgorithmConfig.getInt(config, "mutationPatience", mutationPatience));
+        weighting = AlgorithmConfig.getBoolean(config, "weighting", weighting);
+        maxWeightPower = Math.max(0.0, AlgorithmConfig.getDouble(config, "maxWeightPower", maxWeightPower));
+        weightResolution = Math.max(1e-6, AlgorithmConfig.getDouble(config, "weightResolution", weightResolution));
+        neighborSearchType = AlgorithmConfig.getString(config, "neighborSearch", neighborSearchType);
+        validation = AlgorithmConfig.getValidation(config, validation, "IGPSO");
+        folds = Math.max(2, AlgorithmConfig.getInt(config, "folds", folds));
+        minK = Math.max(1, AlgorithmConfig.getInt(config, "minK", minK));
+        maxK = Math.max(minK, AlgorithmConfig.getInt(config, "maxK", maxK));
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+        convergence = ConvergenceCriteria.fromConfig(config);
+    }
+
+    private ExecutionResult run(FeatureMatrix features, ExecutorService executor, long startTime) {
+        DenseMatrix x = features.getMatrix();
+        int[] y = features.getY();
+        int[][][] splits = CrossValidationEvaluator.splitsFor(validation, y, folds, random);
+        // Weighted votes are read from the neighbor tables, so IGPSO always uses "table" mode
+        CrossValidationEvaluator evaluator = new CrossValidationEvaluator(x, y, splits[0], splits[1], true,
+                neighborSearchType, maxK, executor);
+        space = new KnnHyperparameterSpace(evaluator, minK, maxK, weighting, maxWeightPower, weightResolution);
+        space.setPerformancePredictor(predictor);
+        dims = space.dims();
+        System.out.println("IGPSO: " + particles + " particles over " + space.describe() + " with "
+                + CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()) + ".");
+
+        int n = particles * dims;
+        double[] position = new double[n];
+        double[] velocity = new double[n];
+        double[] personalBest = new double[n];
+        double[] personalBestFitness = new double[particles];
+        double[] fitness = new double[particles];
+        double[] globalBest = new double[dims];
+        double[] r1 = new double[n]; // Random coefficients drawn per batch
+        double[] r2 = new double[n];
+        double[] vMax = new double[dims];
+        double[] mutant = new double[dims];
+        int[] cells = new int[particles]; // Diversity scratch
+        for (int d = 0; d < dims; d++) vMax[d] = maxVelocity * space.range(d);
+        for (int p = 0; p < particles; p++) {
+            for (int d = 0; d < dims; d++) {
+                int i = p * dims + d;
+                position[i] = space.lower(d) + random.nextDouble() * space.range(d);
+                velocity[i] = (2.0 * random.nextDouble() - 1.0) * vMax[d];
+            }
+        }
+        Arrays.fill(personalBestFitness, Double.NEGATIVE_INFINITY);
+        double globalBestFitness = Double.NEGATIVE_INFINITY;
+        List<Callable<Void>> tasks = createEvaluationTasks(position, fitness);
+
+        ConvergenceCriteria.StopReason stopReason = ConvergenceCriteria.StopReason.MAX_ITERATIONS;
+        int iterationsRun = 0;
+        int sinceImprovement = 0;
+        int mutations = 0;
+        int mutationsAccepted = 0;
+        long candidateEvaluations = 0;
+        long evaluationNanos = 0;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            long evalStart = System.nanoTime();
+            space.screen(position, particles);
+            AlgorithmConfig.runTasks(tasks, executor, "IGPSO fitness evaluation");
+            space.recordScreened();
+            evaluationNanos += System.nanoTime() - evalStart;
+            candidateEvaluations += particles;
+            iterationsRun++;
+
+            boolean improved = false;
+            for (int p = 0; p < particles; p++) {
+                int offset = p * dims;
+                if (fitness[p] > personalBestFitness[p]) {
+                    personalBestFitness[p] = fitness[p];
+                    System.arraycopy(position, offset, personalBest, offset, dims);
+                }
+                if (fitness[p] > globalBestFitness) {
+                    globalBestFitness = fitness[p];
+                    System.arraycopy(position, offset, globalBest, 0, dims);
+                    improved = true;
+                }
+                cells[p] = space.cell(position, offset);
+            }
+            sinceImprovement = improved ? 0 : sinceImprovement + 1;
+            double progress = iteration / (double) Math.max(1, maxIterations - 1);
+
+            // Gaussian mutation of a stagnating global best
+            if (mutationPatience > 0 && sinceImprovement >= mutationPatience) {
+                double sigma = 0.1 * (1.0 - progress) + 0.01;
+                for (int d = 0; d < dims; d++) {
+                    mutant[d] = space.clamp(globalBest[d] + random.nextGaussian() * sigma * space.range(d), d);
+                }
+                long evalStartMutant = System.nanoTime();
+                space.screen(mutant, 1);
+                double mutantFitness = space.fitness(mutant, 0);
+                space.recordScreened();
+                evaluationNanos += System.nanoTime() - evalStartMutant;
+                candidateEvaluations++;
+                mutations++;
+                if (mutantFitness > globalBestFitness) {
+                    globalBestFitness = mutantFitness;
+                    System.arraycopy(mutant, 0, globalBest, 0, dims);
+                    mutationsAccepted++;
+                }
+                sinceImprovement = 0;
+            }
+
+            System.out.printf("IGPSO Iter %d/%d: Best %s = %.4f, Best %s%n", iteration + 1, maxIterations,
+                    CrossValidationEvaluator.accuracyLabel(validation), globalBestFitness, space.label(space.cell(globalBest, 0)));
+            ConvergenceCriteria.StopReason fired = convergence.check(globalBestFitness,
+                    ConvergenceCriteria.diversity(cells, particles), System.currentTimeMillis() - startTime,
+                    space.getModelEvaluations());
+            if (fired != null) {
+                stopReason = fired;
+                System.out.printf("IGPSO: Stopping after iteration %d/%d (%s).%n", iteration + 1, maxIterations, fired.getKey());
+                break;
+            }
+            if (iteration + 1 < maxIterations) {
+                double inertia = inertiaStart - (inertiaStart - inertiaEnd) * progress;
+                double c1 = C_HIGH - (C_HIGH - C_LOW) * progress;
+                double c2 = C_LOW + (C_HIGH - C_LOW) * progress;
+                for (int i = 0; i < n; i++) {
+                    r1[i] = random.nextDouble();
+                    r2[i] = random.nextDouble();
+                }
+                moveSwarm(position, velocity, personalBest, globalBest, r1, r2, vMax, inertia, c1, c2);
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        int best = space.cell(globalBest, 0);
+        long modelEvaluations = space.getModelEvaluations();
+        double evalSeconds = Math.max(1e-9, evaluationNanos / 1e9);
+        System.out.printf("IGPSO Finished. Best %s, Best %s = %.4f (%.1f model evaluations/s)%n",
+                space.label(best), CrossValidationEvaluator.accuracyLabel(validation), globalBestFitness, modelEvaluations / evalSeconds);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("bestK", space.k(best));
+        if (space.isWeighted()) metrics.put("bestWeightPower", AlgorithmConfig.round(space.weightPower(best), 4));
+        metrics.put("iterationsRun", iterationsRun);
+        metrics.put("stopReason", stopReason.getKey());
+        metrics.put("candidateEvaluations", candidateEvaluations);
+        metrics.put("modelEvaluations", modelEvaluations);
+        metrics.put("fitnessCacheHits", space.getCacheHits());
+        metrics.put("evaluationsPerSecond", AlgorithmConfig.round(modelEvaluations / evalSeconds, 1));
+        metrics.put("candidatesPerSecond", AlgorithmConfig.round(candidateEvaluations / evalSeconds, 1));
+        metrics.put("globalBestMutations", mutations);
+        metrics.put("globalBestMutationsAccepted", mutationsAccepted);
+        metrics.put("validation", CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()));
+        metrics.put("cvAccuracyVariance", AlgorithmConfig.round(evaluator.score(space.k(best), space.weightPower(best)).getVariance(), 6));
+        metrics.put("foldBuildMs", evaluator.getBuildTimeMs());
+        return new ExecutionResult(ALGORITHM_NAME + " (Best " + space.label(best) + ")",
+                AlgorithmConfig.round(globalBestFitness, 4), Double.NaN, Double.NaN, duration, metrics);
+    }
+
+    /**
+     * Velocity and position update of the whole swarm in one pass over the flat arrays.
+     * Positions leaving the search box are clamped to it and lose that velocity component.
+     */
+    private void moveSwarm(double[] position, double[] velocity, double[] personalBest, double[] globalBest,
+                           double[] r1, double[] r2, double[] vMax, double inertia, double c1, double c2) {
+        for (int p = 0, i = 0; p < particles; p++) {
+            for (int d = 0; d < dims; d++, i++) {
+                double v = inertia * velocity[i]
+                        + c1 * r1[i] * (personalBest[i] - position[i])
+                        + c2 * r2[i] * (globalBest[d] - position[i]);
+                v = Math.max(-vMax[d], Math.min(vMax[d], v));
+                double next = position[i] + v;
+                if (!space.contains(next, d)) {
+                    next = space.clamp(next, d);
+                    v = 0.0;
+                }
+                velocity[i] = v;
+                position[i] = next;
+            }
+        }
+    }
+
+    /** One task per particle, built once; each scores the particle's current position. */
+    private List<Callable<Void>> createEvaluationTasks(double[] position, double[] fitness) {
+        List<Callable<Void>> tasks = new ArrayList<>(particles);
+        for (int p = 0; p < particles; p++) {
+            int particle = p;
+            tasks.add(() -> {
+                fitness[particle] = space.fitness(position, particle * dims);
+                return null;
+            });
+        }
+        return tasks;
+    }
+}
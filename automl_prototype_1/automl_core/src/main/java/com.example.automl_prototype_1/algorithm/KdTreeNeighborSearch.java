@@ -0,0 +1,107 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+/**
+ * KD-tree neighbor search for low-dimensional data.
+ * <p>
+ * Each node splits its rows at the median of the dimension with the largest spread.
+ * Queries descend towards the query point first and only visit the far side of a
+ * split when the splitting plane is closer than the current k-th neighbor.
+ * Nodes are stored in flat primitive arrays, and the rows are copied once in leaf
+ * order so scanning a leaf reads one contiguous block. The tree is immutable after
+ * construction, so concurrent queries are safe.
+ */
+public class KdTreeNeighborSearch implements NeighborSearch {
+
+    private static final int LEAF_SIZE = 16;
+
+    private final DistanceKernel kernel;
+    private final int[] order;        // Leaf position -> original row index
+    private final DenseMatrix points; // Rows copied in leaf order (row i = original row order[i])
+    private final int dims;
+
+    // Node arrays (index = node id); leaves have left == -1
+    private final int[] start;
+    private final int[] end;
+    private final int[] splitDim;
+    private final double[] splitValue;
+    private final int[] left;
+    private final int[] right;
+    private int nodeCount = 0;
+
+    /** @param data Training rows (copied in leaf order). */
+    public KdTreeNeighborSearch(DenseMatrix data) {
+        this(data, DistanceKernel.getDefault());
+    }
+
+    /**
+     * @param data Training rows (copied in leaf order).
+     * @param kernel Distance kernel for row comparisons.
+     */
+    public KdTreeNeighborSearch(DenseMatrix data, DistanceKernel kernel) {
+        this.kernel = kernel;
+        this.dims = data.getNumCols();
+        int n = data.getNumRows();
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        int maxNodes = 2 * (n / (LEAF_SIZE / 2) + 1); // Median splits keep leaves >= LEAF_SIZE / 2 rows
+        start = new int[maxNodes];
+        end = new int[maxNodes];
+        splitDim = new int[maxNodes];
+        splitValue = new double[maxNodes];
+        left = new int[maxNodes];
+        right = new int[maxNodes];
+        if (n > 0) build(data, 0, n);
+        this.points = data.view(order).compact();
+    }
+
+    private int build(DenseMatrix data, int from, int to) {
+        int node = nodeCount++;
+        start[node] = from;
+        end[node] = to;
+        left[node] = -1;
+        right[node] = -1;
+        if (to - from <= LEAF_SIZE) return node;
+
+        int dim = TreeBuildUtil.widestDimension(data, order, from, to);
+        int mid = (from + to) >>> 1;
+        TreeBuildUtil.select(data, order, from, to - 1, mid, dim);
+        splitDim[node] = dim;
+        splitValue[node] = data.get(order[mid], dim);
+        left[node] = build(data, from, mid);
+        right[node] = build(data, mid, to);
+        return node;
+    }
+
+    @Override
+    public int search(double[] query, int queryOffset, int k, int[] indices, double[] distances) {
+        if (k <= 0 || order.length == 0) return 0;
+        NeighborList best = new NeighborList(Math.min(k, order.length), indices, distances);
+        search(0, query, queryOffset, best);
+        return best.size();
+    }
+
+    private void search(int node, double[] query, int queryOffset, NeighborList best) {
+        if (left[node] < 0) {
+            double[] values = points.getData();
+            for (int i = start[node]; i < end[node]; i++) {
+                double d = kernel.squaredEuclidean(query, queryOffset, values, i * dims, dims);
+                if (d <= best.worstDistance()) best.offer(d, order[i]);
+            }
+            return;
+        }
+        double diff = query[queryOffset + splitDim[node]] - splitValue[node];
+        int near = (diff < 0) ? left[node] : right[node];
+        int far = (diff < 0) ? right[node] : left[node];
+        search(near, query, queryOffset, best);
+        // Equal distance may still win on index, so only prune strictly farther planes
+        if (diff * diff <= best.worstDistance()) search(far, query, queryOffset, best);
+    }
+
+    @Override
+    public int size() { return order.length; }
+
+    @Override
+    public String getName() { return "kd-tree"; }
+}
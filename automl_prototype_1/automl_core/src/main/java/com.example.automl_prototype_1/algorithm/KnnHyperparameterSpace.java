@@ -0,0 +1,184 @@
+package com.example.automl_prototype_1.algorithm;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Continuous search box over KNN hyperparameters for real-valued metaheuristics
+ * (PSO, WWO, ASO, ...): dimension {@link #K} is the number of neighbors, dimension
+ * {@link #WEIGHT_POWER} (optional) the exponent of inverse-distance vote weighting
+ * (see {@link KnnNeighborTable#weightedAccuracy}).
+ * <p>
+ * A position is rounded to a grid cell: the nearest k, and the weight exponent in whole
+ * {@code resolution} steps. Cell fitness goes through the shared {@link FitnessCache}
+ * (keyed by cell) on the first visit and is then read from a per-cell memo, so a search
+ * loop that revisits cells allocates nothing. With a {@link PerformancePredictor} set,
+ * the first visits of a batch are screened by {@link #screen} on the coordinating thread
+ * before the batch runs and may be answered by a prediction, which is not memoized; the
+ * real scores are handed to the predictor by {@link #recordScreened} afterwards (see
+ * {@link ScreeningBatch}). Fitness lookups are thread-safe.
+ */
+final class KnnHyperparameterSpace {
+
+    /** Dimension holding k. */
+    static final int K = 0;
+    /** Dimension holding the vote weight exponent (when weighting is on). */
+    static final int WEIGHT_POWER = 1;
+
+    private static final int MAX_WEIGHT_LEVELS = 4096;
+    private static final long UNSCORED = 0xfff8deadbeef0001L; // A NaN payload no evaluation produces
+
+    private final CrossValidationEvaluator evaluator;
+    private final FitnessCache<Integer> fitnessCache = new FitnessCache<>();
+    private final AtomicLongArray memo; // Fitness bits per cell, UNSCORED until evaluated
+    private final LongAdder memoHits = new LongAdder();
+    private final int lowK;
+    private final int highK;
+    private final int weightLevels;     // 1 when weighting is off
+    private final double resolution;
+    private final double[] lower;
+    private final double[] upper;
+    private ScreeningBatch<Integer> screening; // null without a predictor
+
+    /**
+     * @param evaluator Folds to score on; must be in "table" mode to use weighting.
+     * @param minK Smallest k.
+     * @param maxK Largest k (clamped to the folds and tables).
+     * @param weighting True to add the vote weight dimension.
+     * @param maxWeightPower Upper bound of the weight exponent.
+     * @param resolution Grid step of the weight exponent.
+     */
+    KnnHyperparameterSpace(CrossValidationEvaluator evaluator, int minK, int maxK, boolean weighting,
+                           double maxWeightPower, double resolution) {
+        this.evaluator = evaluator;
+        int limit = evaluator.getMinTrainRows() - 1; // k must be < N
+        if (evaluator.getTableMaxK() > 0) limit = Math.min(limit, evaluator.getTableMaxK());
+        this.highK = Math.max(1, Math.min(maxK, limit));
+        this.lowK = Math.max(1, Math.min(minK, highK));
+        this.resolution = Math.max(resolution, maxWeightPower / (MAX_WEIGHT_LEVELS - 1));
+        this.weightLevels = weighting ? (int) Math.floor(maxWeightPower / this.resolution + 1e-9) + 1 : 1;
+        int dims = weighting ? 2 : 1;
+        this.lower = new double[dims];
+        this.upper = new double[dims];
+        lower[K] = lowK - 0.49; // Every k gets the same share of the continuous range
+        upper[K] = highK + 0.49;
+        if (weighting) upper[WEIGHT_POWER] = (weightLevels - 1) * this.resolution;
+        this.memo = new AtomicLongArray((highK - lowK + 1) * weightLevels);
+        for (int i = 0; i < memo.length(); i++) memo.set(i, UNSCORED);
+    }
+
+    /** Screens first visits with {@code predictor} (null to evaluate every cell). */
+    void setPerformancePredictor(PerformancePredictor predictor) {
+        this.screening = (predictor != null) ? new ScreeningBatch<>(predictor) : null;
+    }
+
+    /**
+     * Screens the cells of positions [0, count) not evaluated yet, in order. Call on the
+     * coordinating thread before their fitness lookups run, then {@link #recordScreened}.
+     * @param positions Positions, {@link #dims()} values each.
+     * @param count Number of positions in the batch.
+     */
+    void screen(double[] positions, int count) {
+        if (screening == null) return;
+        long splitId = evaluator.getSplitId();
+        for (int slot = 0; slot < count; slot++) {
+            int cell = cell(positions, slot * dims());
+            if (memo.get(cell) == UNSCORED && !fitnessCache.contains(splitId, cell)) screening.screen(cell, encode(cell));
+        }
+    }
+
+    /** Hands the real scores of the batch screened last to the predictor, in slot order. */
+    void recordScreened() {
+        if (screening != null) screening.record();
+    }
+
+    /** @return Number of dimensions (1 for k only, 2 with weighting). */
+    int dims() { return lower.length; }
+
+    double lower(int d) { return lower[d]; }
+
+    double upper(int d) { return upper[d]; }
+
+    /** @return Width of dimension {@code d}. */
+    double range(int d) { return upper[d] - lower[d]; }
+
+    /** @return {@code value} clamped to dimension {@code d}. */
+    double clamp(double value, int d) { return Math.max(lower[d], Math.min(upper[d], value)); }
+
+    /** @return True if {@code value} lies inside dimension {@code d}. */
+    boolean contains(double value, int d) { return value >= lower[d] && value <= upper[d]; }
+
+    /** @return The grid cell of the position at {@code position[offset..offset + dims())}. */
+    int cell(double[] position, int offset) {
+        int k = (int) Math.round(clamp(position[offset + K], K));
+        int steps = (weightLevels > 1) ? (int) Math.round(clamp(position[offset + WEIGHT_POWER], WEIGHT_POWER) / resolution) : 0;
+        return (k - lowK) * weightLevels + steps;
+    }
+
+    /** @return The k of a cell. */
+    int k(int cell) { return lowK + cell / weightLevels; }
+
+    /** @return The vote weight exponent of a cell (0 without weighting). */
+    double weightPower(int cell) { return (cell % weightLevels) * resolution; }
+
+    /** @return Number of grid cells (distinct candidates). */
+    int size() { return memo.length(); }
+
+    /** @return True if the weight exponent is searched. */
+    boolean isWeighted() { return weightLevels > 1; }
+
+    /**
+     * Mean fold accuracy of a cell: memo read when seen before, otherwise scored once
+     * through the fitness cache (or predicted, when {@link #screen} screened the cell out).
+     */
+    double fitness(int cell) {
+        long bits = memo.get(cell);
+        if (bits != UNSCORED) {
+            memoHits.increment();
+            return Double.longBitsToDouble(bits);
+        }
+        long splitId = evaluator.getSplitId();
+        ScreeningBatch<Integer> batch = screening;
+        double fitness;
+        if (batch == null) {
+            fitness = fitnessCache.getOrCompute(splitId, cell, c -> evaluator.score(k(c), weightPower(c)).getMean());
+        } else {
+            double predicted = batch.prediction(cell);
+            if (!Double.isNaN(predicted)) return predicted;
+            fitness = fitnessCache.getOrCompute(splitId, cell, c -> {
+                double score = evaluator.score(k(c), weightPower(c)).getMean();
+                batch.evaluated(c, score);
+                return score;
+            });
+        }
+        memo.set(cell, Double.doubleToRawLongBits(fitness));
+        return fitness;
+    }
+
+    /** @return A cell as predictor inputs in [0, 1]: k, then the weight exponent if searched. */
+    private double[] encode(int cell) {
+        double[] input = new double[isWeighted() ? 2 : 1];
+        input[K] = (highK > lowK) ? (k(cell) - lowK) / (double) (highK - lowK) : 0.0;
+        if (isWeighted()) input[WEIGHT_POWER] = (cell % weightLevels) / (double) (weightLevels - 1);
+        return input;
+    }
+
+    /** @return Fitness of the cell of a position. */
+    double fitness(double[] position, int offset) { return fitness(cell(position, offset)); }
+
+    /** @return Real model evaluations so far (fitness cache misses). */
+    long getModelEvaluations() { return fitnessCache.getMisses(); }
+
+    /** @return Lookups answered without a model evaluation (memo plus cache hits). */
+    long getCacheHits() { return fitnessCache.getHits() + memoHits.sum(); }
+
+    /** @return The box for log lines, e.g. "k in [1, 20] and vote weight exponent in [0, 4.0]". */
+    String describe() {
+        return "k in [" + lowK + ", " + highK + "]" + (isWeighted() ? " and vote weight exponent in [0, " + upper[WEIGHT_POWER] + "]" : "");
+    }
+
+    /** @return The hyperparameters of a cell for result names, e.g. "K=7, p=1.25". */
+    String label(int cell) {
+        return isWeighted() ? String.format("K=%d, p=%.2f", k(cell), weightPower(cell)) : "K=" + k(cell);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates KNN accuracy for every k in [1, maxK] from one neighbor search.
+ * <p>
+ * For each test row the labels of its {@code maxK} nearest training rows are found
+ * once and stored in distance order. A single voting sweep over that table then
+ * yields the test accuracy of every k, so a k-search (GA, PSO, ...) can look up
+ * fitness in O(1) instead of refitting and re-predicting a KNN model per candidate.
+ * <p>
+ * Voting matches Smile's KNN: majority vote among the k nearest neighbors, ties
+ * broken towards the smallest class label. {@link #weightedAccuracy(int, double)} instead
+ * weights each neighbor's vote by an inverse power of its distance, from the neighbor
+ * distances kept next to the labels. Neighbors come from a {@link NeighborSearch}
+ * index built once per train split (KD-tree, ball tree, blocked or brute force), queried
+ * in blocks of test rows.
+ */
+public class KnnNeighborTable {
+
+    /** Test rows handled per parallel task while building the table. */
+    private static final int ROWS_PER_TASK = 256;
+
+    /** Per-thread class vote sums for {@link #weightedAccuracy}, grown to the largest class count seen. */
+    private static final ThreadLocal<double[]> VOTES = ThreadLocal.withInitial(() -> new double[0]);
+
+    private final int maxK;
+    private final int numTest;
+    private final int[] neighborLabels; // [testRow * maxK + rank] -> class index, nearest first
+    private final double[] neighborDistances; // Same layout: Euclidean distance of that neighbor
+    private final int[] testClass;      // Test row -> class index, < 0 if not a training class
+    private final int numClasses;
+    private final double[] accuracyByK; // [k] -> accuracy, index 0 unused
+    private final long buildTimeMs;
+
+    /**
+     * Builds the neighbor table and the accuracy of every k.
+     * @param trainIndex Neighbor search over the training feature rows.
+     * @param yTrain Training labels (same row order as the index).
+     * @param xTest Test feature rows.
+     * @param yTest Test labels.
+     * @param maxK Largest k to support (clamped to the number of training rows).
+     * @param executor Executor for building rows in parallel, or null to build sequentially.
+     */
+    public KnnNeighborTable(NeighborSearch trainIndex, int[] yTrain, DenseMatrix xTest, int[] yTest,
+                            int maxK, ExecutorService executor) {
+        long startTime = System.currentTimeMillis();
+        if (trainIndex.size() == 0 || xTest.getNumRows() == 0) {
+            throw new IllegalArgumentException("KNN neighbor table needs non-empty train and test data.");
+        }
+        this.maxK = Math.max(1, Math.min(maxK, trainIndex.size()));
+        this.numTest = xTest.getNumRows();
+
+        // Encode labels as class indices in ascending label order (same order Smile uses for tie-breaking)
+        int[] classes = Arrays.stream(yTrain).distinct().sorted().toArray();
+        int[] trainClass = new int[yTrain.length];
+        for (int i = 0; i < yTrain.length; i++) trainClass[i] = Arrays.binarySearch(classes, yTrain[i]);
+        this.testClass = new int[yTest.length];
+        for (int i = 0; i < yTest.length; i++) testClass[i] = Arrays.binarySearch(classes, yTest[i]); // < 0 if unseen
+        this.numClasses = classes.length;
+
+        this.neighborLabels = new int[numTest * this.maxK];
+        this.neighborDistances = new double[numTest * this.maxK];
+        buildNeighborLabels(trainIndex, trainClass, xTest, executor);
+        this.accuracyByK = sweepAccuracies(testClass, classes.length);
+        this.buildTimeMs = System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Gets the test accuracy of KNN with the given k.
+     * @param k Number of neighbors, in [1, {@link #getMaxK()}].
+     * @return The accuracy in [0, 1].
+     */
+    public double accuracy(int k) {
+        if (k < 1 || k > maxK) {
+            throw new IllegalArgumentException("k=" + k + " is outside the table range [1, " + maxK + "]");
+        }
+        return accuracyByK[k];
+    }
+
+    /**
+     * Gets the test accuracy of distance-weighted KNN: each of the k nearest neighbors
+     * votes with weight 1 / distance^power, and the heaviest class wins, ties towards the
+     * smallest label. Weights are capped at Double.MAX_VALUE / k, so exact matches and
+     * distances small enough to overflow the power vote alike and outvote everything
+     * else without the sums reaching infinity. Power 0 is the plain
+     * majority vote of {@link #accuracy(int)}. Costs one pass over k neighbors per test
+     * row; thread-safe.
+     * @param k Number of neighbors, in [1, {@link #getMaxK()}].
+     * @param power Distance exponent, >= 0.
+     * @return The accuracy in [0, 1].
+     */
+    public double weightedAccuracy(int k, double power) {
+        if (power == 0.0) return accuracy(k);
+        if (k < 1 || k > maxK) {
+            throw new IllegalArgumentException("k=" + k + " is outside the table range [1, " + maxK + "]");
+        }
+        double[] votes = VOTES.get();
+        if (votes.length < numClasses) {
+            votes = new double[numClasses];
+            VOTES.set(votes);
+        }
+        double maxWeight = Double.MAX_VALUE / k; // pow gives +Infinity for 0 and for tiny distances
+        long correct = 0;
+        for (int t = 0; t < numTest; t++) {
+            Arrays.fill(votes, 0, numClasses, 0.0);
+            int base = t * maxK;
+            for (int r = 0; r < k; r++) {
+                votes[neighborLabels[base + r]] += Math.min(Math.pow(neighborDistances[base + r], -power), maxWeight);
+            }
+            int best = 0;
+            for (int c = 1; c < numClasses; c++) {
+                if (votes[c] > votes[best]) best = c;
+            }
+            if (best == testClass[t]) correct++;
+        }
+        return (double) correct / numTest;
+    }
+
+    /** @return The largest k available. */
+    public int getMaxK() { return maxK; }
+
+    /** @return Time spent building the table and the accuracy sweep, in milliseconds. */
+    public long getBuildTimeMs() { return buildTimeMs; }
+
+    // --- Construction ---
+
+    private void buildNeighborLabels(NeighborSearch trainIndex, int[] trainClass, DenseMatrix xTest, ExecutorService executor) {
+        if (executor == null) {
+            fillRows(0, numTest, trainIndex, trainClass, xTest);
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int start = 0; start < numTest; start += ROWS_PER_TASK) {
+            int from = start;
+            int to = Math.min(numTest, start + ROWS_PER_TASK);
+            tasks.add(() -> { fillRows(from, to, trainIndex, trainClass, xTest); return null; });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("KNN neighbor table build interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("KNN neighbor table build failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /** Looks up the maxK nearest training rows for test rows [from, to) as one batch and stores their classes. */
+    private void fillRows(int from, int to, NeighborSearch trainIndex, int[] trainClass, DenseMatrix xTest) {
+        int[] neighbors = new int[(to - from) * maxK];
+        double[] distances = new double[neighbors.length];
+        trainIndex.searchBatch(xTest, from, to, maxK, neighbors, distances);
+        int base = from * maxK;
+        for (int i = 0; i < neighbors.length; i++) {
+            neighborLabels[base + i] = trainClass[neighbors[i]];
+            neighborDistances[base + i] = Math.sqrt(distances[i]); // Searches report squared distances
+        }
+    }
+
+    /**
+     * One incremental voting sweep: adding the r-th neighbor can only change the
+     * majority to that neighbor's class, so the prediction for every k is known after
+     * visiting each neighbor once.
+     */
+    private double[] sweepAccuracies(int[] testClass, int numClasses) {
+        long[] correct = new long[maxK + 1];
+        int[] votes = new int[numClasses];
+        for (int t = 0; t < numTest; t++) {
+            Arrays.fill(votes, 0);
+            int best = -1;
+            int base = t * maxK;
+            for (int r = 0; r < maxK; r++) {
+                int label = neighborLabels[base + r];
+                int count = ++votes[label];
+                if (best < 0 || count > votes[best] || (count == votes[best] && label < best)) best = label;
+                if (best == testClass[t]) correct[r + 1]++;
+            }
+        }
+        double[] accuracy = new double[maxK + 1];
+        for (int k = 1; k <= maxK; k++) accuracy[k] = (double) correct[k] / numTest;
+        return accuracy;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.automl_prototype_1.algorithm;
+
+/**
+ * Bounded list of the k best (distance, index) pairs seen so far, kept sorted
+ * nearest-first in caller-provided arrays. Ties on distance are ordered by index.
+ * k is small in practice, so insertion sort beats a heap here.
+ */
+final class NeighborList {
+
+    private final int capacity;
+    private final int[] indices;
+    private final double[] distances;
+    private final int base; // Position of the nearest entry in the arrays
+    private int size = 0;
+
+    NeighborList(int capacity, int[] indices, double[] distances) {
+        this(capacity, indices, distances, 0);
+    }
+
+    /** Keeps the list in {@code indices/distances[base, base + capacity)}. */
+    NeighborList(int capacity, int[] indices, double[] distances, int base) {
+        this.capacity = capacity;
+        this.indices = indices;
+        this.distances = distances;
+        this.base = base;
+    }
+
+    int size() { return size; }
+
+    boolean isFull() { return size == capacity; }
+
+    /** @return The distance a candidate must not exceed to enter the list (infinite until full). */
+    double worstDistance() { return isFull() ? distances[base + capacity - 1] : Double.POSITIVE_INFINITY; }
+
+    /** Offers a candidate; it is kept only if it ranks among the best {@code capacity}. */
+    void offer(double distance, int index) {
+        if (size == capacity) {
+            double worst = distances[base + capacity - 1];
+            if (distance > worst || (distance == worst && index > indices[base + capacity - 1])) return;
+        }
+        int pos = base + ((size < capacity) ? size++ : capacity - 1);
+        while (pos > base && (distances[pos - 1] > distance
+                || (distances[pos - 1] == distance && indices[pos - 1] > index))) {
+            distances[pos] = distances[pos - 1];
+            indices[pos] = indices[pos - 1];
+            pos--;
+        }
+        distances[pos] = distance;
+        indices[pos] = index;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+/**
+ * Backend for k-nearest-neighbor queries over a fixed set of training rows.
+ * An index is built once per train split and then queried for every test row,
+ * individual and generation. Implementations must be safe for concurrent queries.
+ * <p>
+ * Results are ordered by (squared Euclidean distance, row index), so backends agree
+ * on the neighbors, including on distance ties (up to floating-point rounding in
+ * the tree bounds).
+ */
+public interface NeighborSearch {
+
+    /** Rows below this count are always searched by brute force (index overhead is not worth it). */
+    int MIN_ROWS_FOR_INDEX = 1000;
+    /** Above this many features KD-trees stop pruning well; "auto" uses blocked exhaustive search instead. */
+    int MAX_DIMENSIONS_FOR_KD_TREE = 15;
+
+    /**
+     * Finds the nearest training rows to a query point.
+     * @param query Array holding the query point (e.g. a {@link DenseMatrix} backing array).
+     * @param queryOffset Position of the query's first feature in {@code query}.
+     * @param k Number of neighbors wanted.
+     * @param indices Output: training row indices, nearest first (length >= k).
+     * @param distances Output: squared distances matching {@code indices} (length >= k).
+     * @return The number of neighbors written (min(k, training rows)).
+     */
+    int search(double[] query, int queryOffset, int k, int[] indices, double[] distances);
+
+    /** Same as {@link #search(double[], int, int, int[], double[])} for a query in its own array. */
+    default int search(double[] query, int k, int[] indices, double[] distances) {
+        return search(query, 0, k, indices, distances);
+    }
+
+    /**
+     * Finds the nearest training rows for a block of query rows. Backends that can share
+     * work between queries (see {@link BlockedNeighborSearch}) override this; the default
+     * runs {@link #search(double[], int, int, int[], double[])} per row.
+     * @param queries Query rows.
+     * @param from First query row (inclusive).
+     * @param to Last query row (exclusive).
+     * @param k Number of neighbors wanted per query (at most {@link #size()}).
+     * @param indices Output: for query {@code from + q}, neighbors at [q * k, (q + 1) * k), nearest first.
+     * @param distances Output: squared distances matching {@code indices}.
+     */
+    default void searchBatch(DenseMatrix queries, int from, int to, int k, int[] indices, double[] distances) {
+        int[] rowIndices = new int[k];
+        double[] rowDistances = new double[k];
+        double[] values = queries.getData();
+        for (int q = from; q < to; q++) {
+            search(values, queries.rowOffset(q), k, rowIndices, rowDistances);
+            System.arraycopy(rowIndices, 0, indices, (q - from) * k, k);
+            System.arraycopy(rowDistances, 0, distances, (q - from) * k, k);
+        }
+    }
+
+    /** @return The number of indexed training rows. */
+    int size();
+
+    /** @return A short name for logging, e.g. "kd-tree". */
+    String getName();
+
+    /**
+     * Creates a neighbor search backend.
+     * @param type "auto" (default), "kdtree", "balltree", "blocked" or "brute".
+     * @param data Training rows (must not change while the index is in use).
+     * @return The backend.
+     */
+    static NeighborSearch create(String type, DenseMatrix data) {
+        String name = (type != null) ? type.toLowerCase() : "auto";
+        int dims = data.getNumCols();
+        switch (name) {
+            case "kdtree":
+            case "kd-tree":
+                return new KdTreeNeighborSearch(data);
+            case "balltree":
+            case "ball-tree":
+                return new BallTreeNeighborSearch(data);
+            case "blocked":
+            case "gemm":
+                return new BlockedNeighborSearch(data);
+            case "brute":
+                return new BruteForceNeighborSearch(data);
+            default:
+                if (!"auto".equals(name)) {
+                    System.err.println("NeighborSearch: Unknown backend '" + type + "', using auto.");
+                }
+                if (data.getNumRows() < MIN_ROWS_FOR_INDEX) {
+                    return new BruteForceNeighborSearch(data);
+                }
+                return (dims <= MAX_DIMENSIONS_FOR_KD_TREE) ? new KdTreeNeighborSearch(data) : new BlockedNeighborSearch(data);
+        }
+    }
+}
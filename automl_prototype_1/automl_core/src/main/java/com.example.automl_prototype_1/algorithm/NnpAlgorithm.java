@@ -0,0 +1,112 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Neural-network performance prediction (NNP) around a population-based search: runs the
+ * search named by {@code search} ("GA", "BPSO", "IGPSO", "WWO" or "ASO") with a
+ * {@link PerformancePredictor} that learns fitness from the candidates the run evaluates
+ * and answers candidates it predicts to be poor without fitting KNN.
+ * <p>
+ * The wrapped search reads the same configuration map, so its own keys (population size,
+ * iterations, validation, budgets, ...) apply unchanged. A {@code maxEvaluations} budget
+ * counts real evaluations only, so skipped candidates leave room for more search. GA
+ * worker mode ({@code workers > 0}) is not screened. Each batch of candidates is screened
+ * and recorded in slot order on the search's coordinating thread ({@link ScreeningBatch}),
+ * so a seeded run gives the same result with any executor.
+ * <p>
+ * The result is the wrapped search's result with the predictor's metrics added:
+ * avoided evaluations (distinct candidates skipped and never fitted), out-of-sample
+ * prediction error, and how often the predictor's poor/not-poor call was right.
+ */
+public class NnpAlgorithm implements OptimizationAlgorithm {
+
+    private static final String ALGORITHM_NAME = "NNP (Predictor-Screened Search)";
+
+    // --- Configuration ---
+    private String search = "WWO";
+    private int hiddenUnits = 16;
+    private int warmup = 20;          // Real evaluations before the predictor may skip anything
+    private int retrainInterval = 10; // New observations between retrainings
+    private int epochs = 150;
+    private double learningRate = 0.01;
+    private double skipQuantile = 0.5; // Skip candidates predicted below this quantile of observed fitness
+    private double auditRate = 0.1;    // Share of would-be skips evaluated anyway
+    private Random random = new Random();
+
+    @Override
+    public String getAlgorithmName() { return ALGORITHM_NAME; }
+
+    @Override
+    public ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration) {
+        System.out.println("--- Executing " + ALGORITHM_NAME + " ---");
+        long startTime = System.currentTimeMillis();
+        applyConfiguration(configuration);
+        ScreenableSearch inner = createSearch(search);
+        PerformancePredictor predictor = new PerformancePredictor(hiddenUnits, warmup, retrainInterval, epochs,
+                learningRate, skipQuantile, auditRate, random);
+        System.out.println("NNP: Screening " + inner.getAlgorithmName() + " with a " + hiddenUnits
+                + "-unit predictor (warmup " + warmup + ", skip below the " + skipQuantile + " quantile).");
+
+        ExecutionResult result;
+        inner.setPerformancePredictor(predictor);
+        try {
+            result = inner.execute(dataset, features, configuration);
+        } finally {
+            inner.setPerformancePredictor(null);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        System.out.printf("NNP Finished. Avoided %d evaluations (%d lookups predicted), prediction MAE = %.4f%n",
+                predictor.getAvoidedEvaluations(), predictor.getSkippedLookups(), predictor.getPredictionMae());
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        if (result.getAdditionalMetrics() != null) metrics.putAll(result.getAdditionalMetrics());
+        metrics.put("predictorSearch", search);
+        metrics.put("predictorObservations", predictor.getObservations());
+        metrics.put("predictorRetrains", predictor.getRetrains());
+        metrics.put("predictorTrainingMs", predictor.getTrainingMs());
+        metrics.put("screenedCandidates", predictor.getScreened());
+        metrics.put("skippedLookups", predictor.getSkippedLookups());
+        metrics.put("avoidedEvaluations", predictor.getAvoidedEvaluations());
+        metrics.put("auditedSkips", predictor.getAudited());
+        metrics.put("skipThreshold", AlgorithmConfig.round(predictor.getThreshold(), 4));
+        metrics.put("predictionMae", AlgorithmConfig.round(predictor.getPredictionMae(), 5));
+        metrics.put("decisionAccuracy", AlgorithmConfig.round(predictor.getDecisionAccuracy(), 4));
+        metrics.put("skipPrecision", AlgorithmConfig.round(predictor.getSkipPrecision(), 4));
+        return new ExecutionResult("NNP + " + result.getAlgorithmName(), result.getAccuracy(), result.getAucRoc(),
+                result.getLoss(), duration, metrics);
+    }
+
+    private void applyConfiguration(Map<String, Object> config) {
+        search = AlgorithmConfig.getString(config, "search", search).toUpperCase();
+        hiddenUnits = Math.max(1, AlgorithmConfig.getInt(config, "hiddenUnits", hiddenUnits));
+        warmup = Math.max(2, AlgorithmConfig.getInt(config, "warmup", warmup));
+        retrainInterval = Math.max(1, AlgorithmConfig.getInt(config, "retrainInterval", retrainInterval));
+        epochs = Math.max(1, AlgorithmConfig.getInt(config, "epochs", epochs));
+        learningRate = Math.max(1e-6, AlgorithmConfig.getDouble(config, "learningRate", learningRate));
+        skipQuantile = Math.max(0.0, Math.min(1.0, AlgorithmConfig.getDouble(config, "skipQuantile", skipQuantile)));
+        auditRate = Math.max(0.0, Math.min(1.0, AlgorithmConfig.getDouble(config, "auditRate", auditRate)));
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+    }
+
+    private static ScreenableSearch createSearch(String name) {
+        switch (name) {
+            case "GA": return new GeneticAlgorithm();
+            case "BPSO": return new BpsoAlgorithm();
+            case "IGPSO": return new IgpsoAlgorithm();
+            case "WWO": return new WwoAlgorithm();
+            case "ASO": return new AsoAlgorithm();
+            default:
+                System.err.println("NNP: Unknown search '" + name + "', using WWO.");
+                return new WwoAlgorithm();
+        }
+    }
+}
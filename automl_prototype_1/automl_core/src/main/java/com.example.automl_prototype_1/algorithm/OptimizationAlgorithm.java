@@ -2,6 +2,7 @@ package com.example.automl_prototype_1.algorithm;
 
 import com.example.automl_prototype_1.model.Dataset;
 import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
 
 import java.util.Map; // For configuration later
 
@@ -11,10 +12,29 @@ public interface OptimizationAlgorithm {
     String getAlgorithmName();
 
     /**
-     * Executes the algorithm on the given dataset.
+     * Executes the algorithm on the given dataset, converting it to numeric features first.
      * @param dataset The input dataset.
      * @param configuration Algorithm-specific configuration (optional for now).
      * @return An ExecutionResult object containing performance metrics.
+     * @throws RuntimeException If the dataset cannot be converted to numeric features.
      */
-    ExecutionResult execute(Dataset dataset, Map<String, Object> configuration);
-}
\ No newline at end of file
+    default ExecutionResult execute(Dataset dataset, Map<String, Object> configuration) {
+        FeatureMatrix features;
+        try {
+            features = FeatureMatrix.fromDataset(dataset);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Fatal: Preprocessing failed to produce valid data arrays. " + e.getMessage(), e);
+        }
+        return execute(dataset, features, configuration);
+    }
+
+    /**
+     * Executes the algorithm using features that were already preprocessed once for this dataset
+     * (shared by all algorithms of a run).
+     * @param dataset The input dataset (may be null when only the features are used).
+     * @param features The shared, read-only feature matrix.
+     * @param configuration Algorithm-specific configuration (optional for now).
+     * @return An ExecutionResult object containing performance metrics.
+     */
+    ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration);
+}
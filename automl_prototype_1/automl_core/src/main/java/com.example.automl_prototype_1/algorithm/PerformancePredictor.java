@@ -0,0 +1,286 @@
+package com.example.automl_prototype_1.algorithm;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Neural-network surrogate of a search's fitness, learned online from the candidates the
+ * search actually evaluates (see {@link NnpAlgorithm}).
+ * <p>
+ * A candidate arrives encoded as numbers in [0, 1] (the search picks the encoding). The
+ * model is a one-hidden-layer tanh perceptron trained by full-batch Adam on every real
+ * evaluation so far; it is warm-started and retrained after each {@code retrainInterval}
+ * new observations. Once {@code warmup} evaluations are in, {@link #screen} predicts each
+ * new candidate. If the prediction falls below the {@code skipQuantile} of the fitness
+ * observed so far, the prediction is returned instead of fitting the model. A share
+ * {@code auditRate} of those candidates is evaluated anyway, so skip decisions keep being
+ * checked against real fitness.
+ * <p>
+ * The skip threshold never exceeds the best fitness observed, so a skipped candidate can
+ * never become a search's best. Every real evaluation made while the model is trained is
+ * predicted first (out of sample), which gives the reported error and decision accuracy.
+ * Thread-safe: the public operations synchronize on the predictor.
+ */
+final class PerformancePredictor {
+
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double ADAM_EPSILON = 1e-8;
+    private static final double L2 = 1e-4;
+
+    private final int hidden;
+    private final int warmup;
+    private final int retrainInterval;
+    private final int epochs;
+    private final double learningRate;
+    private final double skipQuantile;
+    private final double auditRate;
+    private final Random random;
+
+    // Network: w1[hidden][inputs], b1[hidden], w2[hidden], b2, flattened in that order
+    private int inputs = -1;
+    private double[] params;
+    private double[] grads;
+    private double[] moment1;
+    private double[] moment2;
+    private double[] activations;
+    private long adamSteps;
+    private double targetMean;
+    private double targetScale = 1.0;
+
+    // Observations (real evaluations)
+    private double[] sampleX = new double[0];
+    private double[] sampleY = new double[0];
+    private int samples;
+    private int sinceTraining;
+    private boolean trained;
+    private double threshold = Double.NEGATIVE_INFINITY;
+
+    // Statistics
+    private final Set<InputKey> skippedInputs = new HashSet<>();
+    private long screened;
+    private long skipped;
+    private long audited;
+    private long predictions;
+    private double absoluteError;
+    private long correctDecisions;
+    private long predictedPoor;
+    private long predictedPoorCorrect;
+    private int retrains;
+    private long trainingNanos;
+
+    /**
+     * @param hidden Hidden units.
+     * @param warmup Real evaluations before the first training (and any skipping).
+     * @param retrainInterval New observations between retrainings.
+     * @param epochs Adam steps per training.
+     * @param learningRate Adam step size.
+     * @param skipQuantile Quantile of the observed fitness below which a candidate is skipped.
+     * @param auditRate Share of would-be skips evaluated anyway.
+     * @param random Weight initialization and audit draws.
+     */
+    PerformancePredictor(int hidden, int warmup, int retrainInterval, int epochs, double learningRate,
+                         double skipQuantile, double auditRate, Random random) {
+        this.hidden = Math.max(1, hidden);
+        this.warmup = Math.max(2, warmup);
+        this.retrainInterval = Math.max(1, retrainInterval);
+        this.epochs = Math.max(1, epochs);
+        this.learningRate = learningRate;
+        this.skipQuantile = Math.max(0.0, Math.min(1.0, skipQuantile));
+        this.auditRate = Math.max(0.0, Math.min(1.0, auditRate));
+        this.random = random;
+    }
+
+    /**
+     * Decides whether a candidate not evaluated yet needs a real evaluation.
+     * @param input The encoded candidate (not retained).
+     * @return The predicted fitness to use instead of evaluating, or NaN to evaluate it
+     *         (and then {@link #record} the result).
+     */
+    synchronized double screen(double[] input) {
+        if (!trained) return Double.NaN;
+        screened++;
+        double predicted = predict(input);
+        if (predicted >= threshold) return Double.NaN;
+        if (random.nextDouble() < auditRate) {
+            audited++;
+            return Double.NaN;
+        }
+        skipped++;
+        skippedInputs.add(new InputKey(input.clone()));
+        return predicted;
+    }
+
+    /** Adds a real evaluation and retrains when due. */
+    synchronized void record(double[] input, double fitness) {
+        ensureShape(input.length);
+        if (trained) {
+            double predicted = predict(input);
+            predictions++;
+            absoluteError += Math.abs(predicted - fitness);
+            boolean poor = predicted < threshold;
+            if (poor == (fitness < threshold)) correctDecisions++;
+            if (poor) {
+                predictedPoor++;
+                if (fitness < threshold) predictedPoorCorrect++;
+            }
+        }
+        if (samples == sampleY.length) {
+            int capacity = Math.max(16, samples * 2);
+            sampleX = Arrays.copyOf(sampleX, capacity * inputs);
+            sampleY = Arrays.copyOf(sampleY, capacity);
+        }
+        System.arraycopy(input, 0, sampleX, samples * inputs, inputs);
+        sampleY[samples++] = fitness;
+        skippedInputs.remove(new InputKey(input));
+        sinceTraining++;
+        if (samples >= warmup && (!trained || sinceTraining >= retrainInterval)) train();
+    }
+
+    /** @return Lookups answered with a prediction instead of an evaluation. */
+    synchronized long getSkippedLookups() { return skipped; }
+
+    /** @return Distinct candidates skipped and never evaluated: model fits avoided. */
+    synchronized int getAvoidedEvaluations() { return skippedInputs.size(); }
+
+    /** @return Candidates predicted poor but evaluated anyway to check the predictor. */
+    synchronized long getAudited() { return audited; }
+
+    /** @return Candidates the trained model screened. */
+    synchronized long getScreened() { return screened; }
+
+    /** @return Real evaluations observed. */
+    synchronized int getObservations() { return samples; }
+
+    synchronized int getRetrains() { return retrains; }
+
+    synchronized long getTrainingMs() { return trainingNanos / 1_000_000L; }
+
+    /** @return Current skip threshold (NEGATIVE_INFINITY before the first training). */
+    synchronized double getThreshold() { return threshold; }
+
+    /** @return Mean absolute error of out-of-sample predictions (NaN if none). */
+    synchronized double getPredictionMae() {
+        return predictions == 0 ? Double.NaN : absoluteError / predictions;
+    }
+
+    /** @return Share of out-of-sample predictions on the same side of the threshold as the real fitness. */
+    synchronized double getDecisionAccuracy() {
+        return predictions == 0 ? Double.NaN : correctDecisions / (double) predictions;
+    }
+
+    /** @return Share of evaluated candidates predicted poor that really were (audits mostly). */
+    synchronized double getSkipPrecision() {
+        return predictedPoor == 0 ? Double.NaN : predictedPoorCorrect / (double) predictedPoor;
+    }
+
+    private void ensureShape(int length) {
+        if (inputs == length) return;
+        if (inputs >= 0) {
+            throw new IllegalArgumentException("Predictor expects " + inputs + " inputs, got " + length + ".");
+        }
+        inputs = length;
+        int count = hidden * (inputs + 2) + 1;
+        params = new double[count];
+        grads = new double[count];
+        moment1 = new double[count];
+        moment2 = new double[count];
+        activations = new double[hidden];
+        double limit = Math.sqrt(6.0 / (inputs + hidden)); // Glorot uniform
+        for (int i = 0; i < hidden * inputs; i++) params[i] = (2.0 * random.nextDouble() - 1.0) * limit;
+        double outLimit = Math.sqrt(6.0 / (hidden + 1));
+        for (int h = 0; h < hidden; h++) params[hidden * (inputs + 1) + h] = (2.0 * random.nextDouble() - 1.0) * outLimit;
+    }
+
+    /** Forward pass on the standardized scale; fills {@link #activations}. */
+    private double forward(double[] x, int offset) {
+        int b1 = hidden * inputs;
+        int w2 = b1 + hidden;
+        double out = params[w2 + hidden];
+        for (int h = 0; h < hidden; h++) {
+            double sum = params[b1 + h];
+            int row = h * inputs;
+            for (int i = 0; i < inputs; i++) sum += params[row + i] * x[offset + i];
+            activations[h] = Math.tanh(sum);
+            out += params[w2 + h] * activations[h];
+        }
+        return out;
+    }
+
+    private double predict(double[] input) {
+        if (input.length != inputs) {
+            throw new IllegalArgumentException("Predictor expects " + inputs + " inputs, got " + input.length + ".");
+        }
+        return targetMean + targetScale * forward(input, 0);
+    }
+
+    /** Refits the network on all observations (warm start) and moves the skip threshold. */
+    private void train() {
+        long start = System.nanoTime();
+        double mean = 0.0;
+        for (int s = 0; s < samples; s++) mean += sampleY[s];
+        mean /= samples;
+        double variance = 0.0;
+        for (int s = 0; s < samples; s++) variance += (sampleY[s] - mean) * (sampleY[s] - mean);
+        targetMean = mean;
+        targetScale = Math.max(Math.sqrt(variance / samples), 1e-6);
+
+        int b1 = hidden * inputs;
+        int w2 = b1 + hidden;
+        int b2 = w2 + hidden;
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            Arrays.fill(grads, 0.0);
+            for (int s = 0; s < samples; s++) {
+                int offset = s * inputs;
+                double error = forward(sampleX, offset) - (sampleY[s] - targetMean) / targetScale;
+                grads[b2] += error;
+                for (int h = 0; h < hidden; h++) {
+                    double a = activations[h];
+                    grads[w2 + h] += error * a;
+                    double delta = error * params[w2 + h] * (1.0 - a * a);
+                    grads[b1 + h] += delta;
+                    int row = h * inputs;
+                    for (int i = 0; i < inputs; i++) grads[row + i] += delta * sampleX[offset + i];
+                }
+            }
+            adamSteps++;
+            double correction1 = 1.0 - Math.pow(BETA1, adamSteps);
+            double correction2 = 1.0 - Math.pow(BETA2, adamSteps);
+            for (int p = 0; p < params.length; p++) {
+                double g = grads[p] / samples + ((p < b1 || (p >= w2 && p < b2)) ? L2 * params[p] : 0.0);
+                moment1[p] = BETA1 * moment1[p] + (1.0 - BETA1) * g;
+                moment2[p] = BETA2 * moment2[p] + (1.0 - BETA2) * g * g;
+                params[p] -= learningRate * (moment1[p] / correction1) / (Math.sqrt(moment2[p] / correction2) + ADAM_EPSILON);
+            }
+        }
+
+        double[] sorted = Arrays.copyOf(sampleY, samples);
+        Arrays.sort(sorted);
+        threshold = sorted[(int) Math.floor(skipQuantile * (samples - 1))];
+        trained = true;
+        sinceTraining = 0;
+        retrains++;
+        trainingNanos += System.nanoTime() - start;
+    }
+
+    /** Value-equality wrapper so encoded candidates can live in a set. */
+    private static final class InputKey {
+        private final double[] values;
+        private final int hash;
+
+        InputKey(double[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof InputKey && Arrays.equals(values, ((InputKey) o).values));
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+}
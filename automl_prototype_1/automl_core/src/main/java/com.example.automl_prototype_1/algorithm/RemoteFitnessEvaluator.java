@@ -0,0 +1,308 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator side of distributed fitness evaluation: scores KNN candidates in
+ * {@link FitnessWorker} child JVMs, talking to each over its stdin/stdout.
+ * <p>
+ * On start each worker is asked whether it already holds the dataset (by content hash);
+ * the feature matrix is sent only when it does not, then the validation folds are set up
+ * once. After that each batch ships only the k values and gets the fold accuracies back.
+ * <p>
+ * A batch is cut into chunks that idle workers pull from a shared queue. If a worker dies
+ * (broken pipe or end of stream) its chunk goes back on the queue, the worker is
+ * restarted (up to {@link #MAX_RESTARTS} times) and the batch carries on. Chunks left
+ * when every worker is gone are scored in-process with the fallback evaluator.
+ */
+final class RemoteFitnessEvaluator implements AutoCloseable {
+
+    private static final int MAX_RESTARTS = 3;
+    private static final int CHUNKS_PER_WORKER = 2;
+
+    private final List<String> command;
+    private final DenseMatrix x;
+    private final int[] y;
+    private final int[][] trainFolds;
+    private final int[][] testFolds;
+    private final boolean useTable;
+    private final String neighborSearchType;
+    private final int maxK;
+    private final int workerParallelism;
+    private final long datasetHash;
+    private final long setupId;
+    private final CrossValidationEvaluator fallback;
+    private final Worker[] workers;
+    private final ExecutorService io; // One thread per worker connection
+    private final AtomicInteger restarts = new AtomicInteger();
+    private final AtomicInteger datasetTransfers = new AtomicInteger();
+
+    /**
+     * Starts the workers and prepares them for {@link #evaluate}.
+     * @param workerCount Number of worker processes.
+     * @param command Command line that starts a worker (see {@link #defaultWorkerCommand()}).
+     * @param workerParallelism Evaluation threads per worker.
+     * @param fallback Scores chunks in-process when no worker is left; its split id
+     *                 identifies the folds on the workers.
+     */
+    RemoteFitnessEvaluator(int workerCount, List<String> command, DenseMatrix x, int[] y, int[][] trainFolds,
+                           int[][] testFolds, boolean useTable, String neighborSearchType, int maxK,
+                           int workerParallelism, CrossValidationEvaluator fallback) {
+        this.command = command;
+        this.x = x;
+        this.y = y;
+        this.trainFolds = trainFolds;
+        this.testFolds = testFolds;
+        this.useTable = useTable;
+        this.neighborSearchType = neighborSearchType;
+        this.maxK = maxK;
+        this.workerParallelism = workerParallelism;
+        this.datasetHash = FitnessWorker.contentHash(x, y);
+        this.setupId = fallback.getSplitId();
+        this.fallback = fallback;
+        this.workers = new Worker[workerCount];
+        this.io = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "fitness-worker-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Callable<Void>> starts = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Worker worker = new Worker(i);
+            workers[i] = worker;
+            starts.add(() -> { worker.startWithRetries(); return null; });
+        }
+        runAll(starts);
+        System.out.println("RemoteFitnessEvaluator: " + liveWorkers() + "/" + workerCount + " workers ready (dataset "
+                + Long.toHexString(datasetHash) + ", sent " + datasetTransfers.get() + " time(s)).");
+    }
+
+    /** @return A command starting {@link FitnessWorker} with this JVM's binary, class or module path. */
+    static List<String> defaultWorkerCommand() {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            cmd.add("--add-modules");
+            cmd.add("jdk.incubator.vector");
+        }
+        Module module = FitnessWorker.class.getModule();
+        String modulePath = System.getProperty("jdk.module.path");
+        if (module.isNamed() && modulePath != null && !modulePath.isEmpty()) {
+            String classPath = System.getProperty("java.class.path");
+            if (classPath != null && !classPath.isEmpty()) {
+                cmd.addAll(Arrays.asList("-cp", classPath)); // Non-modular jars (e.g. slf4j) stay on the class path
+            }
+            cmd.addAll(Arrays.asList("--module-path", modulePath, "-m", module.getName() + "/" + FitnessWorker.class.getName()));
+        } else {
+            cmd.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), FitnessWorker.class.getName()));
+        }
+        return cmd;
+    }
+
+    /**
+     * Scores the given k values on the workers.
+     * @param ks Candidate k values (already clamped to the folds).
+     * @return Fold accuracy mean and variance per k, in the same order.
+     */
+    CrossValidationEvaluator.Score[] evaluate(int[] ks) {
+        CrossValidationEvaluator.Score[] scores = new CrossValidationEvaluator.Score[ks.length];
+        Queue<int[]> chunks = new ConcurrentLinkedQueue<>(); // {from, to} ranges of ks
+        int chunkSize = Math.max(1, (ks.length + workers.length * CHUNKS_PER_WORKER - 1) / (workers.length * CHUNKS_PER_WORKER));
+        for (int from = 0; from < ks.length; from += chunkSize) chunks.add(new int[] { from, Math.min(ks.length, from + chunkSize) });
+
+        while (!chunks.isEmpty() && liveWorkers() > 0) {
+            List<Callable<Void>> drains = new ArrayList<>(workers.length);
+            for (Worker worker : workers) {
+                if (worker.isAlive()) drains.add(() -> { worker.drain(chunks, ks, scores); return null; });
+            }
+            runAll(drains);
+        }
+        if (!chunks.isEmpty()) {
+            System.err.println("RemoteFitnessEvaluator: No workers left, scoring " + chunks.size() + " chunk(s) in-process.");
+            for (int[] range; (range = chunks.poll()) != null; ) {
+                for (int i = range[0]; i < range[1]; i++) scores[i] = fallback.score(ks[i]);
+            }
+        }
+        return scores;
+    }
+
+    /** @return Worker restarts after a failure. */
+    int getRestarts() { return restarts.get(); }
+
+    /** @return How many times the dataset had to be sent (0 when every worker had it cached). */
+    int getDatasetTransfers() { return datasetTransfers.get(); }
+
+    @Override
+    public void close() {
+        for (Worker worker : workers) {
+            if (worker != null) worker.shutdown();
+        }
+        io.shutdownNow();
+    }
+
+    private int liveWorkers() {
+        int live = 0;
+        for (Worker worker : workers) {
+            if (worker != null && worker.isAlive()) live++;
+        }
+        return live;
+    }
+
+    private void runAll(List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : io.invokeAll(tasks)) future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Remote evaluation interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Remote evaluation failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /** One worker process and its connection; used by one io thread at a time. */
+    private final class Worker {
+        private final int id;
+        private Process process;
+        private DataInputStream in;
+        private DataOutputStream out;
+        private int failures;
+        private volatile boolean lost;
+
+        Worker(int id) { this.id = id; }
+
+        boolean isAlive() { return !lost; }
+
+        void startWithRetries() {
+            while (!lost) {
+                try {
+                    start();
+                    return;
+                } catch (IOException e) {
+                    fail("start", e);
+                }
+            }
+        }
+
+        private void start() throws IOException {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            in = new DataInputStream(new BufferedInputStream(process.getInputStream(), 1 << 16));
+            out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream(), 1 << 16));
+
+            out.writeByte(FitnessWorker.HAS_DATASET);
+            out.writeLong(datasetHash);
+            out.flush();
+            expectOk();
+            if (!in.readBoolean()) {
+                out.writeByte(FitnessWorker.DATASET);
+                out.writeLong(datasetHash);
+                FitnessWorker.writeMatrix(out, x);
+                FitnessWorker.writeInts(out, y);
+                out.flush();
+                expectOk();
+                datasetTransfers.incrementAndGet();
+            }
+
+            out.writeByte(FitnessWorker.SETUP);
+            out.writeLong(datasetHash);
+            out.writeLong(setupId);
+            out.writeInt(trainFolds.length);
+            for (int f = 0; f < trainFolds.length; f++) {
+                FitnessWorker.writeInts(out, trainFolds[f]);
+                FitnessWorker.writeInts(out, testFolds[f]);
+            }
+            out.writeBoolean(useTable);
+            out.writeUTF(neighborSearchType);
+            out.writeInt(maxK);
+            out.writeInt(workerParallelism);
+            out.flush();
+            expectOk();
+        }
+
+        /** Scores chunks from the queue until it is empty or this worker is lost. */
+        void drain(Queue<int[]> chunks, int[] ks, CrossValidationEvaluator.Score[] scores) {
+            for (int[] range; !lost && (range = chunks.poll()) != null; ) {
+                try {
+                    out.writeByte(FitnessWorker.EVALUATE);
+                    out.writeLong(setupId);
+                    FitnessWorker.writeInts(out, Arrays.copyOfRange(ks, range[0], range[1]));
+                    out.flush();
+                    expectOk();
+                    int count = in.readInt();
+                    if (count != range[1] - range[0]) throw new IOException("Expected " + (range[1] - range[0]) + " scores, got " + count);
+                    int folds = in.readInt();
+                    if (folds != trainFolds.length) throw new IOException("Expected " + trainFolds.length + " folds, got " + folds);
+                    CrossValidationEvaluator.Score[] chunk = new CrossValidationEvaluator.Score[count];
+                    for (int i = 0; i < count; i++) {
+                        double[] accuracy = new double[folds];
+                        for (int f = 0; f < folds; f++) accuracy[f] = in.readDouble();
+                        chunk[i] = CrossValidationEvaluator.summarize(accuracy);
+                    }
+                    System.arraycopy(chunk, 0, scores, range[0], count); // Only a fully read reply counts
+                } catch (IOException e) {
+                    chunks.add(range); // Another worker (or this one, restarted) picks it up
+                    fail("evaluate", e);
+                    startWithRetries();
+                }
+            }
+        }
+
+        private void expectOk() throws IOException {
+            byte status = in.readByte();
+            if (status == FitnessWorker.ERROR) {
+                throw new RuntimeException("Worker " + id + " reported: " + in.readUTF()); // Deterministic; restarting will not help
+            }
+            if (status != FitnessWorker.OK) throw new IOException("Unexpected status " + status);
+        }
+
+        private void fail(String during, IOException e) {
+            destroy();
+            failures++;
+            if (failures > MAX_RESTARTS) {
+                lost = true;
+                System.err.println("RemoteFitnessEvaluator: Worker " + id + " failed during " + during + " ("
+                        + e + "); giving up after " + MAX_RESTARTS + " restarts.");
+            } else {
+                restarts.incrementAndGet();
+                System.err.println("RemoteFitnessEvaluator: Worker " + id + " failed during " + during + " ("
+                        + e + "); restarting.");
+            }
+        }
+
+        void shutdown() {
+            if (process == null) return;
+            try {
+                out.writeByte(FitnessWorker.SHUTDOWN);
+                out.flush();
+                process.waitFor(2, TimeUnit.SECONDS);
+            } catch (IOException ignored) {
+                // Already gone
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            destroy();
+        }
+
+        private void destroy() {
+            if (process != null) process.destroyForcibly();
+        }
+    }
+}
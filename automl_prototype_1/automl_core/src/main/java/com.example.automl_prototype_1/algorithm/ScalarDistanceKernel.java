@@ -0,0 +1,101 @@
+package com.example.automl_prototype_1.algorithm;
+
+/**
+ * Portable distance kernel in plain Java. Loops are unrolled by four with separate
+ * accumulators, which breaks the add dependency chain and lets the JIT use scalar
+ * SSE/NEON pipelines in parallel. Used when the Vector API is not available.
+ */
+final class ScalarDistanceKernel implements DistanceKernel {
+
+    static final ScalarDistanceKernel INSTANCE = new ScalarDistanceKernel();
+
+    private ScalarDistanceKernel() { }
+
+    @Override
+    public double squaredEuclidean(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            double d0 = a[aOffset + i] - b[bOffset + i];
+            double d1 = a[aOffset + i + 1] - b[bOffset + i + 1];
+            double d2 = a[aOffset + i + 2] - b[bOffset + i + 2];
+            double d3 = a[aOffset + i + 3] - b[bOffset + i + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; i < length; i++) {
+            double d = a[aOffset + i] - b[bOffset + i];
+            s0 += d * d;
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public double manhattan(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            s0 += Math.abs(a[aOffset + i] - b[bOffset + i]);
+            s1 += Math.abs(a[aOffset + i + 1] - b[bOffset + i + 1]);
+            s2 += Math.abs(a[aOffset + i + 2] - b[bOffset + i + 2]);
+            s3 += Math.abs(a[aOffset + i + 3] - b[bOffset + i + 3]);
+        }
+        for (; i < length; i++) s0 += Math.abs(a[aOffset + i] - b[bOffset + i]);
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) s0 += a[aOffset + i] * b[bOffset + i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public void dot4(double[] a, int aOffset, int aStride, double[] b, int bOffset, int length, double[] out) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+        int a0 = aOffset, a1 = aOffset + aStride, a2 = aOffset + 2 * aStride, a3 = aOffset + 3 * aStride;
+        for (int i = 0; i < length; i++) {
+            double y = b[bOffset + i];
+            s0 += a[a0 + i] * y;
+            s1 += a[a1 + i] * y;
+            s2 += a[a2 + i] * y;
+            s3 += a[a3 + i] * y;
+        }
+        out[0] = s0;
+        out[1] = s1;
+        out[2] = s2;
+        out[3] = s3;
+    }
+
+    @Override
+    public double cosine(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double dot = 0.0, normA = 0.0, normB = 0.0;
+        for (int i = 0; i < length; i++) {
+            double x = a[aOffset + i];
+            double y = b[bOffset + i];
+            dot += x * y;
+            normA += x * x;
+            normB += y * y;
+        }
+        return cosineFromSums(dot, normA, normB);
+    }
+
+    @Override
+    public String getName() { return "scalar"; }
+
+    static double cosineFromSums(double dot, double normA, double normB) {
+        if (normA == 0.0 || normB == 0.0) return (normA == normB) ? 0.0 : 1.0;
+        double similarity = dot / Math.sqrt(normA * normB);
+        return 1.0 - Math.max(-1.0, Math.min(1.0, similarity));
+    }
+}
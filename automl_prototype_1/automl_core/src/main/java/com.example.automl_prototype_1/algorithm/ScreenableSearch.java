@@ -0,0 +1,16 @@
+package com.example.automl_prototype_1.algorithm;
+
+/**
+ * A population-based search whose candidate evaluations a {@link PerformancePredictor}
+ * can screen, so that {@link NnpAlgorithm} can wrap it. Only candidates not evaluated yet
+ * are screened; cached and memoized fitness is served as usual.
+ */
+interface ScreenableSearch extends OptimizationAlgorithm {
+
+    /**
+     * Screens the candidates of the following runs with {@code predictor}: each real
+     * evaluation is recorded with it, and candidates it predicts poor are not evaluated.
+     * @param predictor The predictor, or null to evaluate every candidate.
+     */
+    void setPerformancePredictor(PerformancePredictor predictor);
+}
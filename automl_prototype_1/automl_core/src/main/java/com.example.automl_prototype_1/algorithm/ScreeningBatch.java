@@ -0,0 +1,77 @@
+package com.example.automl_prototype_1.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Screens one batch of fitness lookups with a {@link PerformancePredictor} in a fixed order.
+ * <ol>
+ *   <li>Before the batch is dispatched, the coordinating thread calls {@link #screen} for
+ *       each candidate not evaluated yet, in slot order.</li>
+ *   <li>The evaluation tasks use {@link #prediction} for candidates the predictor answered
+ *       and report the real scores they compute with {@link #evaluated}.</li>
+ *   <li>Once every task is done, the coordinating thread calls {@link #record}, which hands
+ *       those scores to the predictor in slot order.</li>
+ * </ol>
+ * The predictor's audit draws, training samples and retraining points then depend only on
+ * the candidates, not on which task finishes first, so a seeded run gives the same result
+ * with any executor. {@link #prediction} and {@link #evaluated} may be called concurrently
+ * between {@link #screen} and {@link #record}; everything else belongs to the coordinating thread.
+ * @param <G> Candidate type (a cache key with value equality).
+ */
+final class ScreeningBatch<G> {
+
+    private final PerformancePredictor predictor;
+    private final Map<G, Double> predictions = new HashMap<>(); // Candidates answered by the predictor
+    private final Map<G, Integer> pending = new HashMap<>();    // Candidates to evaluate -> index in slot order
+    private final List<double[]> inputs = new ArrayList<>();    // Predictor input per pending index
+    private double[] scores = new double[16];                   // Real score per pending index, NaN until evaluated
+
+    ScreeningBatch(PerformancePredictor predictor) {
+        this.predictor = predictor;
+    }
+
+    /**
+     * Screens a candidate of the next batch (each candidate once per batch).
+     * @param candidate The candidate, not evaluated yet.
+     * @param input The candidate encoded for the predictor.
+     */
+    void screen(G candidate, double[] input) {
+        if (predictions.containsKey(candidate) || pending.containsKey(candidate)) return;
+        double predicted = predictor.screen(input);
+        if (!Double.isNaN(predicted)) {
+            predictions.put(candidate, predicted);
+            return;
+        }
+        int index = inputs.size();
+        pending.put(candidate, index);
+        inputs.add(input);
+        if (index == scores.length) scores = Arrays.copyOf(scores, 2 * index);
+        scores[index] = Double.NaN;
+    }
+
+    /** @return The predicted fitness the batch uses instead of evaluating the candidate, or NaN to evaluate it. */
+    double prediction(G candidate) {
+        Double predicted = predictions.get(candidate);
+        return (predicted != null) ? predicted : Double.NaN;
+    }
+
+    /** Notes the real score of a candidate (ignored unless it was screened in this batch). */
+    void evaluated(G candidate, double score) {
+        Integer index = pending.get(candidate);
+        if (index != null) scores[index] = score;
+    }
+
+    /** Records the batch's real scores with the predictor in slot order and starts a new batch. */
+    void record() {
+        for (int i = 0; i < inputs.size(); i++) {
+            if (!Double.isNaN(scores[i])) predictor.record(inputs.get(i), scores[i]);
+        }
+        predictions.clear();
+        pending.clear();
+        inputs.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Shared helpers for building the tree-based {@link NeighborSearch} indexes.
+ */
+final class TreeBuildUtil {
+
+    private TreeBuildUtil() { }
+
+    /**
+     * Quickselect on an index array: reorders {@code order[lo..hi]} so that the row at
+     * position {@code nth} has the nth smallest value in dimension {@code dim}, with
+     * smaller-or-equal values before it and greater-or-equal values after it.
+     */
+    static void select(DenseMatrix data, int[] order, int lo, int hi, int nth, int dim) {
+        while (hi > lo) {
+            int mid = (lo + hi) >>> 1;
+            double pivot = data.get(order[mid], dim);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (data.get(order[i], dim) < pivot) i++;
+                while (data.get(order[j], dim) > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (nth <= j) {
+                hi = j;
+            } else if (nth >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /** @return The dimension with the largest value spread among rows {@code order[from..to)}. */
+    static int widestDimension(DenseMatrix data, int[] order, int from, int to) {
+        double[] values = data.getData();
+        int dims = data.getNumCols();
+        double[] min = new double[dims];
+        double[] max = new double[dims];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int i = from; i < to; i++) { // Row by row, so each row is read sequentially
+            int offset = data.rowOffset(order[i]);
+            for (int d = 0; d < dims; d++) {
+                double v = values[offset + d];
+                if (v < min[d]) min[d] = v;
+                if (v > max[d]) max[d] = v;
+            }
+        }
+        int best = 0;
+        for (int d = 1; d < dims; d++) {
+            if (max[d] - min[d] > max[best] - min[best]) best = d;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.automl_prototype_1.algorithm;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD distance kernel on the {@code jdk.incubator.vector} API, using the widest
+ * species the CPU supports (4 doubles with AVX2, 8 with AVX-512). Lanes are reduced
+ * once per call; the tail shorter than one vector is handled in scalar code.
+ * <p>
+ * Only referenced reflectively from {@link DistanceKernels}, so the core keeps working
+ * on runtimes without the incubator module.
+ */
+final class VectorDistanceKernel implements DistanceKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /** @return Lanes per vector; 1 means SIMD would not help on this CPU. */
+    static int lanes() { return SPECIES.length(); }
+
+    @Override
+    public double squaredEuclidean(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector diff = DoubleVector.fromArray(SPECIES, a, aOffset + i)
+                    .sub(DoubleVector.fromArray(SPECIES, b, bOffset + i));
+            acc = diff.fma(diff, acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            double d = a[aOffset + i] - b[bOffset + i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    @Override
+    public double manhattan(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromArray(SPECIES, a, aOffset + i)
+                    .sub(DoubleVector.fromArray(SPECIES, b, bOffset + i)).abs());
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) sum += Math.abs(a[aOffset + i] - b[bOffset + i]);
+        return sum;
+    }
+
+    @Override
+    public double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            acc = DoubleVector.fromArray(SPECIES, a, aOffset + i)
+                    .fma(DoubleVector.fromArray(SPECIES, b, bOffset + i), acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) sum += a[aOffset + i] * b[bOffset + i];
+        return sum;
+    }
+
+    @Override
+    public void dot4(double[] a, int aOffset, int aStride, double[] b, int bOffset, int length, double[] out) {
+        DoubleVector acc0 = DoubleVector.zero(SPECIES);
+        DoubleVector acc1 = DoubleVector.zero(SPECIES);
+        DoubleVector acc2 = DoubleVector.zero(SPECIES);
+        DoubleVector acc3 = DoubleVector.zero(SPECIES);
+        int a0 = aOffset, a1 = aOffset + aStride, a2 = aOffset + 2 * aStride, a3 = aOffset + 3 * aStride;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            acc0 = DoubleVector.fromArray(SPECIES, a, a0 + i).fma(y, acc0);
+            acc1 = DoubleVector.fromArray(SPECIES, a, a1 + i).fma(y, acc1);
+            acc2 = DoubleVector.fromArray(SPECIES, a, a2 + i).fma(y, acc2);
+            acc3 = DoubleVector.fromArray(SPECIES, a, a3 + i).fma(y, acc3);
+        }
+        double s0 = acc0.reduceLanes(VectorOperators.ADD);
+        double s1 = acc1.reduceLanes(VectorOperators.ADD);
+        double s2 = acc2.reduceLanes(VectorOperators.ADD);
+        double s3 = acc3.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            double y = b[bOffset + i];
+            s0 += a[a0 + i] * y;
+            s1 += a[a1 + i] * y;
+            s2 += a[a2 + i] * y;
+            s3 += a[a3 + i] * y;
+        }
+        out[0] = s0;
+        out[1] = s1;
+        out[2] = s2;
+        out[3] = s3;
+    }
+
+    @Override
+    public double cosine(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector dotAcc = DoubleVector.zero(SPECIES);
+        DoubleVector normAAcc = DoubleVector.zero(SPECIES);
+        DoubleVector normBAcc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            dotAcc = x.fma(y, dotAcc);
+            normAAcc = x.fma(x, normAAcc);
+            normBAcc = y.fma(y, normBAcc);
+        }
+        double dot = dotAcc.reduceLanes(VectorOperators.ADD);
+        double normA = normAAcc.reduceLanes(VectorOperators.ADD);
+        double normB = normBAcc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            double x = a[aOffset + i];
+            double y = b[bOffset + i];
+            dot += x * y;
+            normA += x * x;
+            normB += y * y;
+        }
+        return ScalarDistanceKernel.cosineFromSums(dot, normA, normB);
+    }
+
+    @Override
+    public String getName() { return "vector-" + SPECIES.vectorBitSize(); }
+}
@@ -0,0 +1,320 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DenseMatrix;
+import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Water Wave Optimization (WWO, Zheng 2015) of KNN hyperparameters over the same
+ * search space as {@link IgpsoAlgorithm} (k and, optionally, the vote weight exponent;
+ * see {@link KnnHyperparameterSpace}).
+ * <p>
+ * Each wave is a position with a height and a wavelength. Per iteration:
+ * <ul>
+ *   <li>Propagation: every wave moves by up to its wavelength times the range in each
+ *       dimension. A better position replaces the wave and restores its height;
+ *       otherwise the wave loses height.</li>
+ *   <li>Refraction: a wave whose height reaches zero jumps to a Gaussian sample between
+ *       itself and the best wave, and its wavelength is rescaled by the fitness ratio.</li>
+ *   <li>Breaking: when a wave becomes the new best, solitary waves are sampled around it
+ *       in random single dimensions and the best of them replaces it if better.</li>
+ *   <li>Wavelengths shrink for fit waves and grow for poor ones, so good regions are
+ *       searched finely and poor ones broadly.</li>
+ * </ul>
+ * The propagated, refracted and breaking waves of an iteration are each scored as one
+ * parallel batch (waves are independent within a batch); the moves themselves are drawn
+ * on one thread, so a seeded run is reproducible. All wave state lives in preallocated
+ * flat arrays and the evaluation tasks are built once, so an iteration allocates nothing
+ * apart from its progress line and the futures of a parallel executor.
+ * <p>
+ * Stops after {@code maxIterations} or by the {@link ConvergenceCriteria} rules, including
+ * the {@code timeBudgetMs} and {@code maxEvaluations} budgets shared with the GA.
+ */
+public class WwoAlgorithm implements ScreenableSearch {
+
+    private static final String ALGORITHM_NAME = "WWO (KNN HyperOpt)";
+    private static final double EPSILON = 1e-12;
+
+    // --- Configuration ---
+    private int waves = 10;
+    private int maxIterations = 60;
+    private int maxHeight = 12;               // Failed propagations before a wave refracts
+    private double initialWavelength = 0.5;   // Fraction of each dimension's range
+    private double wavelengthBase = 1.0026;   // alpha: wavelength reduction coefficient
+    private double breakingMax = 0.25;        // beta: breaking width, decreasing linearly to breakingMin
+    private double breakingMin = 0.001;
+    private int breakingWaves = 4;            // Solitary waves per breaking
+    private boolean weighting = true;
+    private double maxWeightPower = 4.0;
+    private double weightResolution = 0.05;
+    private String neighborSearchType = "auto";
+    private String validation = "stratified";
+    private int folds = 5;
+    private int minK = 1;
+    private int maxK = 20;
+    private Random random = new Random();
+    private ConvergenceCriteria convergence;
+    private PerformancePredictor predictor; // Screens new candidates when wrapped by NNP
+
+    // --- Per-run state ---
+    private KnnHyperparameterSpace space;
+    private int dims;
+
+    @Override
+    public String getAlgorithmName() { return ALGORITHM_NAME; }
+
+    @Override
+    public void setPerformancePredictor(PerformancePredictor predictor) { this.predictor = predictor; }
+
+    @Override
+    public ExecutionResult execute(Dataset dataset, FeatureMatrix features, Map<String, Object> configuration) {
+        System.out.println("--- Executing " + ALGORITHM_NAME + " ---");
+        long startTime = System.currentTimeMillis();
+        applyConfiguration(configuration);
+        ExecutorService executor = AlgorithmConfig.createEvaluationExecutor(configuration);
+        try {
+            return run(features, executor, startTime);
+        } finally {
+            if (executor != null) executor.shutdown();
+            space = null;
+        }
+    }
+
+    private void applyConfiguration(Map<String, Object> config) {
+        waves = Math.max(2, AlgorithmConfig.getInt(config, "waves", waves));
+        maxIterations = Math.max(1, AlgorithmConfig.getInt(config, "maxIterations", maxIterations));
+        maxHeight = Math.max(1, AlgorithmConfig.getInt(config, "maxHeight", maxHeight));
+        initialWavelength = Math.max(1e-6, AlgorithmConfig.getDouble(config, "initialWavelength", initialWavelength));
+        wavelengthBase = Math.max(1.0, AlgorithmConfig.getDouble(config, "wavelengthBase", wavelengthBase));
+        breakingMax = AlgorithmConfig.getDouble(config, "breakingMax", breakingMax);
+        breakingMin = AlgorithmConfig.getDouble(config, "breakingMin", breakingMin);
+        breakingWaves = Math.max(0, AlgorithmConfig.getInt(config, "breakingWaves", breakingWaves));
+        weighting = AlgorithmConfig.getBoolean(config, "weighting", weighting);
+        maxWeightPower = Math.max(0.0, AlgorithmConfig.getDouble(config, "maxWeightPower", maxWeightPower));
+        weightResolution = Math.max(1e-6, AlgorithmConfig.getDouble(config, "weightResolution", weightResolution));
+        neighborSearchType = AlgorithmConfig.getString(config, "neighborSearch", neighborSearchType);
+        validation = AlgorithmConfig.getValidation(config, validation, "WWO");
+        folds = Math.max(2, AlgorithmConfig.getInt(config, "folds", folds));
+        minK = Math.max(1, AlgorithmConfig.getInt(config, "minK", minK));
+        maxK = Math.max(minK, AlgorithmConfig.getInt(config, "maxK", maxK));
+        if (config != null && config.containsKey("seed")) {
+            random = new Random(AlgorithmConfig.getInt(config, "seed", 0));
+        }
+        convergence = ConvergenceCriteria.fromConfig(config);
+    }
+
+    private ExecutionResult run(FeatureMatrix features, ExecutorService executor, long startTime) {
+        DenseMatrix x = features.getMatrix();
+        int[] y = features.getY();
+        int[][][] splits = CrossValidationEvaluator.splitsFor(validation, y, folds, random);
+        CrossValidationEvaluator evaluator = new CrossValidationEvaluator(x, y, splits[0], splits[1], true,
+                neighborSearchType, maxK, executor);
+        space = new KnnHyperparameterSpace(evaluator, minK, maxK, weighting, maxWeightPower, weightResolution);
+        space.setPerformancePredictor(predictor);
+        dims = space.dims();
+        System.out.println("WWO: " + waves + " waves over " + space.describe() + " with "
+                + CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()) + ".");
+
+        // Wave state
+        double[] position = new double[waves * dims];
+        double[] fitness = new double[waves];
+        int[] height = new int[waves];
+        double[] wavelength = new double[waves];
+        double[] best = new double[dims];
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        // Candidates of the current batch, scored in parallel
+        int capacity = Math.max(waves, breakingWaves);
+        double[] trial = new double[capacity * dims];
+        double[] trialFitness = new double[capacity];
+        int[] owner = new int[capacity]; // Wave a refraction candidate belongs to
+        int[] batch = new int[1];        // Candidates in the current batch
+        int[] cells = new int[waves];    // Diversity scratch
+        List<Callable<Void>> tasks = createEvaluationTasks(trial, trialFitness, batch, capacity);
+
+        for (int w = 0; w < waves; w++) {
+            for (int d = 0; d < dims; d++) trial[w * dims + d] = space.lower(d) + random.nextDouble() * space.range(d);
+            height[w] = maxHeight;
+            wavelength[w] = initialWavelength;
+        }
+        long evaluationNanos = evaluate(tasks, trial, batch, waves, executor);
+        long candidateEvaluations = waves;
+        System.arraycopy(trial, 0, position, 0, waves * dims);
+        System.arraycopy(trialFitness, 0, fitness, 0, waves);
+        for (int w = 0; w < waves; w++) {
+            if (fitness[w] > bestFitness) {
+                bestFitness = fitness[w];
+                System.arraycopy(position, w * dims, best, 0, dims);
+            }
+        }
+
+        ConvergenceCriteria.StopReason stopReason = ConvergenceCriteria.StopReason.MAX_ITERATIONS;
+        int iterationsRun = 0;
+        int refractions = 0;
+        int breakings = 0;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            iterationsRun++;
+            double progress = iteration / (double) Math.max(1, maxIterations - 1);
+
+            // Propagation
+            for (int w = 0; w < waves; w++) {
+                for (int d = 0; d < dims; d++) {
+                    int i = w * dims + d;
+                    double moved = position[i] + (2.0 * random.nextDouble() - 1.0) * wavelength[w] * space.range(d);
+                    trial[i] = space.contains(moved, d) ? moved : space.lower(d) + random.nextDouble() * space.range(d);
+                }
+            }
+            evaluationNanos += evaluate(tasks, trial, batch, waves, executor);
+            candidateEvaluations += waves;
+            int newBest = -1;
+            int refracting = 0;
+            for (int w = 0; w < waves; w++) {
+                if (trialFitness[w] > fitness[w]) {
+                    System.arraycopy(trial, w * dims, position, w * dims, dims);
+                    fitness[w] = trialFitness[w];
+                    height[w] = maxHeight;
+                    if (fitness[w] > bestFitness) {
+                        bestFitness = fitness[w];
+                        System.arraycopy(position, w * dims, best, 0, dims);
+                        newBest = w;
+                    }
+                } else if (--height[w] == 0) {
+                    owner[refracting++] = w;
+                }
+            }
+
+            // Refraction: towards the best wave, then rescale the wavelength by the fitness ratio
+            if (refracting > 0) {
+                for (int r = 0; r < refracting; r++) {
+                    int w = owner[r];
+                    for (int d = 0; d < dims; d++) {
+                        double here = position[w * dims + d];
+                        double mean = (best[d] + here) / 2.0;
+                        double sd = Math.abs(best[d] - here) / 2.0;
+                        trial[r * dims + d] = space.clamp(mean + random.nextGaussian() * sd, d);
+                    }
+                }
+                evaluationNanos += evaluate(tasks, trial, batch, refracting, executor);
+                candidateEvaluations += refracting;
+                refractions += refracting;
+                for (int r = 0; r < refracting; r++) {
+                    int w = owner[r];
+                    if (trialFitness[r] > EPSILON) wavelength[w] *= Math.max(fitness[w], EPSILON) / trialFitness[r];
+                    System.arraycopy(trial, r * dims, position, w * dims, dims);
+                    fitness[w] = trialFitness[r];
+                    height[w] = maxHeight;
+                    if (fitness[w] > bestFitness) {
+                        bestFitness = fitness[w];
+                        System.arraycopy(position, w * dims, best, 0, dims);
+                    }
+                }
+            }
+
+            // Breaking: solitary waves around a new best, each in one random dimension
+            if (newBest >= 0 && breakingWaves > 0) {
+                double beta = breakingMax - (breakingMax - breakingMin) * progress;
+                for (int s = 0; s < breakingWaves; s++) {
+                    System.arraycopy(position, newBest * dims, trial, s * dims, dims);
+                    int d = random.nextInt(dims);
+                    trial[s * dims + d] = space.clamp(trial[s * dims + d] + random.nextGaussian() * beta * space.range(d), d);
+                }
+                evaluationNanos += evaluate(tasks, trial, batch, breakingWaves, executor);
+                candidateEvaluations += breakingWaves;
+                breakings++;
+                int strongest = 0;
+                for (int s = 1; s < breakingWaves; s++) {
+                    if (trialFitness[s] > trialFitness[strongest]) strongest = s;
+                }
+                if (trialFitness[strongest] > fitness[newBest]) {
+                    System.arraycopy(trial, strongest * dims, position, newBest * dims, dims);
+                    fitness[newBest] = trialFitness[strongest];
+                    bestFitness = fitness[newBest];
+                    System.arraycopy(position, newBest * dims, best, 0, dims);
+                }
+            }
+
+            // Wavelengths: shorter for fitter waves
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int w = 0; w < waves; w++) {
+                min = Math.min(min, fitness[w]);
+                max = Math.max(max, fitness[w]);
+            }
+            for (int w = 0; w < waves; w++) {
+                wavelength[w] *= Math.pow(wavelengthBase, -(fitness[w] - min + EPSILON) / (max - min + EPSILON));
+                cells[w] = space.cell(position, w * dims);
+            }
+
+            if (iteration == 0 || (iteration + 1) % 5 == 0 || iteration == maxIterations - 1) {
+                System.out.printf("WWO Iter %d/%d: Best %s = %.4f, Best %s%n", iteration + 1, maxIterations,
+                        CrossValidationEvaluator.accuracyLabel(validation), bestFitness, space.label(space.cell(best, 0)));
+            }
+            ConvergenceCriteria.StopReason fired = convergence.check(bestFitness,
+                    ConvergenceCriteria.diversity(cells, waves), System.currentTimeMillis() - startTime,
+                    space.getModelEvaluations());
+            if (fired != null) {
+                stopReason = fired;
+                System.out.printf("WWO: Stopping after iteration %d/%d (%s). Best %s = %.4f%n",
+                        iteration + 1, maxIterations, fired.getKey(), CrossValidationEvaluator.accuracyLabel(validation), bestFitness);
+                break;
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        int bestCell = space.cell(best, 0);
+        long modelEvaluations = space.getModelEvaluations();
+        double evalSeconds = Math.max(1e-9, evaluationNanos / 1e9);
+        System.out.printf("WWO Finished. Best %s, Best %s = %.4f after %d model evaluations%n",
+                space.label(bestCell), CrossValidationEvaluator.accuracyLabel(validation), bestFitness, modelEvaluations);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("bestK", space.k(bestCell));
+        if (space.isWeighted()) metrics.put("bestWeightPower", AlgorithmConfig.round(space.weightPower(bestCell), 4));
+        metrics.put("iterationsRun", iterationsRun);
+        metrics.put("stopReason", stopReason.getKey());
+        metrics.put("candidateEvaluations", candidateEvaluations);
+        metrics.put("modelEvaluations", modelEvaluations);
+        metrics.put("fitnessCacheHits", space.getCacheHits());
+        metrics.put("evaluationsPerSecond", AlgorithmConfig.round(modelEvaluations / evalSeconds, 1));
+        metrics.put("refractions", refractions);
+        metrics.put("breakings", breakings);
+        metrics.put("validation", CrossValidationEvaluator.describe(validation, evaluator.getNumFolds()));
+        metrics.put("cvAccuracyVariance", AlgorithmConfig.round(evaluator.score(space.k(bestCell), space.weightPower(bestCell)).getVariance(), 6));
+        metrics.put("foldBuildMs", evaluator.getBuildTimeMs());
+        return new ExecutionResult(ALGORITHM_NAME + " (Best " + space.label(bestCell) + ")",
+                AlgorithmConfig.round(bestFitness, 4), Double.NaN, Double.NaN, duration, metrics);
+    }
+
+    /**
+     * One task per candidate slot, built once; slots at or beyond the current batch size
+     * return immediately, so every batch reuses the same list.
+     */
+    private List<Callable<Void>> createEvaluationTasks(double[] trial, double[] trialFitness, int[] batch, int capacity) {
+        List<Callable<Void>> tasks = new ArrayList<>(capacity);
+        for (int s = 0; s < capacity; s++) {
+            int slot = s;
+            tasks.add(() -> {
+                if (slot < batch[0]) trialFitness[slot] = space.fitness(trial, slot * dims);
+                return null;
+            });
+        }
+        return tasks;
+    }
+
+    /** Scores the first {@code count} candidate slots and returns the time taken in nanoseconds. */
+    private long evaluate(List<Callable<Void>> tasks, double[] trial, int[] batch, int count, ExecutorService executor) {
+        long start = System.nanoTime();
+        batch[0] = count;
+        space.screen(trial, count);
+        AlgorithmConfig.runTasks(tasks, executor, "WWO wave evaluation");
+        space.recordScreened();
+        return System.nanoTime() - start;
+    }
+}
@@ -1,24 +1,55 @@
 package com.example.automl_prototype_1.dataprovider;
 
+import com.example.automl_prototype_1.model.ColumnBuilder;
+import com.example.automl_prototype_1.model.DataColumn;
 import com.example.automl_prototype_1.model.Dataset;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.csv.DuplicateHeaderMode;
 
-// Removed File-specific imports if no longer needed elsewhere in this file
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader; // Required for the input parameter
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Provides functionality to load datasets from CSV sources.
+ * Records are streamed from the parser in fixed-size row chunks straight into
+ * typed {@link ColumnBuilder}s, so no per-row Map or full list of records is
+ * ever held in memory.
  */
 public class CsvDataProvider {
 
+    /** Default number of rows buffered before they are pushed into the column builders. */
+    public static final int DEFAULT_CHUNK_ROWS = 4096;
+
+    /** Charset of CSV files read from disk, by this loader and {@link ParallelCsvDataProvider} alike. */
+    public static final Charset CHARSET = StandardCharsets.UTF_8;
+
     /**
-     * Loads a Dataset from the given Reader.
+     * Loads a Dataset from a CSV file, decoded as {@link #CHARSET}.
+     *
+     * @param csvFile The CSV file.
+     * @return A Dataset object containing the parsed data (without a source File reference).
+     * @throws IOException If the file is invalid or reading/parsing fails.
+     */
+    public Dataset loadDataset(File csvFile) throws IOException {
+        if (csvFile == null || !csvFile.isFile()) {
+            throw new IOException("Invalid CSV file provided: " + (csvFile != null ? csvFile.getPath() : "null"));
+        }
+        try (Reader fileReader = new InputStreamReader(new FileInputStream(csvFile), CHARSET)) {
+            return loadDataset(fileReader);
+        }
+    }
+
+    /**
+     * Loads a Dataset from the given Reader using the default chunk size.
      * Assumes the CSV data has headers in the first row.
      *
      * @param dataReader The Reader providing the CSV data (e.g., InputStreamReader from Android).
@@ -26,27 +57,36 @@ public class CsvDataProvider {
      * @throws IOException If reading or parsing fails.
      */
     public Dataset loadDataset(Reader dataReader) throws IOException {
+        return loadDataset(dataReader, DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Loads a Dataset from the given Reader, streaming rows in chunks of {@code chunkRows}.
+     * Peak memory is the final columnar footprint plus one chunk of cell strings.
+     * Assumes the CSV data has headers in the first row.
+     *
+     * @param dataReader The Reader providing the CSV data.
+     * @param chunkRows Number of rows to buffer per chunk (must be positive).
+     * @return A Dataset object containing the parsed data.
+     * @throws IOException If reading or parsing fails.
+     */
+    public Dataset loadDataset(Reader dataReader, int chunkRows) throws IOException {
         // Check if the provided reader is valid
         if (dataReader == null) {
             throw new IOException("Invalid Reader provided (null). Cannot load dataset.");
         }
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("chunkRows must be positive: " + chunkRows);
+        }
 
-        System.out.println("CsvDataProvider: Loading dataset from Reader...");
-        List<Map<String, String>> recordsList = new ArrayList<>();
+        System.out.println("CsvDataProvider: Loading dataset from Reader (chunk size " + chunkRows + " rows)...");
         List<String> headers; // To store header names
-
-        // Configure the CSV format
-        CSVFormat format = CSVFormat.DEFAULT.builder()
-                .setHeader() // Expect headers in the first row
-                .setSkipHeaderRecord(true) // Skip reading the header row as data
-                .setIgnoreHeaderCase(true) // Ignore case differences in headers
-                .setTrim(true) // Trim whitespace from values
-                .setIgnoreEmptyLines(true) // Ignore blank lines
-                .build();
+        ColumnBuilder[] builders;
+        int recordCount = 0;
 
         // Use try-with-resources to ensure the CSVParser is closed
         // The CSVParser will typically close the underlying Reader it was given
-        try (CSVParser csvParser = format.parse(dataReader)) { // CORRECT: Pass the Reader here
+        try (CSVParser csvParser = openParser(dataReader)) {
 
             // Get headers after parsing starts
             headers = csvParser.getHeaderNames();
@@ -55,36 +95,81 @@ public class CsvDataProvider {
             }
             System.out.println("CsvDataProvider: Headers found: " + headers);
 
-            // Iterate over data records
+            int numCols = headers.size();
+            builders = new ColumnBuilder[numCols];
+            for (int j = 0; j < numCols; j++) {
+                builders[j] = new ColumnBuilder(headers.get(j));
+            }
+
+            // Reusable chunk buffer: chunk[col][row], filled row by row and flushed column by column
+            String[][] chunk = new String[numCols][chunkRows];
+            int filled = 0;
             for (CSVRecord csvRecord : csvParser) {
-                // Convert each record to a Map<String, String> (header -> value)
-                recordsList.add(csvRecord.toMap());
+                int cells = Math.min(csvRecord.size(), numCols);
+                for (int j = 0; j < cells; j++) chunk[j][filled] = csvRecord.get(j);
+                for (int j = cells; j < numCols; j++) chunk[j][filled] = null; // Short row -> missing
+                filled++;
+                if (filled == chunkRows) {
+                    flushChunk(chunk, filled, builders);
+                    recordCount += filled;
+                    filled = 0;
+                }
             }
+            flushChunk(chunk, filled, builders);
+            recordCount += filled;
 
         } // csvParser (and likely dataReader) are closed here
 
+        List<DataColumn> columns = new ArrayList<>(builders.length);
+        for (ColumnBuilder builder : builders) {
+            columns.add(builder.build());
+        }
+
         // Log information about loaded data
-        if (recordsList.isEmpty() && !headers.isEmpty()) {
+        if (recordCount == 0) {
             System.out.println("CsvDataProvider: Warning - Loaded headers but no data records found.");
         } else {
-            System.out.println("CsvDataProvider: Loaded " + recordsList.size() + " records with " + headers.size() + " features.");
+            System.out.println("CsvDataProvider: Loaded " + recordCount + " records with " + headers.size() + " features.");
         }
 
         // Create the Dataset object, passing null for the File reference
         // because we loaded from a Reader.
-        return new Dataset(null, headers, recordsList); // CORRECT: Pass null for File
+        return new Dataset(null, columns);
     }
 
-    // Optional: You can keep the File overload if your desktop app still uses it
-    /*
-    public Dataset loadDataset(java.io.File csvFile) throws IOException {
-        if (csvFile == null || !csvFile.exists() || !csvFile.isFile()) {
-             throw new IOException("Invalid CSV file provided: " + (csvFile != null ? csvFile.getPath() : "null"));
+    /** Configure the CSV format (shared by all load paths). */
+    static CSVFormat createFormat() {
+        return CSVFormat.DEFAULT.builder()
+                .setHeader() // Expect headers in the first row
+                .setSkipHeaderRecord(true) // Skip reading the header row as data
+                .setIgnoreHeaderCase(true) // Ignore case differences in headers
+                .setDuplicateHeaderMode(DuplicateHeaderMode.DISALLOW) // Column names must be unique (ignoring case)
+                .setTrim(true) // Trim whitespace from values
+                .setIgnoreEmptyLines(true) // Ignore blank lines
+                .build();
+    }
+
+    /**
+     * Starts parsing with {@link #createFormat()}, which reads and validates the header.
+     * @throws IOException If the header is invalid (e.g. a duplicate or missing name).
+     */
+    static CSVParser openParser(Reader reader) throws IOException {
+        try {
+            return createFormat().parse(reader);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid CSV header: " + e.getMessage(), e);
         }
-        System.out.println("CsvDataProvider: Loading dataset from File: " + csvFile.getPath());
-        try (Reader fileReader = new java.io.FileReader(csvFile)) { // Create a Reader from the File
-             return loadDataset(fileReader); // Delegate to the Reader method
+    }
+
+    /** Pushes the first {@code rows} buffered rows into the builders and releases the cell strings. */
+    private static void flushChunk(String[][] chunk, int rows, ColumnBuilder[] builders) {
+        for (int j = 0; j < builders.length; j++) {
+            String[] cells = chunk[j];
+            ColumnBuilder builder = builders[j];
+            for (int i = 0; i < rows; i++) {
+                builder.append(cells[i]);
+                cells[i] = null;
+            }
         }
     }
-    */
 }
\ No newline at end of file
@@ -0,0 +1,442 @@
+package com.example.automl_prototype_1.dataprovider;
+
+import com.example.automl_prototype_1.model.DataColumn;
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.DoubleColumn;
+import com.example.automl_prototype_1.model.IntColumn;
+import com.example.automl_prototype_1.model.SourceText;
+import com.example.automl_prototype_1.model.StringColumn;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Binary columnar sidecar cache for parsed datasets.
+ * <p>
+ * After a CSV file is parsed, its columns are written next to it as
+ * {@code <file>.amlcache}. Later loads memory-map the sidecar and bulk-copy the
+ * column blocks instead of re-parsing text. The cache is keyed on the source's
+ * absolute path, size, modification time and a CRC32 of sampled blocks (the first,
+ * middle and last {@value #SAMPLE_BYTES} bytes), so validating a hit reads at most
+ * 3 MB of the source however large it is. Any mismatch (or a corrupt block) makes
+ * {@link #load(File)} return null so the caller re-parses and rewrites it. The
+ * sidecar's own column blocks carry full CRC32 checksums.
+ * <p>
+ * Callers take the {@link #keyFor(File) key} before parsing and pass it to
+ * {@link #store}, so rows parsed from an older version of the file are never filed
+ * under the key of a newer one; a source that changed while it was parsed is not cached.
+ * <p>
+ * File layout (little-endian):
+ * <pre>
+ *   int magic, int version, int headerLength
+ *   header: string path, long size, long mtime, long sampleHash,
+ *           int rows, int columns, {string name, byte type} per column
+ *   long headerChecksum
+ *   per column: long payloadLength, payload, long payloadChecksum
+ *     payload = long[] missingBitmap, then
+ *               INTEGER: int[rows] (padded to 8 bytes), source text |
+ *               DOUBLE: double[rows], source text |
+ *               CATEGORICAL: int[rows] codes (padded), int dictSize, {string} per entry
+ *     source text = int count, {int row, string text} per non-canonical token
+ * </pre>
+ * Strings are stored as int byte length followed by UTF-8 bytes.
+ */
+public class DatasetCache {
+
+    private static final int MAGIC = 0x434C4D41; // "AMLC" when read as little-endian bytes
+    private static final int VERSION = 3; // 2: numeric columns keep their source text; 3: sampled source hash
+    private static final String SUFFIX = ".amlcache";
+    private static final int SAMPLE_BYTES = 1 << 20; // Per sampled block of the source
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Gets the sidecar location for a source file.
+     * @param sourceFile The dataset source file.
+     * @return The cache file next to it.
+     */
+    public File cacheFileFor(File sourceFile) {
+        return new File(sourceFile.getPath() + SUFFIX);
+    }
+
+    /**
+     * Identity of a source file's contents: absolute path, size, modification time and
+     * the sampled hash.
+     */
+    public static final class Key {
+        private final String path;
+        private final long size;
+        private final long mtime;
+        private final long sampleHash;
+
+        private Key(String path, long size, long mtime, long sampleHash) {
+            this.path = path;
+            this.size = size;
+            this.mtime = mtime;
+            this.sampleHash = sampleHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return size == other.size && mtime == other.mtime && sampleHash == other.sampleHash && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, mtime, sampleHash);
+        }
+    }
+
+    /**
+     * Reads the cache key of a source file as it is now. Take it before parsing the file.
+     * @param sourceFile The dataset source file.
+     * @return The key to pass to {@link #store}.
+     * @throws IOException If the file cannot be read.
+     */
+    public Key keyFor(File sourceFile) throws IOException {
+        long size = sourceFile.length();
+        long mtime = sourceFile.lastModified();
+        return new Key(sourceFile.getAbsolutePath(), size, mtime, hashSamples(sourceFile));
+    }
+
+    /**
+     * Loads a dataset from the sidecar cache if it exists and still matches the source file.
+     * @param sourceFile The dataset source file.
+     * @return The cached Dataset, or null if there is no valid cache for the current file contents.
+     */
+    public Dataset load(File sourceFile) {
+        File cacheFile = cacheFileFor(sourceFile);
+        if (!cacheFile.isFile()) return null;
+
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer prefix = readFully(channel, 0, 12);
+            if (prefix.getInt() != MAGIC || prefix.getInt() != VERSION) {
+                System.out.println("DatasetCache: Ignoring cache with unknown format: " + cacheFile.getPath());
+                return null;
+            }
+            int headerLength = prefix.getInt();
+            ByteBuffer header = readFully(channel, 12, headerLength + 8L);
+            if (checksum(header, 0, headerLength) != header.getLong(headerLength)) {
+                System.out.println("DatasetCache: Header checksum mismatch, cache will be rebuilt.");
+                return null;
+            }
+
+            // --- Validate the key (cheap checks first, sampled hash last) ---
+            String path = getString(header);
+            long size = header.getLong();
+            long mtime = header.getLong();
+            long sampleHash = header.getLong();
+            if (!path.equals(sourceFile.getAbsolutePath()) || size != sourceFile.length()
+                    || mtime != sourceFile.lastModified()) {
+                System.out.println("DatasetCache: Source file changed (path/size/mtime), cache is stale.");
+                return null;
+            }
+            if (sampleHash != hashSamples(sourceFile)) {
+                System.out.println("DatasetCache: Source content hash changed, cache is stale.");
+                return null;
+            }
+
+            // --- Schema ---
+            int rows = header.getInt();
+            int numCols = header.getInt();
+            String[] names = new String[numCols];
+            DataColumn.Type[] types = new DataColumn.Type[numCols];
+            for (int j = 0; j < numCols; j++) {
+                names[j] = getString(header);
+                types[j] = DataColumn.Type.values()[header.get()];
+            }
+
+            // --- Column blocks ---
+            long position = 12L + headerLength + 8;
+            List<DataColumn> columns = new ArrayList<>(numCols);
+            for (int j = 0; j < numCols; j++) {
+                long payloadLength = readFully(channel, position, 8).getLong();
+                MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, position + 8, payloadLength);
+                payload.order(ByteOrder.LITTLE_ENDIAN);
+                long storedChecksum = readFully(channel, position + 8 + payloadLength, 8).getLong();
+                if (checksum(payload, 0, (int) payloadLength) != storedChecksum) {
+                    System.out.println("DatasetCache: Checksum mismatch in column '" + names[j] + "', cache will be rebuilt.");
+                    return null;
+                }
+                columns.add(readColumn(payload, names[j], types[j], rows));
+                position += 8 + payloadLength + 8;
+            }
+
+            System.out.println("DatasetCache: Loaded " + rows + " records with " + numCols + " features from " + cacheFile.getPath());
+            return new Dataset(sourceFile, columns);
+
+        } catch (IOException | RuntimeException e) {
+            // A broken cache must never prevent loading the real file
+            System.err.println("DatasetCache: Could not read cache " + cacheFile.getPath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the dataset's columns to the sidecar cache for the given source file.
+     * The file is written to a temporary name and moved into place, so readers never
+     * see a partial cache. Nothing is written if the source no longer matches {@code key}.
+     * Failures are logged and otherwise ignored.
+     * @param sourceFile The dataset source file the data was parsed from.
+     * @param key The source's key from {@link #keyFor(File)}, taken before parsing.
+     * @param dataset The parsed dataset.
+     */
+    public void store(File sourceFile, Key key, Dataset dataset) {
+        File cacheFile = cacheFileFor(sourceFile);
+        Path tempPath = new File(cacheFile.getPath() + ".tmp").toPath();
+        try {
+            if (!key.equals(keyFor(sourceFile))) {
+                System.out.println("DatasetCache: Source changed while it was parsed, not caching it.");
+                return;
+            }
+
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                // --- Header ---
+                ByteBuffer header = newBuffer(64 * 1024);
+                header = putString(header, key.path);
+                header = ensureRemaining(header, 32);
+                header.putLong(key.size).putLong(key.mtime).putLong(key.sampleHash);
+                header.putInt(dataset.getRecordCount()).putInt(dataset.getFeatureCount());
+                for (DataColumn column : dataset.getColumns()) {
+                    header = putString(header, column.getName());
+                    header = ensureRemaining(header, 1);
+                    header.put((byte) column.getType().ordinal());
+                }
+                int headerLength = header.position();
+                header.flip();
+                ByteBuffer prefix = newBuffer(12).putInt(MAGIC).putInt(VERSION).putInt(headerLength);
+                prefix.flip();
+                writeFully(channel, prefix);
+                long headerChecksum = checksum(header, 0, headerLength);
+                writeFully(channel, header);
+                writeFully(channel, newBuffer(8).putLong(headerChecksum).flip());
+
+                // --- Column blocks ---
+                for (DataColumn column : dataset.getColumns()) {
+                    writeColumn(channel, column);
+                }
+                channel.force(false);
+            }
+            Files.move(tempPath, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("DatasetCache: Wrote cache " + cacheFile.getPath() + " (" + cacheFile.length() + " bytes).");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("DatasetCache: Could not write cache " + cacheFile.getPath() + ": " + e.getMessage());
+            try { Files.deleteIfExists(tempPath); } catch (IOException ignored) { }
+        }
+    }
+
+    // --- Column encoding ---
+
+    private void writeColumn(FileChannel channel, DataColumn column) throws IOException {
+        long payloadStart = channel.position() + 8;
+        channel.position(payloadStart); // Length is patched in once the payload is written
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = newBuffer(IO_BUFFER_BYTES);
+
+        long[] missing = column.getMissingBitmap();
+        for (int w = 0, words = (column.size() + 63) >>> 6; w < words; w++) {
+            buffer = flushIfFull(channel, buffer, crc, 8);
+            buffer.putLong(missing[w]);
+        }
+        switch (column.getType()) {
+            case INTEGER:
+                for (int value : ((IntColumn) column).getValues()) {
+                    buffer = flushIfFull(channel, buffer, crc, 4);
+                    buffer.putInt(value);
+                }
+                buffer = padTo8(channel, buffer, crc, column.size());
+                buffer = writeSourceText(channel, buffer, crc, ((IntColumn) column).getSourceText());
+                break;
+            case DOUBLE:
+                for (double value : ((DoubleColumn) column).getValues()) {
+                    buffer = flushIfFull(channel, buffer, crc, 8);
+                    buffer.putDouble(value);
+                }
+                buffer = writeSourceText(channel, buffer, crc, ((DoubleColumn) column).getSourceText());
+                break;
+            default:
+                StringColumn strings = (StringColumn) column;
+                for (int code : strings.getCodes()) {
+                    buffer = flushIfFull(channel, buffer, crc, 4);
+                    buffer.putInt(code);
+                }
+                buffer = padTo8(channel, buffer, crc, column.size());
+                buffer = flushIfFull(channel, buffer, crc, 4);
+                buffer.putInt(strings.getDictionary().length);
+                for (String value : strings.getDictionary()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    buffer = flushIfFull(channel, buffer, crc, 4 + bytes.length);
+                    buffer.putInt(bytes.length).put(bytes);
+                }
+        }
+        flush(channel, buffer, crc);
+
+        long payloadEnd = channel.position();
+        writeFully(channel, newBuffer(8).putLong(crc.getValue()).flip());
+        long blockEnd = channel.position();
+        channel.position(payloadStart - 8);
+        writeFully(channel, newBuffer(8).putLong(payloadEnd - payloadStart).flip());
+        channel.position(blockEnd);
+    }
+
+    private static DataColumn readColumn(ByteBuffer payload, String name, DataColumn.Type type, int rows) {
+        long[] missing = new long[(rows + 63) >>> 6];
+        payload.asLongBuffer().get(missing);
+        payload.position(missing.length * 8);
+        int paddedIntBytes = ((rows * 4) + 7) & ~7;
+        switch (type) {
+            case INTEGER: {
+                int[] values = new int[rows];
+                payload.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values);
+                payload.position(payload.position() + paddedIntBytes);
+                return new IntColumn(name, values, missing, readSourceText(payload));
+            }
+            case DOUBLE: {
+                double[] values = new double[rows];
+                payload.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values);
+                payload.position(payload.position() + rows * 8);
+                return new DoubleColumn(name, values, missing, readSourceText(payload));
+            }
+            default: {
+                int[] codes = new int[rows];
+                payload.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(codes);
+                payload.position(payload.position() + paddedIntBytes);
+                String[] dictionary = new String[payload.getInt()];
+                for (int i = 0; i < dictionary.length; i++) dictionary[i] = getString(payload);
+                return new StringColumn(name, codes, dictionary, missing);
+            }
+        }
+    }
+
+    private static ByteBuffer writeSourceText(FileChannel channel, ByteBuffer buffer, CRC32 crc,
+                                              SourceText text) throws IOException {
+        int count = (text != null) ? text.size() : 0;
+        buffer = flushIfFull(channel, buffer, crc, 4);
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = text.getText(i).getBytes(StandardCharsets.UTF_8);
+            buffer = flushIfFull(channel, buffer, crc, 8 + bytes.length);
+            buffer.putInt(text.getRow(i)).putInt(bytes.length).put(bytes);
+        }
+        return buffer;
+    }
+
+    private static SourceText readSourceText(ByteBuffer payload) {
+        int count = payload.getInt();
+        if (count == 0) return null;
+        int[] rows = new int[count];
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = payload.getInt();
+            texts[i] = getString(payload);
+        }
+        return new SourceText(rows, texts);
+    }
+
+    // --- Hashing ---
+
+    /**
+     * CRC32 over the first, middle and last {@link #SAMPLE_BYTES} of the source (the whole
+     * file when it is smaller than three blocks). Together with size and mtime this catches
+     * rewritten files without reading all of a large source on every cache hit.
+     */
+    private static long hashSamples(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= 3L * SAMPLE_BYTES) {
+                if (size > 0) crc.update(readFully(channel, 0, size));
+            } else {
+                crc.update(readFully(channel, 0, SAMPLE_BYTES));
+                crc.update(readFully(channel, size / 2 - SAMPLE_BYTES / 2, SAMPLE_BYTES));
+                crc.update(readFully(channel, size - SAMPLE_BYTES, SAMPLE_BYTES));
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static long checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset).limit(offset + length);
+        crc.update(view);
+        return crc.getValue();
+    }
+
+    // --- Buffer helpers ---
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) return buffer;
+        ByteBuffer bigger = newBuffer(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = ensureRemaining(buffer, 4 + bytes.length);
+        return buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer flushIfFull(FileChannel channel, ByteBuffer buffer, CRC32 crc, int needed) throws IOException {
+        if (buffer.remaining() < needed) flush(channel, buffer, crc);
+        return ensureRemaining(buffer, needed); // Only grows for dictionary entries larger than the buffer
+    }
+
+    private static ByteBuffer padTo8(FileChannel channel, ByteBuffer buffer, CRC32 crc, int intCount) throws IOException {
+        if ((intCount & 1) == 1) {
+            buffer = flushIfFull(channel, buffer, crc, 4);
+            buffer.putInt(0);
+        }
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, long length) throws IOException {
+        if (length > Integer.MAX_VALUE || position + length > channel.size()) {
+            throw new IOException("Truncated cache file.");
+        }
+        ByteBuffer buffer = newBuffer((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Truncated cache file.");
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.automl_prototype_1.dataprovider;
+
+import com.example.automl_prototype_1.model.ColumnBuilder;
+import com.example.automl_prototype_1.model.DataColumn;
+import com.example.automl_prototype_1.model.Dataset;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a CSV file on multiple cores.
+ * <p>
+ * The file is memory-mapped and cut into byte ranges that start on record boundaries.
+ * Boundaries are found quote-aware in two parallel passes: first every segment counts
+ * its quote characters, then each segment start is advanced to the first newline that
+ * lies outside a quoted field (the quote parity at the segment start is known from the
+ * counts of all earlier segments). Each range is then parsed independently into its
+ * own column builders on a {@link ForkJoinPool}, and the per-range columns are
+ * concatenated in file order, so row order matches a sequential load.
+ */
+public class ParallelCsvDataProvider {
+
+    /** Upper bound for one mapped range; MappedByteBuffer is limited to 2 GB. */
+    private static final long MAX_SEGMENT_BYTES = 256L * 1024 * 1024;
+    /** Segments per worker thread, for load balancing between ranges of uneven density. */
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    private final int parallelism;
+
+    /**
+     * Creates a loader that uses all available processors.
+     */
+    public ParallelCsvDataProvider() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a loader with a fixed number of worker threads.
+     * @param parallelism The number of threads used for parsing (must be positive).
+     */
+    public ParallelCsvDataProvider(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Loads a Dataset from a CSV file using parallel range parsing.
+     * Assumes the CSV data has headers in the first row (same format as {@link CsvDataProvider}).
+     *
+     * @param csvFile The CSV file.
+     * @return A Dataset object containing the parsed data, with the file as its source.
+     * @throws IOException If the file is invalid or reading/parsing fails.
+     */
+    public Dataset loadDataset(File csvFile) throws IOException {
+        if (csvFile == null || !csvFile.isFile()) {
+            throw new IOException("Invalid CSV file provided: " + (csvFile != null ? csvFile.getPath() : "null"));
+        }
+        System.out.println("ParallelCsvDataProvider: Loading " + csvFile.getPath() + " with " + parallelism + " threads...");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(csvFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+
+            // --- 1. Header record (sequential, it is only one line) ---
+            long headerEnd = findRecordEnd(channel, 0, fileSize);
+            List<String> headers = parseHeader(channel, headerEnd);
+            if (headers.isEmpty()) {
+                throw new IOException("Could not read headers from CSV file or source is empty.");
+            }
+            System.out.println("ParallelCsvDataProvider: Headers found: " + headers);
+
+            // --- 2. Split the data region into record-aligned ranges ---
+            long[] bounds = splitIntoRanges(channel, headerEnd, fileSize, pool);
+
+            // --- 3. Parse every range in parallel ---
+            int numCols = headers.size();
+            List<Callable<List<DataColumn>>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                tasks.add(() -> parseRange(channel, start, end, headers));
+            }
+            List<List<DataColumn>> parts = new ArrayList<>(tasks.size());
+            for (Future<List<DataColumn>> future : pool.invokeAll(tasks)) {
+                parts.add(future.get());
+            }
+
+            // --- 4. Merge the parts in file order ---
+            List<DataColumn> columns = new ArrayList<>(numCols);
+            for (int j = 0; j < numCols; j++) {
+                List<DataColumn> columnParts = new ArrayList<>(parts.size());
+                for (List<DataColumn> part : parts) columnParts.add(part.get(j));
+                columns.add(DataColumn.concat(headers.get(j), columnParts));
+            }
+            Dataset dataset = new Dataset(csvFile, columns);
+            System.out.println("ParallelCsvDataProvider: Loaded " + dataset.getRecordCount() + " records with "
+                    + numCols + " features from " + parts.size() + " ranges.");
+            return dataset;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parallel CSV load interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Parallel CSV load failed: " + cause.getMessage(), cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // --- Range splitting ---
+
+    /**
+     * Computes record-aligned range boundaries for [dataStart, fileSize).
+     * @return Boundaries b[0..n]; range i is [b[i], b[i+1]).
+     */
+    private long[] splitIntoRanges(FileChannel channel, long dataStart, long fileSize, ForkJoinPool pool)
+            throws InterruptedException, ExecutionException {
+        long dataSize = fileSize - dataStart;
+        int segments = (int) Math.max(1, Math.max(
+                Math.min((long) parallelism * SEGMENTS_PER_THREAD, dataSize / (64 * 1024)),
+                (dataSize + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES));
+        long[] nominal = new long[segments + 1];
+        for (int i = 0; i <= segments; i++) nominal[i] = dataStart + dataSize * i / segments;
+
+        // Pass 1: count quotes per nominal segment
+        List<Callable<Long>> countTasks = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            long start = nominal[i];
+            long end = nominal[i + 1];
+            countTasks.add(() -> countQuotes(channel, start, end));
+        }
+        List<Future<Long>> counts = pool.invokeAll(countTasks);
+
+        // Quote parity at each nominal start follows from the counts of all earlier segments
+        boolean[] inQuoteAtStart = new boolean[segments];
+        long quotes = 0;
+        for (int i = 0; i < segments; i++) {
+            inQuoteAtStart[i] = (quotes & 1) == 1;
+            quotes += counts.get(i).get();
+        }
+
+        // Pass 2: advance every nominal start to the first record boundary
+        List<Callable<Long>> alignTasks = new ArrayList<>(segments);
+        for (int i = 1; i < segments; i++) {
+            long start = nominal[i];
+            boolean inQuote = inQuoteAtStart[i];
+            alignTasks.add(() -> findBoundary(channel, start, fileSize, inQuote));
+        }
+        List<Future<Long>> aligned = pool.invokeAll(alignTasks);
+
+        long[] bounds = new long[segments + 1];
+        bounds[0] = dataStart;
+        for (int i = 1; i < segments; i++) {
+            // Keep boundaries monotonic when a long quoted field swallows a whole segment
+            bounds[i] = Math.max(bounds[i - 1], aligned.get(i - 1).get());
+        }
+        bounds[segments] = fileSize;
+        return bounds;
+    }
+
+    private static long countQuotes(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        long count = 0;
+        int limit = buffer.limit();
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '"') count++;
+        }
+        return count;
+    }
+
+    /**
+     * Scans forward from {@code start} for the first newline outside quotes.
+     * @return The offset just after that newline, or {@code fileSize} if there is none.
+     */
+    private static long findBoundary(FileChannel channel, long start, long fileSize, boolean inQuote) throws IOException {
+        long position = start;
+        while (position < fileSize) {
+            long length = Math.min(MAX_SEGMENT_BYTES, fileSize - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuote = !inQuote;
+                } else if (b == '\n' && !inQuote) {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return fileSize;
+    }
+
+    /** @return The offset just after the first record (the header line). */
+    private static long findRecordEnd(FileChannel channel, long start, long fileSize) throws IOException {
+        return findBoundary(channel, start, fileSize, false);
+    }
+
+    // --- Parsing ---
+
+    /** Reads the header through the sequential loader's format, so names are validated the same way. */
+    private static List<String> parseHeader(FileChannel channel, long headerEnd) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerEnd);
+        try (CSVParser parser = CsvDataProvider.openParser(newReader(buffer))) {
+            List<String> headers = parser.getHeaderNames();
+            return (headers != null) ? headers : List.of();
+        }
+    }
+
+    private static List<DataColumn> parseRange(FileChannel channel, long start, long end, List<String> headers)
+            throws IOException {
+        int numCols = headers.size();
+        ColumnBuilder[] builders = new ColumnBuilder[numCols];
+        for (int j = 0; j < numCols; j++) builders[j] = new ColumnBuilder(headers.get(j));
+
+        if (end > start) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            try (CSVParser parser = createRangeFormat().parse(newReader(buffer))) {
+                for (CSVRecord record : parser) {
+                    int cells = Math.min(record.size(), numCols);
+                    for (int j = 0; j < cells; j++) builders[j].append(record.get(j));
+                    for (int j = cells; j < numCols; j++) builders[j].append(null); // Short row -> missing
+                }
+            }
+        }
+
+        List<DataColumn> columns = new ArrayList<>(numCols);
+        for (ColumnBuilder builder : builders) columns.add(builder.build());
+        return columns;
+    }
+
+    /** Same options as {@link CsvDataProvider}, but without header handling (ranges have no header). */
+    private static CSVFormat createRangeFormat() {
+        return CSVFormat.DEFAULT.builder()
+                .setTrim(true)
+                .setIgnoreEmptyLines(true)
+                .build();
+    }
+
+    /**
+     * Decodes as {@link CsvDataProvider#CHARSET} (UTF-8). Ranges end right after a '\n'
+     * byte, which never occurs inside a multi-byte UTF-8 sequence, so each range can be
+     * decoded on its own.
+     */
+    private static Reader newReader(ByteBuffer buffer) {
+        return new InputStreamReader(new ByteBufferInputStream(buffer), CsvDataProvider.CHARSET);
+    }
+
+    /** Minimal InputStream over a (mapped) ByteBuffer, avoiding a copy onto the heap. */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) { this.buffer = buffer; }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() { return buffer.remaining(); }
+    }
+}
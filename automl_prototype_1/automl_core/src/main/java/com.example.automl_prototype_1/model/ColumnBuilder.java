@@ -0,0 +1,278 @@
+package com.example.automl_prototype_1.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incrementally builds a typed {@link DataColumn} from raw cell strings.
+ * The column type is inferred on the fly: it starts as INTEGER, is promoted to
+ * DOUBLE when a non-integer number appears, and to CATEGORICAL when a
+ * non-numeric value appears. Blank cells are recorded as missing.
+ * <p>
+ * While the column is numeric, tokens whose text is not the canonical text of their
+ * value (e.g. "007", or "1" once the column is DOUBLE) are kept in a {@link SourceText},
+ * so promotion to CATEGORICAL and {@link DataColumn#getString(int)} see the original
+ * tokens.
+ */
+public class ColumnBuilder {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final String name;
+    private DataColumn.Type type = DataColumn.Type.INTEGER;
+    private int size = 0;
+    private int nonMissing = 0;
+
+    // Only the array for the current type is non-null
+    private int[] ints;
+    private double[] doubles;
+    private int[] codes;
+    private Map<String, Integer> dictionaryIndex;
+    private String[] dictionary;
+
+    private long[] missing;
+    private SourceText sourceText = new SourceText(); // Non-canonical tokens while numeric
+    private double parsedValue; // Scratch slot for parseDouble()
+
+    /**
+     * Creates a builder with a default initial capacity.
+     * @param name The column name.
+     */
+    public ColumnBuilder(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a builder sized for an expected number of rows.
+     * @param name The column name.
+     * @param expectedRows Initial capacity (rows); grows automatically if exceeded.
+     */
+    public ColumnBuilder(String name, int expectedRows) {
+        this.name = name;
+        int capacity = Math.max(16, expectedRows);
+        this.ints = new int[capacity];
+        this.missing = new long[DataColumn.wordsFor(capacity)];
+    }
+
+    /** @return The column name. */
+    public String getName() { return name; }
+
+    /** @return The number of values appended so far. */
+    public int size() { return size; }
+
+    /** @return The type inferred from the values appended so far. */
+    public DataColumn.Type getType() { return type; }
+
+    /**
+     * Appends one raw cell value. Null or blank values are recorded as missing.
+     * @param raw The cell text (expected to be already trimmed by the parser).
+     */
+    public void append(String raw) {
+        ensureCapacity(size + 1);
+        if (raw == null || raw.isBlank()) {
+            appendMissing();
+            return;
+        }
+        switch (type) {
+            case INTEGER:
+                if (isPlainInt(raw)) {
+                    if (!isCanonicalInt(raw)) sourceText.add(size, raw);
+                    ints[size++] = Integer.parseInt(raw);
+                    nonMissing++;
+                    return;
+                }
+                if (parseDouble(raw)) {
+                    promoteToDouble();
+                    appendDouble(raw);
+                } else {
+                    promoteToCategorical();
+                    codes[size++] = encode(raw);
+                }
+                nonMissing++;
+                return;
+            case DOUBLE:
+                if (parseDouble(raw)) {
+                    appendDouble(raw);
+                } else {
+                    promoteToCategorical();
+                    codes[size++] = encode(raw);
+                }
+                nonMissing++;
+                return;
+            default: // CATEGORICAL
+                codes[size++] = encode(raw);
+                nonMissing++;
+        }
+    }
+
+    /**
+     * Builds the immutable column. Arrays are trimmed to the exact row count.
+     * A column with no values at all is built as an all-missing DOUBLE column.
+     * @return The finished column.
+     */
+    public DataColumn build() {
+        long[] bitmap = Arrays.copyOf(missing, DataColumn.wordsFor(size));
+        if (nonMissing == 0 && type == DataColumn.Type.INTEGER) {
+            double[] nan = new double[size];
+            Arrays.fill(nan, Double.NaN);
+            return new DoubleColumn(name, nan, bitmap);
+        }
+        switch (type) {
+            case INTEGER:
+                return new IntColumn(name, Arrays.copyOf(ints, size), bitmap, sourceText.compact());
+            case DOUBLE:
+                return new DoubleColumn(name, Arrays.copyOf(doubles, size), bitmap, sourceText.compact());
+            default:
+                return new StringColumn(name, Arrays.copyOf(codes, size),
+                        Arrays.copyOf(dictionary, dictionaryIndex.size()), bitmap);
+        }
+    }
+
+    /**
+     * Creates a builder that stores every value as a dictionary-encoded string,
+     * skipping numeric type inference.
+     * @param name The column name.
+     * @param expectedRows Initial capacity (rows).
+     * @return A builder already in CATEGORICAL mode.
+     */
+    static ColumnBuilder categorical(String name, int expectedRows) {
+        ColumnBuilder builder = new ColumnBuilder(name, expectedRows);
+        builder.promoteToCategorical();
+        return builder;
+    }
+
+    // --- Internal helpers ---
+
+    /** Appends {@link #parsedValue}, keeping {@code raw} if it is not the value's canonical text. */
+    private void appendDouble(String raw) {
+        if (!raw.equals(Double.toString(parsedValue))) sourceText.add(size, raw);
+        doubles[size++] = parsedValue;
+    }
+
+    private void appendMissing() {
+        missing[size >>> 6] |= 1L << size;
+        switch (type) {
+            case INTEGER: ints[size] = 0; break;
+            case DOUBLE: doubles[size] = Double.NaN; break;
+            default: codes[size] = -1;
+        }
+        size++;
+    }
+
+    private boolean isMissingRow(int row) {
+        return (missing[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = currentCapacity();
+        if (required <= capacity) return;
+        int newCapacity = Math.max(required, capacity + (capacity >> 1));
+        switch (type) {
+            case INTEGER: ints = Arrays.copyOf(ints, newCapacity); break;
+            case DOUBLE: doubles = Arrays.copyOf(doubles, newCapacity); break;
+            default: codes = Arrays.copyOf(codes, newCapacity);
+        }
+        int words = DataColumn.wordsFor(newCapacity);
+        if (words > missing.length) missing = Arrays.copyOf(missing, words);
+    }
+
+    private int currentCapacity() {
+        switch (type) {
+            case INTEGER: return ints.length;
+            case DOUBLE: return doubles.length;
+            default: return codes.length;
+        }
+    }
+
+    private void promoteToDouble() {
+        // An int's text is never the canonical text of a double ("1" vs "1.0"), so every value row keeps its token
+        SourceText widened = new SourceText();
+        doubles = new double[ints.length];
+        for (int i = 0; i < size; i++) {
+            if (isMissingRow(i)) {
+                doubles[i] = Double.NaN;
+            } else {
+                doubles[i] = ints[i];
+                widened.add(i, intText(i));
+            }
+        }
+        ints = null;
+        sourceText = widened;
+        type = DataColumn.Type.DOUBLE;
+    }
+
+    private void promoteToCategorical() {
+        int capacity = currentCapacity();
+        dictionaryIndex = new HashMap<>();
+        dictionary = new String[16];
+        codes = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            if (isMissingRow(i)) {
+                codes[i] = -1;
+            } else if (type == DataColumn.Type.INTEGER) {
+                codes[i] = encode(intText(i));
+            } else {
+                String text = sourceText.get(i);
+                codes[i] = encode(text != null ? text : Double.toString(doubles[i]));
+            }
+        }
+        ints = null;
+        doubles = null;
+        sourceText = null;
+        type = DataColumn.Type.CATEGORICAL;
+    }
+
+    /** @return The source token of an INTEGER row. */
+    private String intText(int row) {
+        String text = sourceText.get(row);
+        return (text != null) ? text : Integer.toString(ints[row]);
+    }
+
+    private int encode(String value) {
+        Integer code = dictionaryIndex.get(value);
+        if (code != null) return code;
+        int newCode = dictionaryIndex.size();
+        if (newCode == dictionary.length) dictionary = Arrays.copyOf(dictionary, newCode * 2);
+        dictionary[newCode] = value;
+        dictionaryIndex.put(value, newCode);
+        return newCode;
+    }
+
+    /** Fast check for an optionally signed decimal integer that fits in an int (avoids exceptions). */
+    private static boolean isPlainInt(String s) {
+        int len = s.length();
+        int start = (s.charAt(0) == '-' || s.charAt(0) == '+') ? 1 : 0;
+        int digits = len - start;
+        if (digits <= 0 || digits > 9) return false; // 9 digits always fit in an int
+        for (int i = start; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    /** @return True if {@code s} (a plain int) is what Integer.toString gives for its value. */
+    private static boolean isCanonicalInt(String s) {
+        int start = (s.charAt(0) == '-') ? 1 : 0;
+        if (s.charAt(0) == '+') return false;
+        if (s.charAt(start) == '0') return s.length() == 1; // Leading zeros and "-0" are not canonical
+        return true;
+    }
+
+    /** Parses {@code s} into {@link #parsedValue}; returns false if it is not a number (no boxing per cell). */
+    private boolean parseDouble(String s) {
+        // Cheap pre-check so obviously non-numeric text does not pay for an exception
+        char first = s.charAt(0);
+        if (!(first >= '0' && first <= '9') && first != '-' && first != '+' && first != '.'
+                && first != 'N' && first != 'I') {
+            return false;
+        }
+        try {
+            parsedValue = Double.parseDouble(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
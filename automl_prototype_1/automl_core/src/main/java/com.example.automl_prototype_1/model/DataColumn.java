@@ -0,0 +1,176 @@
+package com.example.automl_prototype_1.model;
+
+import java.util.List;
+
+/**
+ * Base class for a single typed column of a columnar {@link Dataset}.
+ * Values are held in primitive arrays by the concrete subclasses; missing cells
+ * are tracked in a bitmap (one bit per row, bit set = value missing).
+ */
+public abstract class DataColumn {
+
+    /** Physical storage type of a column. */
+    public enum Type {
+        INTEGER,     // int[] values
+        DOUBLE,      // double[] values
+        CATEGORICAL  // dictionary-encoded strings (int[] codes + String[] dictionary)
+    }
+
+    private final String name;
+    protected final int size;
+    private final long[] missing; // Bitmap, never null (may be all zeros)
+    private final int missingCount;
+
+    /**
+     * Constructor for subclasses.
+     * @param name The column name (header).
+     * @param size The number of rows in the column.
+     * @param missing The missing-value bitmap, or null if no value is missing.
+     */
+    protected DataColumn(String name, int size, long[] missing) {
+        this.name = name;
+        this.size = size;
+        this.missing = (missing != null) ? missing : new long[wordsFor(size)];
+        int count = 0;
+        for (long word : this.missing) count += Long.bitCount(word);
+        this.missingCount = count;
+    }
+
+    // --- Getters ---
+
+    /** @return The column name (header). */
+    public String getName() { return name; }
+
+    /** @return The number of rows in this column. */
+    public int size() { return size; }
+
+    /** @return The physical storage type of this column. */
+    public abstract Type getType();
+
+    /**
+     * Checks whether the cell at the given row is missing (was blank in the source).
+     * @param row The row index.
+     * @return true if the value is missing.
+     */
+    public boolean isMissing(int row) {
+        return (missing[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /** @return The number of missing cells in this column. */
+    public int getMissingCount() { return missingCount; }
+
+    /**
+     * Gets the backing missing-value bitmap (no copy). Bit {@code row % 64} of word
+     * {@code row / 64} is set when the row is missing. Callers must not modify it.
+     * @return The bitmap words.
+     */
+    public long[] getMissingBitmap() { return missing; }
+
+    /**
+     * Gets the cell as the token the source held (numeric columns keep non-canonical
+     * tokens such as "007" in a {@link SourceText}). Missing cells are returned as an
+     * empty string, which matches what the CSV parser produced for blank fields.
+     * @param row The row index.
+     * @return The cell text.
+     */
+    public abstract String getString(int row);
+
+    /**
+     * Gets the cell as a double. Missing cells (and non-numeric categorical values) return NaN.
+     * @param row The row index.
+     * @return The numeric value, or NaN.
+     */
+    public abstract double getDouble(int row);
+
+    /**
+     * Concatenates column parts (e.g. parsed from consecutive file ranges) into one column,
+     * preserving row order. Parts of different types are widened to the widest type
+     * (INTEGER &lt; DOUBLE &lt; CATEGORICAL) from their source tokens, exactly as
+     * {@link ColumnBuilder} promotes a column, so the result equals the column a single
+     * builder would have produced from all rows.
+     * @param name The name of the merged column.
+     * @param parts The parts in row order.
+     * @return The merged column.
+     */
+    public static DataColumn concat(String name, List<DataColumn> parts) {
+        int total = 0;
+        Type widest = Type.INTEGER;
+        boolean anyValue = false;
+        for (DataColumn part : parts) {
+            total += part.size();
+            if (part.getMissingCount() == part.size()) continue; // All-missing parts do not decide the type
+            anyValue = true;
+            if (part.getType().ordinal() > widest.ordinal()) widest = part.getType();
+        }
+        if (!anyValue) widest = Type.DOUBLE;
+
+        long[] bitmap = new long[wordsFor(total)];
+        int offset = 0;
+        for (DataColumn part : parts) {
+            for (int i = 0; i < part.size(); i++) {
+                if (part.isMissing(i)) bitmap[(offset + i) >>> 6] |= 1L << (offset + i);
+            }
+            offset += part.size();
+        }
+
+        offset = 0;
+        switch (widest) {
+            case INTEGER: {
+                int[] values = new int[total];
+                SourceText text = new SourceText();
+                for (DataColumn part : parts) {
+                    if (part instanceof IntColumn) {
+                        IntColumn ints = (IntColumn) part;
+                        System.arraycopy(ints.getValues(), 0, values, offset, part.size());
+                        appendShifted(text, ints.getSourceText(), offset);
+                    } // Other parts are all-missing here; zeros are correct
+                    offset += part.size();
+                }
+                return new IntColumn(name, values, bitmap, text.compact());
+            }
+            case DOUBLE: {
+                double[] values = new double[total];
+                SourceText text = new SourceText();
+                for (DataColumn part : parts) {
+                    if (part instanceof DoubleColumn) {
+                        DoubleColumn doubles = (DoubleColumn) part;
+                        System.arraycopy(doubles.getValues(), 0, values, offset, part.size());
+                        appendShifted(text, doubles.getSourceText(), offset);
+                    } else {
+                        for (int i = 0; i < part.size(); i++) {
+                            values[offset + i] = part.getDouble(i);
+                            // Widened ints keep their token, as in ColumnBuilder's promotion to DOUBLE
+                            if (part instanceof IntColumn && !part.isMissing(i)) text.add(offset + i, part.getString(i));
+                        }
+                    }
+                    offset += part.size();
+                }
+                return new DoubleColumn(name, values, bitmap, text.compact());
+            }
+            default: {
+                ColumnBuilder builder = ColumnBuilder.categorical(name, total);
+                for (DataColumn part : parts) {
+                    for (int i = 0; i < part.size(); i++) builder.append(part.getString(i));
+                }
+                return builder.build();
+            }
+        }
+    }
+
+    private static void appendShifted(SourceText target, SourceText part, int offset) {
+        if (part == null) return;
+        for (int i = 0; i < part.size(); i++) target.add(offset + part.getRow(i), part.getText(i));
+    }
+
+    /** @return The number of 64-bit words needed for a bitmap of {@code rows} bits. */
+    static int wordsFor(int rows) { return (rows + 63) >>> 6; }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "name='" + name + '\'' +
+                ", size=" + size +
+                ", missing=" + missingCount +
+                '}';
+    }
+}
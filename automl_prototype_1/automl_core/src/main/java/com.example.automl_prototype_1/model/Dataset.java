@@ -1,31 +1,84 @@
 package com.example.automl_prototype_1.model;
 
 import java.io.File;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
- * Represents a loaded dataset, storing headers and records (as Maps).
+ * Represents a loaded dataset backed by columnar storage.
+ * Each column is held as a typed primitive array ({@link IntColumn}, {@link DoubleColumn})
+ * or a dictionary-encoded {@link StringColumn}, with a per-column missing-value bitmap.
+ * The row-oriented {@link #getRecords()} view is computed lazily for existing callers.
  * Can be initialized with or without a source File reference.
  */
 public class Dataset {
     private final File sourceFile; // Can be null if loaded from a stream/reader
     private final List<String> headers;
-    private final List<Map<String, String>> records;
+    private final List<DataColumn> columns;
+    private final Map<String, Integer> columnIndex; // header -> column position
+    private final int recordCount;
+    private final List<Map<String, String>> recordsView;
 
     /**
-     * Constructor for the Dataset.
+     * Constructor for a columnar Dataset.
+     * @param sourceFile The original source file, or null if loaded from another source.
+     * @param columns The typed columns; all must have the same number of rows.
+     */
+    public Dataset(File sourceFile, List<DataColumn> columns) {
+        this.sourceFile = sourceFile;
+        this.columns = (columns != null)
+                ? Collections.unmodifiableList(new ArrayList<>(columns)) : Collections.emptyList();
+        List<String> names = new ArrayList<>(this.columns.size());
+        this.columnIndex = new HashMap<>();
+        int rows = -1;
+        for (int i = 0; i < this.columns.size(); i++) {
+            DataColumn column = this.columns.get(i);
+            if (rows >= 0 && column.size() != rows) {
+                throw new IllegalArgumentException("Column '" + column.getName() + "' has " + column.size()
+                        + " rows, expected " + rows + ".");
+            }
+            rows = column.size();
+            names.add(column.getName());
+            this.columnIndex.putIfAbsent(column.getName(), i);
+        }
+        this.headers = Collections.unmodifiableList(names);
+        this.recordCount = Math.max(0, rows);
+        this.recordsView = new RecordListView();
+    }
+
+    /**
+     * Constructor for the Dataset from row maps (kept for compatibility).
+     * The records are converted into columnar storage; the maps are not retained.
      * @param sourceFile The original source file, or null if loaded from another source.
      * @param headers The list of header names (column names).
      * @param records A list of maps, where each map represents a record (row)
      *                with header names as keys and cell values as strings.
      */
     public Dataset(File sourceFile, List<String> headers, List<Map<String, String>> records) {
-        this.sourceFile = sourceFile;
-        // Ensure headers and records are not null, even if empty
-        this.headers = (headers != null) ? new ArrayList<>(headers) : new ArrayList<>();
-        this.records = (records != null) ? new ArrayList<>(records) : new ArrayList<>();
+        this(sourceFile, toColumns(headers, records));
+    }
+
+    private static List<DataColumn> toColumns(List<String> headers, List<Map<String, String>> records) {
+        List<String> safeHeaders = (headers != null) ? headers : Collections.<String>emptyList();
+        List<Map<String, String>> safeRecords = (records != null) ? records : Collections.<Map<String, String>>emptyList();
+        List<DataColumn> result = new ArrayList<>(safeHeaders.size());
+        for (String header : safeHeaders) {
+            ColumnBuilder builder = new ColumnBuilder(header, safeRecords.size());
+            for (Map<String, String> record : safeRecords) {
+                builder.append(record != null ? record.get(header) : null);
+            }
+            result.add(builder.build());
+        }
+        return result;
     }
 
     // --- Getters ---
@@ -41,24 +94,47 @@ public class Dataset {
      * @return An unmodifiable list of header strings.
      */
     public List<String> getHeaders() {
-        // Consider returning Collections.unmodifiableList(headers) for immutability
         return headers;
     }
 
     /**
      * Gets the records as a list of maps.
+     * The list and its maps are lazy, read-only views over the columns; cells are
+     * rendered as strings on access. Prefer {@link #getColumn(int)} for bulk access.
      * @return An unmodifiable list where each map represents a row (header -> value).
      */
     public List<Map<String, String>> getRecords() {
-        // Consider returning Collections.unmodifiableList(records)
-        return records;
+        return recordsView;
+    }
+
+    /**
+     * Gets all typed columns in header order.
+     * @return An unmodifiable list of columns.
+     */
+    public List<DataColumn> getColumns() { return columns; }
+
+    /**
+     * Gets a column by position.
+     * @param index The column index (same order as {@link #getHeaders()}).
+     * @return The column.
+     */
+    public DataColumn getColumn(int index) { return columns.get(index); }
+
+    /**
+     * Gets a column by header name.
+     * @param header The column name.
+     * @return The column, or null if no such column exists.
+     */
+    public DataColumn getColumn(String header) {
+        Integer index = columnIndex.get(header);
+        return (index != null) ? columns.get(index) : null;
     }
 
     /**
      * Gets the number of data records (rows) in the dataset.
      * @return The count of records.
      */
-    public int getRecordCount() { return records.size(); }
+    public int getRecordCount() { return recordCount; }
 
     /**
      * Gets the number of features (columns) based on the header count.
@@ -83,4 +159,62 @@ public class Dataset {
                 ", features=" + getFeatureCount() +
                 '}';
     }
-}
\ No newline at end of file
+
+    // --- Lazy row views (compatibility with the original Map-based API) ---
+
+    private class RecordListView extends AbstractList<Map<String, String>> {
+        @Override
+        public Map<String, String> get(int row) {
+            if (row < 0 || row >= recordCount) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + recordCount + ")");
+            }
+            return new RowView(row);
+        }
+
+        @Override
+        public int size() { return recordCount; }
+    }
+
+    private class RowView extends AbstractMap<String, String> {
+        private final int row;
+
+        RowView(int row) { this.row = row; }
+
+        @Override
+        public String get(Object key) {
+            Integer index = columnIndex.get(key);
+            return (index != null) ? columns.get(index).getString(row) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) { return columnIndex.containsKey(key); }
+
+        @Override
+        public int size() { return columns.size(); }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() { return next < columns.size(); }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            DataColumn column = columns.get(next++);
+                            return new SimpleImmutableEntry<>(column.getName(), column.getString(row));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() { return columns.size(); }
+            };
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.automl_prototype_1.model;
+
+import java.util.Arrays;
+
+/**
+ * Dense row-major matrix stored in one contiguous {@code double[]}.
+ * Row {@code r} starts at {@link #rowOffset(int)} and its {@link #getNumCols()} values
+ * follow each other in memory, so a distance scan reads each row sequentially
+ * instead of chasing one heap pointer per row as with {@code double[][]}.
+ * <p>
+ * {@link #view(int[])} selects rows (e.g. a train or test split) without copying:
+ * the view shares the backing array and maps its rows through an index array.
+ * Use {@link #compact()} when a subset is scanned often enough to be worth its own
+ * contiguous copy.
+ * <p>
+ * Like {@link FeatureMatrix}, instances are read-only by contract once shared;
+ * {@link #set(int, int, double)} is meant for filling a freshly allocated matrix.
+ */
+public final class DenseMatrix {
+
+    private final double[] data;
+    private final int numRows;
+    private final int numCols;
+    private final int stride;
+    private final int[] rowIndex; // View row -> physical row, or null for the identity
+
+    private DenseMatrix(double[] data, int numRows, int numCols, int stride, int[] rowIndex) {
+        this.data = data;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.stride = stride;
+        this.rowIndex = rowIndex;
+    }
+
+    /**
+     * Allocates a zero-filled matrix.
+     * @param numRows Number of rows.
+     * @param numCols Number of columns.
+     */
+    public DenseMatrix(int numRows, int numCols) {
+        this(new double[Math.multiplyExact(numRows, numCols)], numRows, numCols, numCols, null);
+    }
+
+    /**
+     * Wraps an existing row-major array (not copied).
+     * @param data Values, row r at [r * numCols, (r + 1) * numCols).
+     * @param numRows Number of rows.
+     * @param numCols Number of columns.
+     * @return The matrix.
+     */
+    public static DenseMatrix wrap(double[] data, int numRows, int numCols) {
+        if ((long) numRows * numCols > data.length) {
+            throw new IllegalArgumentException("Array of " + data.length + " values is too small for "
+                    + numRows + "x" + numCols + ".");
+        }
+        return new DenseMatrix(data, numRows, numCols, numCols, null);
+    }
+
+    /**
+     * Copies jagged rows into a new contiguous matrix.
+     * @param rows Rows of equal length.
+     * @return The matrix.
+     */
+    public static DenseMatrix fromRows(double[][] rows) {
+        int cols = (rows.length > 0) ? rows[0].length : 0;
+        DenseMatrix matrix = new DenseMatrix(rows.length, cols);
+        for (int r = 0; r < rows.length; r++) {
+            if (rows[r].length != cols) {
+                throw new IllegalArgumentException("Row " + r + " has " + rows[r].length + " values, expected " + cols + ".");
+            }
+            System.arraycopy(rows[r], 0, matrix.data, r * cols, cols);
+        }
+        return matrix;
+    }
+
+    // --- Access ---
+
+    /** @return The number of rows. */
+    public int getNumRows() { return numRows; }
+
+    /** @return The number of columns. */
+    public int getNumCols() { return numCols; }
+
+    /**
+     * Gets the backing array shared by this matrix and all its views.
+     * Read row r at [{@link #rowOffset(int) rowOffset(r)}, rowOffset(r) + {@link #getNumCols()}).
+     * @return The backing array (read-only).
+     */
+    public double[] getData() { return data; }
+
+    /**
+     * @param row Row of this matrix (or view).
+     * @return Position of the row's first value in {@link #getData()}.
+     */
+    public int rowOffset(int row) {
+        return ((rowIndex != null) ? rowIndex[row] : row) * stride;
+    }
+
+    public double get(int row, int col) { return data[rowOffset(row) + col]; }
+
+    public void set(int row, int col, double value) { data[rowOffset(row) + col] = value; }
+
+    /** @return True if rows are mapped through an index array (see {@link #view(int[])}). */
+    public boolean isView() { return rowIndex != null; }
+
+    // --- Views and copies ---
+
+    /**
+     * Creates a zero-copy view of the given rows, in the given order.
+     * @param rows Row numbers of this matrix (or view); the array is not copied.
+     * @return A view sharing the backing array.
+     */
+    public DenseMatrix view(int[] rows) {
+        int[] physical = rows;
+        if (rowIndex != null) { // Compose with our own mapping so views never chain
+            physical = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) physical[i] = rowIndex[rows[i]];
+        }
+        return new DenseMatrix(data, rows.length, numCols, stride, physical);
+    }
+
+    /** @return A contiguous copy of this matrix (or view) with its own backing array. */
+    public DenseMatrix compact() {
+        DenseMatrix copy = new DenseMatrix(numRows, numCols);
+        if (rowIndex == null && stride == numCols) {
+            System.arraycopy(data, 0, copy.data, 0, numRows * numCols);
+        } else {
+            for (int r = 0; r < numRows; r++) System.arraycopy(data, rowOffset(r), copy.data, r * numCols, numCols);
+        }
+        return copy;
+    }
+
+    /**
+     * Copies the given columns of every row into a new contiguous matrix
+     * (e.g. to project the data onto a feature subset).
+     * @param cols Column numbers, in the order they should appear.
+     * @return A numRows x cols.length matrix with its own backing array.
+     */
+    public DenseMatrix selectColumns(int[] cols) {
+        DenseMatrix copy = new DenseMatrix(numRows, cols.length);
+        int target = 0;
+        for (int r = 0; r < numRows; r++) {
+            int offset = rowOffset(r);
+            for (int col : cols) copy.data[target++] = data[offset + col];
+        }
+        return copy;
+    }
+
+    /** @return A copy of one row. */
+    public double[] copyRow(int row) {
+        int offset = rowOffset(row);
+        return Arrays.copyOfRange(data, offset, offset + numCols);
+    }
+
+    /** @return The rows as a new jagged array (for APIs such as Smile that need {@code double[][]}). */
+    public double[][] toArray() {
+        double[][] rows = new double[numRows][];
+        for (int r = 0; r < numRows; r++) rows[r] = copyRow(r);
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return "DenseMatrix{" + numRows + "x" + numCols + (isView() ? ", view" : "") + '}';
+    }
+}
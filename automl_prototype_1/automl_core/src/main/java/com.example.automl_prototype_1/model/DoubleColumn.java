@@ -0,0 +1,55 @@
+package com.example.automl_prototype_1.model;
+
+/**
+ * Column of floating-point values stored in a primitive {@code double[]}.
+ * Missing cells hold NaN and have their bit set in the missing bitmap.
+ */
+public class DoubleColumn extends DataColumn {
+
+    private final double[] values;
+    private final SourceText sourceText; // Null when every token is canonical
+
+    /**
+     * @param name The column name.
+     * @param values The values; the array is used directly (not copied).
+     * @param missing The missing-value bitmap, or null if nothing is missing.
+     */
+    public DoubleColumn(String name, double[] values, long[] missing) {
+        this(name, values, missing, null);
+    }
+
+    /**
+     * @param name The column name.
+     * @param values The values; the array is used directly (not copied).
+     * @param missing The missing-value bitmap, or null if nothing is missing.
+     * @param sourceText Original text of rows whose token is not canonical, or null.
+     */
+    public DoubleColumn(String name, double[] values, long[] missing, SourceText sourceText) {
+        super(name, values.length, missing);
+        this.values = values;
+        this.sourceText = (sourceText != null && sourceText.size() > 0) ? sourceText : null;
+    }
+
+    @Override
+    public Type getType() { return Type.DOUBLE; }
+
+    /**
+     * Gets the backing array (no copy). Callers must treat it as read-only.
+     * @return The column values.
+     */
+    public double[] getValues() { return values; }
+
+    @Override
+    public double getDouble(int row) { return isMissing(row) ? Double.NaN : values[row]; }
+
+    /** @return Original text of the rows whose token is not canonical, or null if there are none. */
+    public SourceText getSourceText() { return sourceText; }
+
+    /** Returns the token as it appeared in the source. */
+    @Override
+    public String getString(int row) {
+        if (isMissing(row)) return "";
+        String text = (sourceText != null) ? sourceText.get(row) : null;
+        return (text != null) ? text : Double.toString(values[row]);
+    }
+}
@@ -2,6 +2,10 @@ package com.example.automl_prototype_1.model;
 
 // *** NO JavaFX imports here ***
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Represents results - Plain Java Object (POJO) for the core module.
  * UI modules can wrap this in properties if needed for binding.
@@ -14,16 +18,29 @@ public class ExecutionResult {
     private final double aucRoc;
     private final double loss;
     private final long executionTimeMs;
-    // Add other standard fields for metrics as needed
+    // Algorithm-specific extras (e.g. cache hit counts), in insertion order
+    private final Map<String, Object> additionalMetrics;
 
 
     // Constructor remains the same, just assigns to plain fields
     public ExecutionResult(String algorithmName, double accuracy, double aucRoc, double loss, long executionTimeMs) {
+        this(algorithmName, accuracy, aucRoc, loss, executionTimeMs, null);
+    }
+
+    /**
+     * Constructor with algorithm-specific extra metrics.
+     * @param additionalMetrics Extra named values reported by the algorithm (copied; may be null).
+     */
+    public ExecutionResult(String algorithmName, double accuracy, double aucRoc, double loss, long executionTimeMs,
+                           Map<String, Object> additionalMetrics) {
         this.algorithmName = algorithmName;
         this.accuracy = accuracy;
         this.aucRoc = aucRoc;
         this.loss = loss;
         this.executionTimeMs = executionTimeMs;
+        this.additionalMetrics = (additionalMetrics != null)
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(additionalMetrics))
+                : Collections.emptyMap();
     }
 
     // --- Standard Getters ---
@@ -32,6 +49,8 @@ public class ExecutionResult {
     public double getAucRoc() { return aucRoc; }
     public double getLoss() { return loss; }
     public long getExecutionTimeMs() { return executionTimeMs; }
+    /** @return Algorithm-specific extra metrics (unmodifiable, possibly empty). */
+    public Map<String, Object> getAdditionalMetrics() { return additionalMetrics; }
 
     // Add getters for other metrics if added
 
@@ -44,6 +63,7 @@ public class ExecutionResult {
                 ", auc=" + aucRoc +
                 ", loss=" + loss +
                 ", time=" + executionTimeMs +
+                (additionalMetrics.isEmpty() ? "" : ", extra=" + additionalMetrics) +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.example.automl_prototype_1.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Preprocessed, numeric view of a {@link Dataset}: a row-major feature matrix and an
+ * integer class label per row. Built once per dataset by the preprocessing stage in
+ * {@code ExecutionService} and shared by every algorithm of a run.
+ * <p>
+ * Features are stored in one contiguous {@link DenseMatrix}; train/test splits are
+ * zero-copy views of it. {@link #getX()} materializes jagged rows on first use for
+ * APIs that need {@code double[][]}.
+ * <p>
+ * Instances are immutable by contract: the arrays returned by the getters are the
+ * backing storage and must be treated as read-only, so one instance can be used by
+ * several algorithms and threads at the same time.
+ */
+public final class FeatureMatrix {
+
+    private final DenseMatrix matrix; // Features, row-major
+    private volatile double[][] rows; // Jagged copy of the features, built on first getX()
+    private final int[] y;      // Target as int[]
+    private final List<String> featureNames;
+    private final String targetName;
+
+    /**
+     * @param x Feature rows (copied into contiguous storage).
+     * @param y Class label per row (used directly, not copied).
+     * @param featureNames Names of the feature columns, in order.
+     * @param targetName Name of the target column.
+     */
+    public FeatureMatrix(double[][] x, int[] y, List<String> featureNames, String targetName) {
+        this(DenseMatrix.fromRows(x), y, featureNames, targetName);
+    }
+
+    /**
+     * @param matrix Features (used directly, not copied).
+     * @param y Class label per row (used directly, not copied).
+     * @param featureNames Names of the feature columns, in order.
+     * @param targetName Name of the target column.
+     */
+    public FeatureMatrix(DenseMatrix matrix, int[] y, List<String> featureNames, String targetName) {
+        if (matrix.getNumRows() != y.length) {
+            throw new IllegalArgumentException("Feature rows (" + matrix.getNumRows() + ") and labels (" + y.length + ") differ.");
+        }
+        this.matrix = matrix;
+        this.y = y;
+        this.featureNames = Collections.unmodifiableList(new ArrayList<>(featureNames));
+        this.targetName = targetName;
+    }
+
+    /**
+     * Basic preprocessing: converts the columnar dataset into numeric features and int labels.
+     * The last column is the target (still assumed - needs config). Missing cells become 0.0.
+     * Categorical feature columns have no numeric meaning and are encoded as 0.0 (with a warning);
+     * a categorical target is encoded by its dictionary codes.
+     *
+     * @param dataset The loaded dataset.
+     * @return The feature matrix.
+     * @throws IllegalArgumentException If the dataset is empty or has fewer than 2 columns.
+     */
+    public static FeatureMatrix fromDataset(Dataset dataset) {
+        if (dataset == null || dataset.getRecordCount() == 0 || dataset.getFeatureCount() == 0) {
+            throw new IllegalArgumentException("Cannot preprocess empty dataset.");
+        }
+        int numRecords = dataset.getRecordCount();
+        int numCols = dataset.getFeatureCount();
+        if (numCols < 2) {
+            throw new IllegalArgumentException("Dataset must have at least 2 columns (features + target).");
+        }
+        int featureCols = numCols - 1;
+        int targetColIndex = numCols - 1;
+
+        System.out.println("FeatureMatrix: Preprocessing " + numRecords + " records...");
+        DenseMatrix features = new DenseMatrix(numRecords, featureCols);
+        List<String> featureNames = new ArrayList<>(featureCols);
+        for (int j = 0; j < featureCols; j++) {
+            DataColumn column = dataset.getColumn(j);
+            featureNames.add(column.getName());
+            if (column.getType() == DataColumn.Type.CATEGORICAL) {
+                System.err.println("FeatureMatrix: Warning - Column '" + column.getName()
+                        + "' is not numeric. Using 0.0 for all rows.");
+                continue; // Rows are already 0.0
+            }
+            if (column instanceof DoubleColumn) {
+                double[] values = ((DoubleColumn) column).getValues();
+                for (int i = 0; i < numRecords; i++) features.set(i, j, column.isMissing(i) ? 0.0 : values[i]);
+            } else {
+                int[] values = ((IntColumn) column).getValues();
+                for (int i = 0; i < numRecords; i++) features.set(i, j, values[i]); // Missing ints are stored as 0
+            }
+        }
+
+        DataColumn targetColumn = dataset.getColumn(targetColIndex);
+        int[] target = new int[numRecords];
+        if (targetColumn instanceof IntColumn) {
+            System.arraycopy(((IntColumn) targetColumn).getValues(), 0, target, 0, numRecords);
+        } else if (targetColumn instanceof DoubleColumn) {
+            double[] values = ((DoubleColumn) targetColumn).getValues();
+            for (int i = 0; i < numRecords; i++) {
+                target[i] = targetColumn.isMissing(i) ? 0 : (int) Math.round(values[i]); // Convert target to int
+            }
+        } else {
+            int[] codes = ((StringColumn) targetColumn).getCodes();
+            for (int i = 0; i < numRecords; i++) target[i] = Math.max(0, codes[i]);
+        }
+        if (targetColumn.getMissingCount() > 0) {
+            System.err.println("FeatureMatrix: Warning - " + targetColumn.getMissingCount()
+                    + " rows have no target value. Using class 0.");
+        }
+
+        System.out.println("FeatureMatrix: Preprocessing complete. x[" + numRecords + "][" + featureCols + "]");
+        return new FeatureMatrix(features, target, featureNames, targetColumn.getName());
+    }
+
+    // --- Getters ---
+
+    /** @return The features in contiguous row-major storage (read-only). */
+    public DenseMatrix getMatrix() { return matrix; }
+
+    /**
+     * Gets the features as jagged rows, copied from {@link #getMatrix()} on the first call
+     * and shared afterwards. Prefer the matrix for scans over many rows.
+     * @return The feature rows (read-only).
+     */
+    public double[][] getX() {
+        double[][] result = rows;
+        if (result == null) {
+            synchronized (this) {
+                result = rows;
+                if (result == null) rows = result = matrix.toArray();
+            }
+        }
+        return result;
+    }
+
+    /** @return The class labels (backing storage, read-only). */
+    public int[] getY() { return y; }
+
+    /** @return The number of rows (samples). */
+    public int getNumRows() { return y.length; }
+
+    /** @return The number of feature columns. */
+    public int getNumFeatures() { return featureNames.size(); }
+
+    /** @return The feature column names, in order. */
+    public List<String> getFeatureNames() { return featureNames; }
+
+    /** @return The target column name. */
+    public String getTargetName() { return targetName; }
+
+    @Override
+    public String toString() {
+        return "FeatureMatrix{" +
+                "rows=" + getNumRows() +
+                ", features=" + getNumFeatures() +
+                ", target='" + targetName + '\'' +
+                '}';
+    }
+}
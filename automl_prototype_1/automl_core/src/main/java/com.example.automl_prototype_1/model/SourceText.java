@@ -0,0 +1,78 @@
+package com.example.automl_prototype_1.model;
+
+import java.util.Arrays;
+
+/**
+ * Original cell text of a numeric column, kept only for the rows whose token differs from
+ * the canonical text of the parsed value (e.g. "007" or "+5" in an INTEGER column, "1" or
+ * "1.50" in a DOUBLE column). Together with the values it reproduces the source tokens
+ * exactly, so {@link DataColumn#getString(int)} and promotion to CATEGORICAL return what
+ * the file held. Rows are kept in ascending order; lookups binary-search them.
+ */
+public final class SourceText {
+
+    private int[] rows;
+    private String[] texts;
+    private int count;
+
+    /** Creates an empty set of overrides, filled with {@link #add}. */
+    public SourceText() {
+        this(new int[8], new String[8], 0);
+    }
+
+    /**
+     * Wraps existing overrides.
+     * @param rows Rows in ascending order; used directly (not copied).
+     * @param texts Original text per entry of {@code rows}; used directly (not copied).
+     */
+    public SourceText(int[] rows, String[] texts) {
+        this(rows, texts, rows.length);
+        if (texts.length != rows.length) throw new IllegalArgumentException("rows and texts differ in length");
+    }
+
+    private SourceText(int[] rows, String[] texts, int count) {
+        this.rows = rows;
+        this.texts = texts;
+        this.count = count;
+    }
+
+    /**
+     * Records the original text of a row. Rows must be added in ascending order.
+     * @param row The row index.
+     * @param text The token as it appeared in the source.
+     */
+    public void add(int row, String text) {
+        if (count > 0 && row <= rows[count - 1]) {
+            throw new IllegalArgumentException("Rows must be added in ascending order: " + row);
+        }
+        if (count == rows.length) {
+            rows = Arrays.copyOf(rows, count * 2);
+            texts = Arrays.copyOf(texts, count * 2);
+        }
+        rows[count] = row;
+        texts[count++] = text;
+    }
+
+    /**
+     * @param row The row index.
+     * @return The original text of the row, or null if its canonical text is the original.
+     */
+    public String get(int row) {
+        int index = Arrays.binarySearch(rows, 0, count, row);
+        return (index >= 0) ? texts[index] : null;
+    }
+
+    /** @return The number of rows with an override. */
+    public int size() { return count; }
+
+    /** @return The row of override {@code i}. */
+    public int getRow(int i) { return rows[i]; }
+
+    /** @return The original text of override {@code i}. */
+    public String getText(int i) { return texts[i]; }
+
+    /** @return These overrides trimmed to size, or null if there are none. */
+    SourceText compact() {
+        return (count == 0) ? null : new SourceText(Arrays.copyOf(rows, count), Arrays.copyOf(texts, count), count);
+    }
+}
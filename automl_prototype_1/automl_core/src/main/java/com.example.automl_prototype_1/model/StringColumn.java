@@ -0,0 +1,42 @@
+package com.example.automl_prototype_1.model;
+
+/**
+ * Dictionary-encoded string column. Each distinct value is stored once in the
+ * dictionary; rows hold an {@code int} code into it (-1 for missing cells).
+ */
+public class StringColumn extends DataColumn {
+
+    private final int[] codes;
+    private final String[] dictionary;
+
+    /**
+     * @param name The column name.
+     * @param codes Per-row dictionary codes; used directly (not copied).
+     * @param dictionary Distinct values, indexed by code; used directly (not copied).
+     * @param missing The missing-value bitmap, or null if nothing is missing.
+     */
+    public StringColumn(String name, int[] codes, String[] dictionary, long[] missing) {
+        super(name, codes.length, missing);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Type getType() { return Type.CATEGORICAL; }
+
+    /** @return The backing per-row code array (no copy, read-only). */
+    public int[] getCodes() { return codes; }
+
+    /** @return The backing dictionary (no copy, read-only). */
+    public String[] getDictionary() { return dictionary; }
+
+    /** @return The number of distinct non-missing values. */
+    public int getCardinality() { return dictionary.length; }
+
+    /** Categorical values have no numeric meaning, so this always returns NaN. */
+    @Override
+    public double getDouble(int row) { return Double.NaN; }
+
+    @Override
+    public String getString(int row) { return isMissing(row) ? "" : dictionary[codes[row]]; }
+}
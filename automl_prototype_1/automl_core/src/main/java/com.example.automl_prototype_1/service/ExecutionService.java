@@ -3,14 +3,15 @@ package com.example.automl_prototype_1.service;
 // Core model and dataprovider imports
 import com.example.automl_prototype_1.algorithm.*; // Imports all algorithm classes
 import com.example.automl_prototype_1.dataprovider.CsvDataProvider;
+import com.example.automl_prototype_1.dataprovider.DatasetCache;
+import com.example.automl_prototype_1.dataprovider.ParallelCsvDataProvider;
 import com.example.automl_prototype_1.model.Dataset;
 import com.example.automl_prototype_1.model.ExecutionResult;
+import com.example.automl_prototype_1.model.FeatureMatrix;
 
 // Standard Java imports
 import java.io.File;
-import java.io.FileReader; // <-- ADDED: Need FileReader
 import java.io.IOException;
-import java.io.Reader; // <-- ADDED: Need Reader
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -20,7 +21,12 @@ import java.util.Map;
  */
 public class ExecutionService {
 
+    /** CSV files at least this large are parsed on all cores by {@link ParallelCsvDataProvider}. */
+    private static final long PARALLEL_LOAD_THRESHOLD_BYTES = 32L * 1024 * 1024;
+
     private final CsvDataProvider csvDataProvider;
+    private final ParallelCsvDataProvider parallelCsvDataProvider;
+    private final DatasetCache datasetCache;
     // TODO: Add references to other data providers (e.g., ArffDataProvider) if needed
 
     /**
@@ -28,12 +34,16 @@ public class ExecutionService {
      */
     public ExecutionService() {
         this.csvDataProvider = new CsvDataProvider();
+        this.parallelCsvDataProvider = new ParallelCsvDataProvider();
+        this.datasetCache = new DatasetCache();
         System.out.println("ExecutionService Initialized.");
     }
 
     /**
      * Loads data from the specified file.
      * Currently determines the provider based on file extension (only CSV supported).
+     * CSV files are served from the binary column cache when it is still valid; otherwise
+     * they are parsed (in parallel if large) and the cache is rewritten.
      *
      * @param datasetFile The File object pointing to the dataset.
      * @return A Dataset object containing the loaded data.
@@ -48,13 +58,16 @@ public class ExecutionService {
         String fileName = datasetFile.getName().toLowerCase();
 
         if (fileName.endsWith(".csv")) {
-            // --- FIX: Create a FileReader and pass it to CsvDataProvider ---
-            System.out.println("ExecutionService: Using CsvDataProvider.");
-            try (Reader fileReader = new FileReader(datasetFile)) { // Create FileReader here
-                // Call the CsvDataProvider method that now expects a Reader
-                return csvDataProvider.loadDataset(fileReader);
-            } // FileReader is closed automatically by try-with-resources
-            // -------------------------------------------------------------
+            // Reuse the binary column cache when the file has not changed since the last parse
+            Dataset cached = datasetCache.load(datasetFile);
+            if (cached != null) {
+                System.out.println("ExecutionService: Using cached columnar data.");
+                return cached;
+            }
+            DatasetCache.Key key = datasetCache.keyFor(datasetFile); // Before parsing: a rewrite mid-parse must not be cached
+            Dataset dataset = parseCsv(datasetFile);
+            datasetCache.store(datasetFile, key, dataset);
+            return dataset;
         }
         // TODO: Add handlers for other file types (e.g., .arff) here
         // else if (fileName.endsWith(".arff")) { ... }
@@ -64,6 +77,19 @@ public class ExecutionService {
         }
     }
 
+    /**
+     * Parses a CSV file from text. Large files are memory-mapped and parsed in parallel;
+     * small ones are streamed.
+     */
+    private Dataset parseCsv(File datasetFile) throws IOException {
+        if (datasetFile.length() >= PARALLEL_LOAD_THRESHOLD_BYTES) {
+            System.out.println("ExecutionService: Using ParallelCsvDataProvider (" + datasetFile.length() + " bytes).");
+            return parallelCsvDataProvider.loadDataset(datasetFile);
+        }
+        System.out.println("ExecutionService: Using CsvDataProvider.");
+        return csvDataProvider.loadDataset(datasetFile); // Same charset as the parallel loader
+    }
+
 
     /**
      * Executes the selected optimization algorithms SYNCHRONOUSLY on the provided dataset.
@@ -92,8 +118,8 @@ public class ExecutionService {
         System.out.println("CORE: Starting synchronous execution of " + totalAlgos + " algorithms...");
 
         // --- Preprocessing ---
-        // Currently assumed to be handled within each algorithm's execute method.
-        // System.out.println("CORE: Preprocessing step (if any) assumed within algorithms.");
+        // Done once per dataset; the immutable result is shared by every selected algorithm.
+        FeatureMatrix features = preprocess(dataset);
 
         // --- Algorithm Execution Loop ---
         for (int i = 0; i < totalAlgos; i++) {
@@ -105,8 +131,10 @@ public class ExecutionService {
             if (algorithm != null) {
                 try {
                     long startTime = System.currentTimeMillis();
-                    // Execute the algorithm directly, passing the Dataset object
-                    ExecutionResult result = algorithm.execute(dataset, configuration);
+                    // Execute the algorithm, passing the Dataset and the shared preprocessed features
+                    // (without them, the algorithm preprocesses on its own and reports why that fails)
+                    ExecutionResult result = (features != null) ? algorithm.execute(dataset, features, configuration)
+                            : algorithm.execute(dataset, configuration);
                     long endTime = System.currentTimeMillis();
                     System.out.println("CORE: Algorithm " + algoName + " completed in " + (endTime - startTime) + " ms.");
                     allResults.add(result);
@@ -129,6 +157,28 @@ public class ExecutionService {
     }
 
 
+    /**
+     * Shared preprocessing stage: converts the dataset into numeric features once per run.
+     * Failure is not fatal here: each algorithm then gets the plain Dataset and reports
+     * the problem itself.
+     *
+     * @param dataset The loaded Dataset object.
+     * @return The shared feature matrix, or null if the dataset cannot be preprocessed.
+     */
+    private FeatureMatrix preprocess(Dataset dataset) {
+        System.out.println("CORE: Preprocessing dataset once for all algorithms...");
+        try {
+            long startTime = System.currentTimeMillis();
+            FeatureMatrix features = FeatureMatrix.fromDataset(dataset);
+            System.out.println("CORE: Preprocessing finished in " + (System.currentTimeMillis() - startTime) + " ms: " + features);
+            return features;
+        } catch (IllegalArgumentException e) {
+            System.err.println("CORE: Preprocessing failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+
     /**
      * Factory method to get an instance of an algorithm based on its name.
      * (Implementation remains the same)
@@ -140,11 +190,14 @@ public class ExecutionService {
         if (name == null) return null;
         // Using equalsIgnoreCase for robustness
         if ("Genetic Algorithm".equalsIgnoreCase(name)) return new GeneticAlgorithm();
-        if ("IGPSO".equalsIgnoreCase(name)) return new MockIgpsoAlgorithm();
-        if ("WWO".equalsIgnoreCase(name)) return new MockWwoAlgorithm();
-        if ("BPSO".equalsIgnoreCase(name)) return new MockBpsoAlgorithm();
-        if ("ASO".equalsIgnoreCase(name)) return new MockAsoAlgorithm();
-        if ("NNP".equalsIgnoreCase(name)) return new MockNnpAlgorithm();
+        if ("Hyperband".equalsIgnoreCase(name)) return new HyperbandAlgorithm();
+        if ("TPE".equalsIgnoreCase(name)) return new BayesianOptimizationAlgorithm("tpe");
+        if ("GP-BO".equalsIgnoreCase(name)) return new BayesianOptimizationAlgorithm("gp");
+        if ("IGPSO".equalsIgnoreCase(name)) return new IgpsoAlgorithm();
+        if ("WWO".equalsIgnoreCase(name)) return new WwoAlgorithm();
+        if ("BPSO".equalsIgnoreCase(name)) return new BpsoAlgorithm();
+        if ("ASO".equalsIgnoreCase(name)) return new AsoAlgorithm();
+        if ("NNP".equalsIgnoreCase(name)) return new NnpAlgorithm();
         // Add other real or mock algorithms here
         System.err.println("ExecutionService: No implementation found for algorithm name '" + name + "'");
         return null; // Explicitly return null if no match
@@ -15,6 +15,9 @@ module com.shadowtengu.automl_core {
     // Jackson required because we open the model package to it
     requires com.fasterxml.jackson.databind;
 
+    // Optional SIMD distance kernels; absent at runtime unless started with --add-modules jdk.incubator.vector
+    requires static jdk.incubator.vector;
+
     // Optional: requires slf4j.api;
 
 
@@ -0,0 +1,57 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BlockedNeighborSearchTest {
+
+    private static final int TRAIN_ROWS = 700;
+    private static final int QUERY_ROWS = 71; // Not a multiple of the query tile or of dot4's four queries
+    private static final int DIMS = 7;
+    private static final int K = 10;
+
+    @Test
+    void centeredDataMatchesBruteForce() {
+        assertMatchesBruteForce(0.0, 1.0, DistanceKernel.scalar());
+        assertMatchesBruteForce(0.0, 1.0, new VectorDistanceKernel());
+    }
+
+    @Test
+    void shiftedDataMatchesBruteForce() {
+        // Rows clustered tightly around +1000: without centering, |a|^2 + |b|^2 - 2 a.b loses
+        // the neighbor gaps to rounding and picks the wrong candidates
+        assertMatchesBruteForce(1000.0, 1e-4, DistanceKernel.scalar());
+        assertMatchesBruteForce(1000.0, 1e-4, new VectorDistanceKernel());
+    }
+
+    private static void assertMatchesBruteForce(double shift, double spread, DistanceKernel kernel) {
+        Random random = new Random(42);
+        DenseMatrix train = gaussian(TRAIN_ROWS, shift, spread, random);
+        DenseMatrix queries = gaussian(QUERY_ROWS, shift, spread, random);
+
+        int[] expected = new int[QUERY_ROWS * K];
+        double[] expectedDistances = new double[expected.length];
+        new BruteForceNeighborSearch(train, DistanceKernel.scalar()).searchBatch(queries, 0, QUERY_ROWS, K, expected, expectedDistances);
+        int[] actual = new int[expected.length];
+        double[] actualDistances = new double[expected.length];
+        new BlockedNeighborSearch(train, kernel).searchBatch(queries, 0, QUERY_ROWS, K, actual, actualDistances);
+
+        String where = kernel.getName() + ", shift " + shift;
+        assertArrayEquals(expected, actual, where);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expectedDistances[i], actualDistances[i], 1e-6 * expectedDistances[i], where);
+        }
+    }
+
+    private static DenseMatrix gaussian(int rows, double shift, double spread, Random random) {
+        DenseMatrix matrix = new DenseMatrix(rows, DIMS);
+        double[] values = matrix.getData();
+        for (int i = 0; i < values.length; i++) values[i] = shift + spread * random.nextGaussian();
+        return matrix;
+    }
+}
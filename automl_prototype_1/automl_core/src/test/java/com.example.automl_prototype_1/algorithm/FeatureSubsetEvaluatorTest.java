@@ -0,0 +1,47 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeatureSubsetEvaluatorTest {
+
+    private static final int ROWS = 240;
+    private static final int FEATURES = 12;
+    private static final int STEPS = 100; // Several times REBUILD_INTERVAL
+
+    @Test
+    void incrementalAccuracyMatchesFromScratch() {
+        Random random = new Random(3);
+        DenseMatrix x = new DenseMatrix(ROWS, FEATURES);
+        int[] y = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            for (int f = 0; f < FEATURES; f++) x.set(i, f, random.nextGaussian());
+            double signal = x.get(i, 0) + x.get(i, 1) - x.get(i, 2) + 0.5 * random.nextGaussian();
+            y[i] = (signal < -0.5) ? 0 : (signal < 0.5) ? 1 : 2;
+        }
+        int[][][] splits = CrossValidationEvaluator.splitsFor("stratified", y, 3, random);
+        FeatureSubsetEvaluator evaluator = new FeatureSubsetEvaluator(x, y, splits[0], splits[1], 5, "brute");
+        FeatureSubsetEvaluator.DistanceState state = evaluator.newState();
+
+        long[] bits = new long[FeatureMask.words(FEATURES)];
+        for (int f = 0; f < FEATURES; f += 2) FeatureMask.set(bits, 0, f, true);
+        for (int step = 0; step < STEPS; step++) {
+            // Mostly single-bit flips, every third step two or three bits at once
+            int flips = (step % 3 == 2) ? 2 + random.nextInt(2) : 1;
+            for (int i = 0; i < flips; i++) {
+                int f = random.nextInt(FEATURES);
+                FeatureMask.set(bits, 0, f, !FeatureMask.get(bits, 0, f));
+            }
+            if (FeatureMask.cardinality(bits, 0, FEATURES) == 0) FeatureMask.set(bits, 0, random.nextInt(FEATURES), true);
+            FeatureMask mask = FeatureMask.of(bits, 0, FEATURES);
+            assertEquals(evaluator.accuracy(mask), evaluator.accuracy(mask, state), 1e-12, "step " + step + ", " + mask);
+        }
+        assertTrue(evaluator.getIncrementalUpdates() > FeatureSubsetEvaluator.REBUILD_INTERVAL, "incremental path not exercised");
+        assertTrue(evaluator.getRebuilds() > 1, "no rebuild after the first evaluation");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.automl_prototype_1.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class FitnessCacheTest {
+
+    @Test
+    void errorInEvaluatorReleasesWaitersAndIsNotCached() throws Exception {
+        FitnessCache<Integer> cache = new FitnessCache<>();
+        CountDownLatch evaluating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> failing = executor.submit(() -> cache.getOrCompute(1L, 7, k -> {
+                evaluating.countDown();
+                awaitQuietly(release);
+                throw new StackOverflowError("simulated");
+            }));
+            evaluating.await();
+            Future<Double> waiting = executor.submit(() -> cache.getOrCompute(1L, 7, k -> 0.5));
+            while (cache.getHits() == 0) Thread.onSpinWait(); // Second lookup is now waiting on the in-flight entry
+            release.countDown();
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                Exception first = assertThrows(Exception.class, failing::get);
+                assertInstanceOf(StackOverflowError.class, first.getCause());
+                Exception second = assertThrows(Exception.class, waiting::get);
+                assertInstanceOf(CompletionException.class, second.getCause());
+            });
+            assertFalse(cache.contains(1L, 7));
+            assertEquals(0.75, cache.getOrCompute(1L, 7, k -> 0.75));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
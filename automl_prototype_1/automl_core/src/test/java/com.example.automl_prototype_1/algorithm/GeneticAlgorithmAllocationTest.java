@@ -0,0 +1,70 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.FeatureMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeneticAlgorithmAllocationTest {
+
+    // With 60 and 120 generations both runs report hit counts of the same width and generation
+    // counts inside the Integer cache, so the end-of-run summary allocates the same in both
+    private static final int GENERATIONS = 60;
+    private static final int WARMUP_RUNS = 20;
+    private static final int PAIRS = 11;
+
+    @Test
+    void warmGenerationsAllocateNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        FeatureMatrix features = features();
+        for (int i = 0; i < WARMUP_RUNS; i++) run(features, 2 * GENERATIONS); // Until the JIT has settled
+
+        // Both runs share the setup and score the same k values; only the extra generations differ
+        long[] extraBytes = new long[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            run(features, GENERATIONS);
+            long single = threads.getThreadAllocatedBytes(thread) - before;
+            before = threads.getThreadAllocatedBytes(thread);
+            run(features, 2 * GENERATIONS);
+            extraBytes[i] = threads.getThreadAllocatedBytes(thread) - before - single;
+        }
+        // Median: a late compilation or deoptimization inside one run shifts that pair by a
+        // few hundred bytes either way, while per-generation garbage shifts every pair
+        Arrays.sort(extraBytes);
+        assertEquals(0.0, extraBytes[PAIRS / 2] / (double) GENERATIONS,
+                "Bytes per generation, per-pair differences " + Arrays.toString(extraBytes));
+    }
+
+    private static void run(FeatureMatrix features, int generations) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("seed", 7);
+        config.put(AlgorithmConfig.EXECUTOR, "sequential");
+        config.put("maxGenerations", generations);
+        config.put("populationSize", 20);
+        config.put("minK", 1);
+        config.put("maxK", 4); // Every k is scored in the first generation, so later ones are memo hits
+        config.put("progressInterval", 0);
+        new GeneticAlgorithm().execute(null, features, config);
+    }
+
+    private static FeatureMatrix features() {
+        Random random = new Random(1);
+        int rows = 200;
+        double[][] x = new double[rows][2];
+        int[] y = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            y[i] = i % 2;
+            x[i][0] = random.nextGaussian() + y[i];
+            x[i][1] = random.nextGaussian();
+        }
+        return new FeatureMatrix(x, y, Arrays.asList("a", "b"), "label");
+    }
+}
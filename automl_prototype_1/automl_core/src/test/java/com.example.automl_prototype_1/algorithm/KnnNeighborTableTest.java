@@ -0,0 +1,31 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KnnNeighborTableTest {
+
+    @Test
+    void tinyDistancesVoteLikeExactMatches() {
+        // 1 / distance^2 overflows to +Infinity for all three neighbors; uncapped, the two
+        // class-1 votes would tie the single class-0 vote and the tie would go to class 0
+        DenseMatrix train = DenseMatrix.fromRows(new double[][]{{1e-160}, {-1e-160}, {2e-160}});
+        DenseMatrix test = DenseMatrix.fromRows(new double[][]{{0.0}});
+        KnnNeighborTable table = new KnnNeighborTable(new BruteForceNeighborSearch(train),
+                new int[]{0, 1, 1}, test, new int[]{1}, 3, null);
+        assertEquals(1.0, table.weightedAccuracy(3, 2.0));
+        assertEquals(1.0, table.accuracy(3));
+    }
+
+    @Test
+    void exactMatchOutvotesFartherNeighbors() {
+        DenseMatrix train = DenseMatrix.fromRows(new double[][]{{0.0}, {1.0}, {1.5}});
+        DenseMatrix test = DenseMatrix.fromRows(new double[][]{{0.0}});
+        KnnNeighborTable table = new KnnNeighborTable(new BruteForceNeighborSearch(train),
+                new int[]{0, 1, 1}, test, new int[]{0}, 3, null);
+        assertEquals(1.0, table.weightedAccuracy(3, 1.0));
+        assertEquals(0.0, table.accuracy(3));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteFitnessEvaluatorTest {
+
+    private static final int ROWS = 800;
+    private static final int COLS = 8;
+    private static final int FOLDS = 5;
+    private static final Duration BUSY = Duration.ofMillis(100);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void batchSurvivesAWorkerKilledMidBatch() throws Exception {
+        Random random = new Random(42);
+        double[] data = new double[ROWS * COLS];
+        int[] y = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            y[i] = i % 3;
+            for (int j = 0; j < COLS; j++) data[i * COLS + j] = random.nextGaussian() + (j % 3 == y[i] ? 1.0 : 0.0);
+        }
+        DenseMatrix x = DenseMatrix.wrap(data, ROWS, COLS);
+        int[][][] splits = CrossValidationEvaluator.splitsFor("stratified", y, FOLDS, random);
+        // Refit mode on both sides, so worker and in-process scores must agree exactly
+        CrossValidationEvaluator local = new CrossValidationEvaluator(x, y, splits[0], splits[1], false,
+                "brute", 100, null);
+        List<String> command = new ArrayList<>(RemoteFitnessEvaluator.defaultWorkerCommand());
+        command.add(1, "-Djava.io.tmpdir=" + dir); // Fresh worker dataset cache
+        int[] ks = new int[24];
+        for (int i = 0; i < ks.length; i++) ks[i] = 1 + 2 * i;
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try (RemoteFitnessEvaluator remote = new RemoteFitnessEvaluator(2, command, x, y, splits[0], splits[1],
+                false, "brute", 100, 1, local)) {
+            List<ProcessHandle> workers = ProcessHandle.current().children().toList();
+            assertEquals(2, workers.size());
+            ProcessHandle victim = workers.get(0);
+            Duration idle = cpuTime(victim);
+            Future<CrossValidationEvaluator.Score[]> batch = caller.submit(() -> remote.evaluate(ks));
+            while (cpuTime(victim).minus(idle).compareTo(BUSY) < 0) Thread.sleep(5); // Scoring its first chunk
+            assertFalse(batch.isDone(), "Batch finished before a worker could be killed");
+            victim.destroyForcibly();
+
+            CrossValidationEvaluator.Score[] scores = batch.get(2, TimeUnit.MINUTES);
+            assertTrue(remote.getRestarts() >= 1);
+            for (int i = 0; i < ks.length; i++) {
+                CrossValidationEvaluator.Score expected = local.score(ks[i]);
+                assertEquals(expected.getMean(), scores[i].getMean(), "k=" + ks[i]);
+                assertEquals(expected.getVariance(), scores[i].getVariance(), "k=" + ks[i]);
+            }
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private static Duration cpuTime(ProcessHandle process) {
+        return process.info().totalCpuDuration().orElseThrow();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.automl_prototype_1.algorithm;
+
+import com.example.automl_prototype_1.model.DenseMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** KD-tree and ball tree against {@link BruteForceNeighborSearch}: same neighbors in (distance, row) order. */
+class TreeNeighborSearchTest {
+
+    private static final int DIMS = 3;
+    private static final int[] KS = { 1, 7, 40 };
+
+    @Test
+    void continuousDataMatchesBruteForce() {
+        Random random = new Random(11);
+        DenseMatrix train = new DenseMatrix(1500, DIMS);
+        for (int i = 0; i < train.getData().length; i++) train.getData()[i] = random.nextGaussian();
+        DenseMatrix queries = new DenseMatrix(200, DIMS);
+        for (int i = 0; i < queries.getData().length; i++) queries.getData()[i] = 1.5 * random.nextGaussian();
+        assertTreesMatchBruteForce(train, queries);
+    }
+
+    @Test
+    void duplicatesAndTiesMatchBruteForce() {
+        // Small integer grid: every row appears three times and most distances tie exactly,
+        // so the trees must break ties by row index just like brute force
+        Random random = new Random(12);
+        int distinct = 400;
+        DenseMatrix train = new DenseMatrix(3 * distinct, DIMS);
+        for (int i = 0; i < distinct; i++) {
+            for (int d = 0; d < DIMS; d++) {
+                double value = random.nextInt(5);
+                for (int copy = 0; copy < 3; copy++) train.set(copy * distinct + i, d, value);
+            }
+        }
+        DenseMatrix queries = new DenseMatrix(150, DIMS);
+        for (int q = 0; q < 150; q++) {
+            for (int d = 0; d < DIMS; d++) {
+                // Half the queries are training rows, half grid midpoints (ties between cells)
+                queries.set(q, d, (q % 2 == 0) ? train.get(q * 7, d) : random.nextInt(5) + 0.5);
+            }
+        }
+        assertTreesMatchBruteForce(train, queries);
+    }
+
+    private static void assertTreesMatchBruteForce(DenseMatrix train, DenseMatrix queries) {
+        NeighborSearch brute = new BruteForceNeighborSearch(train, DistanceKernel.scalar());
+        NeighborSearch[] trees = {
+                new KdTreeNeighborSearch(train, DistanceKernel.scalar()),
+                new BallTreeNeighborSearch(train, DistanceKernel.scalar()) };
+        int rows = queries.getNumRows();
+        for (int k : KS) {
+            int[] expected = new int[rows * k];
+            double[] expectedDistances = new double[expected.length];
+            brute.searchBatch(queries, 0, rows, k, expected, expectedDistances);
+            for (NeighborSearch tree : trees) {
+                int[] actual = new int[expected.length];
+                double[] actualDistances = new double[expected.length];
+                tree.searchBatch(queries, 0, rows, k, actual, actualDistances);
+                assertArrayEquals(expected, actual, tree.getName() + ", k=" + k);
+                for (int i = 0; i < expected.length; i++) {
+                    assertEquals(expectedDistances[i], actualDistances[i], 1e-12 * Math.max(1.0, expectedDistances[i]),
+                            tree.getName() + ", k=" + k);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.automl_prototype_1.dataprovider;
+
+import com.example.automl_prototype_1.model.DataColumn;
+import com.example.automl_prototype_1.model.Dataset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DatasetCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsTypesAndSourceText() throws IOException {
+        File file = write("data.csv", "a,b,c\n007,1,x\n2,2.50,\n,3.25,y\n");
+        Dataset parsed = new CsvDataProvider().loadDataset(file);
+        DatasetCache cache = new DatasetCache();
+        cache.store(file, cache.keyFor(file), parsed);
+
+        Dataset cached = cache.load(file);
+        assertNotNull(cached);
+        assertEquals(parsed.getHeaders(), cached.getHeaders());
+        for (int j = 0; j < parsed.getColumns().size(); j++) {
+            DataColumn expected = parsed.getColumns().get(j);
+            DataColumn actual = cached.getColumns().get(j);
+            assertEquals(expected.getType(), actual.getType());
+            for (int i = 0; i < expected.size(); i++) assertEquals(expected.getString(i), actual.getString(i));
+        }
+        assertEquals("007", cached.getColumns().get(0).getString(0));
+        assertEquals("2.50", cached.getColumns().get(1).getString(1));
+    }
+
+    @Test
+    void changedSourceInvalidatesCache() throws IOException {
+        File file = write("data.csv", "a\n1\n2\n");
+        DatasetCache cache = new DatasetCache();
+        cache.store(file, cache.keyFor(file), new CsvDataProvider().loadDataset(file));
+        long mtime = file.lastModified();
+
+        Files.write(file.toPath(), "a\n1\n3\n".getBytes(CsvDataProvider.CHARSET)); // Same size
+        file.setLastModified(mtime); // Same mtime: only the sampled hash can tell
+        assertNull(cache.load(file));
+    }
+
+    @Test
+    void sourceRewrittenWhileParsingIsNotCached() throws IOException {
+        File file = write("data.csv", "a\n1\n2\n");
+        DatasetCache cache = new DatasetCache();
+        DatasetCache.Key key = cache.keyFor(file);
+        Dataset stale = new CsvDataProvider().loadDataset(file);
+
+        Files.write(file.toPath(), "a\n1\n2\n3\n".getBytes(CsvDataProvider.CHARSET)); // Rewritten before store
+        cache.store(file, key, stale);
+        assertFalse(cache.cacheFileFor(file).exists());
+        assertNull(cache.load(file));
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = dir.resolve(name).toFile();
+        Files.write(file.toPath(), content.getBytes(CsvDataProvider.CHARSET));
+        return file;
+    }
+}
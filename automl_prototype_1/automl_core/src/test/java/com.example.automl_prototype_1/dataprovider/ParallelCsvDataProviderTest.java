@@ -0,0 +1,72 @@
+package com.example.automl_prototype_1.dataprovider;
+
+import com.example.automl_prototype_1.model.DataColumn;
+import com.example.automl_prototype_1.model.Dataset;
+import com.example.automl_prototype_1.model.StringColumn;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelCsvDataProviderTest {
+
+    private static final int ROWS = 40_000; // ~600 KB: several ranges with 4 threads
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parallelLoadMatchesSequentialLoad() throws IOException {
+        StringBuilder csv = new StringBuilder("id,widened,padded,label,city\n");
+        for (int i = 0; i < ROWS; i++) {
+            // widened: ints in the first ranges, then doubles, some written as "n.0"
+            String widened = (i < ROWS / 2) ? Integer.toString(i) : (i % 3 == 0 ? i + ".0" : i + ".25");
+            // padded: numeric tokens with leading zeros, then one text token in the last range
+            String padded = (i == ROWS - 5) ? "abc" : (i % 4 == 0 ? "007" : Integer.toString(i % 4));
+            String label = (i % 10 == 0) ? "" : Integer.toString(i % 3);
+            csv.append(i).append(',').append(widened).append(',').append(padded).append(',')
+                    .append(label).append(',').append(i % 2 == 0 ? "Zürich" : "\"São, Paulo\"").append('\n');
+        }
+        File file = dir.resolve("data.csv").toFile();
+        Files.write(file.toPath(), csv.toString().getBytes(CsvDataProvider.CHARSET));
+
+        Dataset sequential = new CsvDataProvider().loadDataset(file);
+        Dataset parallel = new ParallelCsvDataProvider(4).loadDataset(file);
+
+        assertEquals(sequential.getHeaders(), parallel.getHeaders());
+        assertEquals(ROWS, parallel.getRecordCount());
+        for (int j = 0; j < sequential.getColumns().size(); j++) {
+            DataColumn expected = sequential.getColumns().get(j);
+            DataColumn actual = parallel.getColumns().get(j);
+            assertEquals(expected.getType(), actual.getType(), expected.getName());
+            for (int i = 0; i < ROWS; i++) {
+                assertEquals(expected.getString(i), actual.getString(i), expected.getName() + " row " + i);
+                assertEquals(expected.isMissing(i), actual.isMissing(i));
+            }
+            if (expected instanceof StringColumn) {
+                assertArrayEquals(((StringColumn) expected).getDictionary(), ((StringColumn) actual).getDictionary());
+                assertArrayEquals(((StringColumn) expected).getCodes(), ((StringColumn) actual).getCodes());
+            }
+        }
+        assertEquals(DataColumn.Type.DOUBLE, parallel.getColumns().get(1).getType());
+        assertEquals(DataColumn.Type.CATEGORICAL, parallel.getColumns().get(2).getType());
+        assertTrue(((StringColumn) parallel.getColumns().get(2)).getCardinality() == 5); // 007, 1, 2, 3, abc
+        assertEquals("Zürich", parallel.getColumns().get(4).getString(0));
+    }
+
+    @Test
+    void duplicateHeadersAreRejectedByBothLoaders() throws IOException {
+        File file = dir.resolve("dup.csv").toFile();
+        Files.write(file.toPath(), "a,b,A\n1,2,3\n".getBytes(CsvDataProvider.CHARSET));
+        assertThrows(IOException.class, () -> new CsvDataProvider().loadDataset(file));
+        assertThrows(IOException.class, () -> new ParallelCsvDataProvider(2).loadDataset(file));
+    }
+}
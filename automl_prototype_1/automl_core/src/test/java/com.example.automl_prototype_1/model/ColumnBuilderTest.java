@@ -0,0 +1,43 @@
+package com.example.automl_prototype_1.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ColumnBuilderTest {
+
+    private static DataColumn build(String... tokens) {
+        ColumnBuilder builder = new ColumnBuilder("c", 4);
+        for (String token : tokens) builder.append(token);
+        return builder.build();
+    }
+
+    private static String[] strings(DataColumn column) {
+        String[] out = new String[column.size()];
+        for (int i = 0; i < out.length; i++) out[i] = column.getString(i);
+        return out;
+    }
+
+    @Test
+    void integerColumnKeepsNonCanonicalTokens() {
+        DataColumn column = build("007", "1", "+5", "-0", "", "42");
+        assertEquals(DataColumn.Type.INTEGER, column.getType());
+        assertArrayEquals(new String[]{"007", "1", "+5", "-0", "", "42"}, strings(column));
+        assertEquals(7.0, column.getDouble(0));
+    }
+
+    @Test
+    void doubleColumnKeepsIntegerAndPaddedTokens() {
+        DataColumn column = build("1", "2.5", "1.50", "3.25", "1e3");
+        assertEquals(DataColumn.Type.DOUBLE, column.getType());
+        assertArrayEquals(new String[]{"1", "2.5", "1.50", "3.25", "1e3"}, strings(column));
+    }
+
+    @Test
+    void promotionToCategoricalUsesSourceTokens() {
+        StringColumn column = (StringColumn) build("007", "1", "2.50", "abc", "1");
+        assertArrayEquals(new String[]{"007", "1", "2.50", "abc"}, column.getDictionary());
+        assertArrayEquals(new String[]{"007", "1", "2.50", "abc", "1"}, strings(column));
+    }
+}
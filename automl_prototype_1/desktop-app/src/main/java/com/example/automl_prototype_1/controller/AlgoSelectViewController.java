@@ -19,6 +19,9 @@ public class AlgoSelectViewController {
     @FXML private CheckBox checkBPSO;
     @FXML private CheckBox checkASO;
     @FXML private CheckBox checkNNP;
+    @FXML private CheckBox checkHyperband;
+    @FXML private CheckBox checkTPE;
+    @FXML private CheckBox checkGPBO;
     private List<CheckBox> optimizationAlgorithmCheckBoxes;
 
     // --- Base ML Model Selection ---
@@ -32,7 +35,7 @@ public class AlgoSelectViewController {
         System.out.println("Algorithm Selection View Initialized");
 
         // --- Setup Optimization Algo Checkboxes ---
-        optimizationAlgorithmCheckBoxes = List.of(checkGA, checkIGPSO, checkWWO, checkBPSO, checkASO, checkNNP);
+        optimizationAlgorithmCheckBoxes = List.of(checkGA, checkIGPSO, checkWWO, checkBPSO, checkASO, checkNNP, checkHyperband, checkTPE, checkGPBO);
         List<String> currentOptAlgos = AppStateService.getInstance().getSelectedAlgorithmNames();
         optimizationAlgorithmCheckBoxes.forEach(cb -> {
             cb.setSelected(currentOptAlgos.contains(cb.getText()));